@@ -0,0 +1,71 @@
+package streetwalker.postservice.mappers;
+
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import streetwalker.postservice.dto.post.PostDTO;
+import streetwalker.postservice.models.Category;
+import streetwalker.postservice.models.Post;
+import streetwalker.postservice.models.PostLike;
+import streetwalker.postservice.models.Tag;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость {@link PostMapper#toDTO(Post)} в зависимости от числа тегов и лайков у сущности.
+ * toDTO читает like_count, а не коллекцию likes, поэтому параметр likes не должен влиять на результат.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostMapperBenchmark {
+
+    @Param({"0", "5", "50"})
+    private int tagCount;
+
+    @Param({"0", "100", "10000"})
+    private int likeCount;
+
+    private final PostMapper postMapper = Mappers.getMapper(PostMapper.class);
+    private Post post;
+
+    @Setup
+    public void setUp() {
+        OffsetDateTime createdAt = OffsetDateTime.parse("2025-01-01T00:00:00Z");
+        post = new Post();
+        post.setId(1L);
+        post.setTitle("Night walk along the embankment");
+        post.setContent("x".repeat(1000));
+        post.setAuthorId(100L);
+        post.setCategory(new Category(1L, "walks", "City walks"));
+        post.setCreatedAt(createdAt);
+        post.setUpdatedAt(createdAt.plusHours(1));
+
+        List<Tag> tags = new ArrayList<>(tagCount);
+        for (int i = 0; i < tagCount; i++) {
+            tags.add(new Tag((long) i, "tag" + i, "description"));
+        }
+        post.setTags(tags);
+
+        List<PostLike> likes = new ArrayList<>(likeCount);
+        for (long authorId = 0; authorId < likeCount; authorId++) {
+            likes.add(new PostLike(post, authorId));
+        }
+        post.setLikes(likes);
+        post.setLikeCount(likeCount);
+    }
+
+    @Benchmark
+    public PostDTO toDTO() {
+        return postMapper.toDTO(post);
+    }
+}
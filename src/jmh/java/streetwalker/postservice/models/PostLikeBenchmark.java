@@ -0,0 +1,76 @@
+package streetwalker.postservice.models;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * equals/hashCode {@link PostLike} и {@link LikeId}: оба идут через varargs Objects.hash
+ * и стоят на горячем пути Post.likes, буфера лайков и любых хэш-множеств лайков.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PostLikeBenchmark {
+
+    @Param({"1000", "100000"})
+    private int likes;
+
+    private final Set<PostLike> likeSet = new HashSet<>();
+    private PostLike like;
+    private PostLike sameLike;
+    private PostLike otherLike;
+    private PostLike absentLike;
+
+    @Setup
+    public void setUp() {
+        Post post = new Post();
+        post.setId(1L);
+        for (long authorId = 0; authorId < likes; authorId++) {
+            likeSet.add(new PostLike(post, authorId));
+        }
+        like = new PostLike(post, 42L);
+        sameLike = new PostLike(post, 42L);
+        otherLike = new PostLike(post, 43L);
+        absentLike = new PostLike(post, (long) likes + 1);
+    }
+
+    @Benchmark
+    public int hashCodeOf() {
+        return like.hashCode();
+    }
+
+    @Benchmark
+    public int likeIdHashCode() {
+        return like.getId().hashCode();
+    }
+
+    @Benchmark
+    public boolean equalsSame() {
+        return like.equals(sameLike);
+    }
+
+    @Benchmark
+    public boolean equalsOther() {
+        return like.equals(otherLike);
+    }
+
+    @Benchmark
+    public boolean containsPresent() {
+        return likeSet.contains(sameLike);
+    }
+
+    @Benchmark
+    public boolean containsAbsent() {
+        return likeSet.contains(absentLike);
+    }
+}
@@ -0,0 +1,106 @@
+package streetwalker.postservice.repositories;
+
+import streetwalker.postservice.models.LikeId;
+import streetwalker.postservice.models.Tag;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Репозитории в памяти для путей из бенчмарков, чтобы JMH мерил наш код, а не JDBC.
+ * Реализованы только вызываемые там методы, остальные падают сразу.
+ */
+public final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    public static TagRepository tags(Map<String, Tag> store) {
+        AtomicLong ids = new AtomicLong();
+        return proxy(TagRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "findAllByTagNames" -> {
+                List<Tag> found = new ArrayList<>();
+                for (Object name : (Collection<?>) args[0]) {
+                    Tag tag = store.get(name);
+                    if (tag != null) {
+                        found.add(tag);
+                    }
+                }
+                yield found;
+            }
+            case "insertMissing" -> {
+                int inserted = 0;
+                for (Object name : (Collection<?>) args[0]) {
+                    if (store.putIfAbsent((String) name, new Tag(ids.incrementAndGet(), (String) name, (String) args[1])) == null) {
+                        inserted++;
+                    }
+                }
+                yield inserted;
+            }
+            default -> unsupported(method.getName());
+        });
+    }
+
+    // existingPosts — id постов, на которые можно ставить лайк; likes — текущие лайки
+    public static PostLikeRepository postLikes(Set<Long> existingPosts, Set<LikeId> likes) {
+        return proxy(PostLikeRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "likeIfAbsent" -> existingPosts.contains(args[0]) && likes.add(new LikeId((Long) args[0], (Long) args[1])) ? 1 : 0;
+            case "unlikeIfPresent" -> likes.remove(new LikeId((Long) args[0], (Long) args[1])) ? 1 : 0;
+            case "applyLikeChanges" -> {
+                Map<Long, Integer> applied = new HashMap<>();
+                for (Object key : (Collection<?>) args[0]) {
+                    LikeId id = (LikeId) key;
+                    if (existingPosts.contains(id.getObjectId()) && likes.add(id)) {
+                        applied.merge(id.getObjectId(), 1, Integer::sum);
+                    }
+                }
+                for (Object key : (Collection<?>) args[1]) {
+                    LikeId id = (LikeId) key;
+                    if (likes.remove(id)) {
+                        applied.merge(id.getObjectId(), -1, Integer::sum);
+                    }
+                }
+                yield applied;
+            }
+            case "findLikedPostIds" -> List.of();
+            case "forEachAuthorId" -> null;
+            default -> unsupported(method.getName());
+        });
+    }
+
+    public static PostRepository posts(Set<Long> existingPosts) {
+        return proxy(PostRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "existsById" -> existingPosts.contains(args[0]);
+            default -> unsupported(method.getName());
+        });
+    }
+
+    public static Set<LikeId> likeStore() {
+        return ConcurrentHashMap.newKeySet();
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> type.getSimpleName() + " (in-memory)";
+                };
+            }
+            return handler.invoke(proxy, method, args);
+        }));
+    }
+
+    private static Object unsupported(String method) {
+        throw new UnsupportedOperationException(method + " is not faked");
+    }
+}
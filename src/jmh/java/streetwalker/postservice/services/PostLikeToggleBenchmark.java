@@ -0,0 +1,99 @@
+package streetwalker.postservice.services;
+
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import streetwalker.postservice.dto.post.PostDTO;
+import streetwalker.postservice.dto.postlike.PostLikeDTO;
+import streetwalker.postservice.mappers.PostMapper;
+import streetwalker.postservice.models.LikeId;
+import streetwalker.postservice.repositories.InMemoryRepositories;
+import streetwalker.postservice.repositories.PostLikeRepository;
+import streetwalker.postservice.repositories.PostRepository;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Лайк и анлайк через {@link PostService}: напрямую (по вызову репозитория, индекс лайкеров и патч кэша)
+ * и через буфер {@link LikeBuffer}. Каждый поток переключает своего автора на общих горячих постах.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(4)
+public class PostLikeToggleBenchmark {
+    private static final int POSTS = 16;
+
+    @Param({"false", "true"})
+    private boolean buffered;
+
+    private PostService postService;
+    private LikeBuffer likeBuffer;
+
+    @Setup
+    public void setUp() {
+        Set<Long> posts = new HashSet<>();
+        for (long id = 1; id <= POSTS; id++) {
+            posts.add(id);
+        }
+        Set<LikeId> likes = InMemoryRepositories.likeStore();
+        PostRepository postRepository = InMemoryRepositories.posts(posts);
+        PostLikeRepository postLikeRepository = InMemoryRepositories.postLikes(posts, likes);
+        PostMapper postMapper = Mappers.getMapper(PostMapper.class);
+
+        PostCache postCache = new PostCache(postMapper, 10_000, Duration.ofHours(1));
+        for (long id = 1; id <= POSTS; id++) {
+            PostDTO cached = new PostDTO();
+            cached.setId(id);
+            cached.setLikes(0);
+            postCache.put(cached);
+        }
+        PostLikerIndex postLikerIndex = new PostLikerIndex(postLikeRepository, 64L << 20, 4, true);
+        // Без планировщика буфер сбрасывается только по размеру, как при всплеске лайков
+        likeBuffer = new LikeBuffer(postLikeRepository, postLikerIndex, postCache, buffered, 10_000, 50_000, 3);
+        postService = new PostService(postRepository, postLikeRepository, postMapper, null, null, null,
+                likeBuffer, postLikerIndex, postCache, null, null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        likeBuffer.drain();
+    }
+
+    @State(Scope.Thread)
+    public static class Liker {
+        private static final AtomicLong AUTHORS = new AtomicLong();
+
+        private final PostLikeDTO like = new PostLikeDTO();
+        private long next;
+
+        @Setup
+        public void setUp() {
+            like.setAuthorId(AUTHORS.incrementAndGet());
+        }
+
+        PostLikeDTO nextPost() {
+            like.setPostId(next++ % POSTS + 1);
+            return like;
+        }
+    }
+
+    @Benchmark
+    public void likeThenUnlike(Liker liker) {
+        PostLikeDTO like = liker.nextPost();
+        postService.likePost(like);
+        postService.unlikePost(like);
+    }
+}
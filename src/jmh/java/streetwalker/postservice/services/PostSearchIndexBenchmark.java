@@ -0,0 +1,68 @@
+package streetwalker.postservice.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import streetwalker.postservice.dto.post.PostSearchHitDTO;
+import streetwalker.postservice.repositories.InMemoryRepositories;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top-10 {@link PostSearchIndex#search} по синтетическому корпусу с перекошенным (полунормальным)
+ * распределением терминов: запрос из частых терминов и запрос из частого и редкого.
+ * По gc.alloc.rate.norm видно, что цена запроса не растёт с числом оценённых вхождений.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostSearchIndexBenchmark {
+    private static final int VOCABULARY = 300;
+
+    @Param({"100000", "1000000"})
+    private int posts;
+
+    private PostSearchIndex index;
+    private String commonQuery;
+    private String mixedQuery;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        String[] words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            words[i] = "term" + (char) ('a' + i % 26) + (char) ('a' + i / 26);
+        }
+        index = new PostSearchIndex(InMemoryRepositories.posts(new HashSet<>()), 3, false, 1000);
+        for (long id = 1; id <= posts; id++) {
+            StringBuilder content = new StringBuilder();
+            int length = 5 + random.nextInt(40);
+            for (int i = 0; i < length; i++) {
+                // Частые термы в начале словаря, как в живом тексте
+                int word = (int) Math.min(VOCABULARY - 1, Math.abs(random.nextGaussian()) * 40);
+                content.append(words[word]).append(' ');
+            }
+            index.index(id, words[random.nextInt(VOCABULARY)] + " " + words[random.nextInt(60)], content.toString());
+        }
+        commonQuery = words[0] + " " + words[1] + " " + words[2];
+        mixedQuery = words[0] + " " + words[150];
+    }
+
+    @Benchmark
+    public List<PostSearchHitDTO> commonTerms() {
+        return index.search(commonQuery, 10);
+    }
+
+    @Benchmark
+    public List<PostSearchHitDTO> commonAndRareTerm() {
+        return index.search(mixedQuery, 10);
+    }
+}
@@ -0,0 +1,72 @@
+package streetwalker.postservice.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import streetwalker.postservice.models.Tag;
+import streetwalker.postservice.repositories.InMemoryRepositories;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TagService#proceedTagsWhenCreatingPost} над таблицей тегов в памяти: все теги уже есть
+ * и первое использование, когда их все нужно вставить.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TagServiceBenchmark {
+
+    @Param({"1", "10", "50"})
+    private int tagCount;
+
+    // Дубликаты во входном списке, как у клиентов, присылающих теги из текста
+    @Param({"0", "50"})
+    private int duplicatePercent;
+
+    private final Map<String, Tag> store = new HashMap<>();
+    private final Map<String, Tag> emptyStore = new HashMap<>();
+    private TagService existingTags;
+    private TagService missingTags;
+    private List<String> names;
+
+    @Setup
+    public void setUp() {
+        names = new ArrayList<>(tagCount);
+        for (int i = 0; i < tagCount; i++) {
+            names.add("tag" + i);
+        }
+        for (int i = 0; i < tagCount * duplicatePercent / 100; i++) {
+            names.add("tag" + i);
+        }
+        existingTags = new TagService(InMemoryRepositories.tags(store));
+        existingTags.proceedTagsWhenCreatingPost(names);
+        missingTags = new TagService(InMemoryRepositories.tags(emptyStore));
+    }
+
+    // Микросекундная операция — Level.Invocation здесь допустим
+    @Setup(Level.Invocation)
+    public void forgetInsertedTags() {
+        emptyStore.clear();
+    }
+
+    @Benchmark
+    public List<Tag> existing() {
+        return existingTags.proceedTagsWhenCreatingPost(names);
+    }
+
+    @Benchmark
+    public List<Tag> missing() {
+        return missingTags.proceedTagsWhenCreatingPost(names);
+    }
+}
@@ -0,0 +1,62 @@
+package streetwalker.postservice.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Задержки и ошибки одного эндпоинта. Задержка считается от запланированного времени отправки,
+ * а не от фактического, чтобы зависший сервер был виден в перцентилях (coordinated omission).
+ */
+public class EndpointStats {
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final String name;
+    private final Recorder recorder = new Recorder(MAX_LATENCY_NANOS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private Histogram histogram = new Histogram(MAX_LATENCY_NANOS, 3);
+
+    public EndpointStats(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void record(long latencyNanos, boolean success) {
+        recorder.recordValue(Math.min(latencyNanos, MAX_LATENCY_NANOS));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    // Запрос не отправлен: превышен load.max-in-flight
+    public void drop() {
+        dropped.increment();
+    }
+
+    // Сбрасывает всё, что набрано за прогрев
+    public void reset() {
+        recorder.reset();
+        histogram = new Histogram(MAX_LATENCY_NANOS, 3);
+        errors.reset();
+        dropped.reset();
+    }
+
+    public Histogram histogram() {
+        histogram.add(recorder.getIntervalHistogram());
+        return histogram;
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+}
@@ -0,0 +1,92 @@
+package streetwalker.postservice.load;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Заполняет созданную Hibernate схему синтетическими данными через generate_series,
+ * поэтому даже большие наборы готовы за секунды. Id задаются явно, sequence потом сдвигаются за них.
+ */
+public class LoadDataSeeder {
+    private static final Logger log = LoggerFactory.getLogger(LoadDataSeeder.class);
+    static final String[] WORDS = {"night", "walk", "river", "bridge", "street", "market", "rain", "tram",
+            "park", "coffee", "graffiti", "roof", "harbor", "alley", "lantern", "station"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LoadTestConfig config;
+
+    public LoadDataSeeder(JdbcTemplate jdbcTemplate, LoadTestConfig config) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.config = config;
+    }
+
+    public void seed() {
+        long start = System.nanoTime();
+        String words = "array['" + String.join("','", WORDS) + "']";
+
+        jdbcTemplate.update("""
+                insert into category (id, category_name, category_description, name_key)
+                select g, 'category' || g, 'Category ' || g, 'category' || g from generate_series(1, ?) g""",
+                config.getCategories());
+        jdbcTemplate.update("""
+                insert into tag (id, tag_name, tag_description)
+                select g, 'tag' || g, 'description' from generate_series(1, ?) g""",
+                config.getTags());
+        // Посты идут в прошлое по минуте, чтобы лента и курсоры работали на реальном порядке created_at
+        jdbcTemplate.update("""
+                insert into post (id, title, content, author_id, like_count, category_id, created_at, updated_at, version)
+                select g,
+                       initcap(%1$s[1 + g %% 16]) || ' ' || %1$s[1 + (g / 16) %% 16] || ' ' || g,
+                       left(repeat(%1$s[1 + (g / 7) %% 16] || ' ' || %1$s[1 + (g / 3) %% 16] || ' ', 20), 255),
+                       1 + g %% 5000, 0, 1 + g %% ?,
+                       now() - g * interval '1 minute', now() - g * interval '1 minute', 0
+                from generate_series(1, ?) g""".formatted(words),
+                config.getCategories(), config.getPosts());
+        jdbcTemplate.update("""
+                insert into post_tags (post_id, tag_id)
+                select distinct p, 1 + (p * 31 + i * 7) % ? from generate_series(1, ?) p, generate_series(0, ? - 1) i""",
+                config.getTags(), config.getPosts(), config.getTagsPerPost());
+        seedCommentThreads();
+        seedHotPostLikes();
+
+        for (String table : new String[]{"category", "tag", "post", "comment"}) {
+            jdbcTemplate.execute("select setval('" + table + "_seq', (select coalesce(max(id), 0) + 1000 from " + table + "))");
+        }
+        jdbcTemplate.execute("analyze");
+        log.info("Seeded {} posts, {} tags, {} categories, {} comments, {} likes in {} ms",
+                config.getPosts(), config.getTags(), config.getCategories(),
+                (long) config.getThreadPosts() * config.getThreadsPerPost() * config.getThreadDepth(),
+                (long) config.getHotPosts() * config.getLikesPerHotPost(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Каждая ветка — цепочка ответов глубины threadDepth: d = 0 — корень, дальше ответ на предыдущий.
+    // path — id предков и свой по 19 цифр, как в CommentPath
+    private void seedCommentThreads() {
+        int depth = config.getThreadDepth();
+        int threads = config.getThreadsPerPost();
+        jdbcTemplate.update("""
+                insert into comment (id, content, author_id, post_id, parent_comment_id, path, depth)
+                select base + d + 1,
+                       'reply ' || d || ' in thread ' || t,
+                       1 + (p + d) % 5000,
+                       p,
+                       case when d = 0 then null else base + d end,
+                       (select string_agg(lpad((base + k + 1)::text, 19, '0'), '' order by k) from generate_series(0, d) k),
+                       d
+                from generate_series(1, ?) p, generate_series(0, ? - 1) t, generate_series(0, ? - 1) d,
+                     lateral (select ((p - 1) * ? + t) * ? as base) b""",
+                config.getThreadPosts(), threads, depth, threads, depth);
+    }
+
+    // Горячие посты — первые hotPosts id; авторы лайков начинаются с 1, у генератора нагрузки — выше
+    private void seedHotPostLikes() {
+        jdbcTemplate.update("""
+                insert into post_like (post_id, author_id)
+                select p, a from generate_series(1, ?) p, generate_series(1, ?) a""",
+                config.getHotPosts(), config.getLikesPerHotPost());
+        jdbcTemplate.update("update post set like_count = ? where id <= ?",
+                config.getLikesPerHotPost(), config.getHotPosts());
+    }
+}
@@ -0,0 +1,102 @@
+package streetwalker.postservice.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Пропускная способность и перцентили задержек по эндпоинтам за измеряемую фазу: таблица в stdout,
+ * report.json для сравнения между релизами и .hgrm на эндпоинт. Заодно проверяет бюджет задержек и ошибок.
+ */
+public class LoadReport {
+    private static final double NANOS_PER_MS = 1_000_000.0;
+
+    private final LoadTestConfig config;
+    private final Map<String, EndpointStats> stats;
+    private final Duration measured;
+
+    public LoadReport(LoadTestConfig config, Map<String, EndpointStats> stats, Duration measured) {
+        this.config = config;
+        this.stats = stats;
+        this.measured = measured;
+    }
+
+    /**
+     * Печатает и пишет отчёт; возвращает нарушения бюджета, пустой список — прогон прошёл.
+     */
+    public List<String> write(PrintStream out) throws IOException {
+        Files.createDirectories(config.getReportDir());
+        double seconds = measured.toNanos() / 1e9;
+        List<String> violations = new ArrayList<>();
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+
+        out.printf(Locale.ROOT, "%-18s %9s %9s %7s %7s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "errors", "dropped", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (EndpointStats endpoint : stats.values()) {
+            Histogram histogram = endpoint.histogram();
+            long count = histogram.getTotalCount();
+            double p50 = histogram.getValueAtPercentile(50) / NANOS_PER_MS;
+            double p99 = histogram.getValueAtPercentile(99) / NANOS_PER_MS;
+            double p999 = histogram.getValueAtPercentile(99.9) / NANOS_PER_MS;
+            double max = histogram.getMaxValue() / NANOS_PER_MS;
+            out.printf(Locale.ROOT, "%-18s %9d %9.1f %7d %7d %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint.getName(), count, count / seconds, endpoint.errors(), endpoint.dropped(), p50, p99, p999, max);
+
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("requests", count);
+            json.put("throughputPerSecond", count / seconds);
+            json.put("errors", endpoint.errors());
+            json.put("dropped", endpoint.dropped());
+            json.put("p50Ms", p50);
+            json.put("p99Ms", p99);
+            json.put("p999Ms", p999);
+            json.put("maxMs", max);
+            endpoints.put(endpoint.getName(), json);
+
+            try (OutputStream hgrm = Files.newOutputStream(config.getReportDir().resolve(endpoint.getName() + ".hgrm"))) {
+                histogram.outputPercentileDistribution(new PrintStream(hgrm), NANOS_PER_MS);
+            }
+            check(violations, endpoint, count, p99, p999);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("rate", config.getRate());
+        report.put("durationSeconds", seconds);
+        report.put("posts", config.getPosts());
+        report.put("endpoints", endpoints);
+        report.put("violations", violations);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(config.getReportDir().resolve("report.json").toFile(), report);
+        out.println("Report written to " + config.getReportDir().toAbsolutePath());
+        return violations;
+    }
+
+    private void check(List<String> violations, EndpointStats endpoint, long count, double p99, double p999) {
+        String name = endpoint.getName();
+        double maxP99 = config.maxP99Ms(name);
+        double maxP999 = config.maxP999Ms(name);
+        if (maxP99 > 0 && p99 > maxP99) {
+            violations.add(String.format(Locale.ROOT, "%s p99 %.2f ms > %.2f ms", name, p99, maxP99));
+        }
+        if (maxP999 > 0 && p999 > maxP999) {
+            violations.add(String.format(Locale.ROOT, "%s p999 %.2f ms > %.2f ms", name, p999, maxP999));
+        }
+        // Отброшенные запросы — тоже отказ: генератор не смог отдать заданную нагрузку
+        long offered = count + endpoint.dropped();
+        double errorRate = offered == 0 ? 0 : (double) (endpoint.errors() + endpoint.dropped()) / offered;
+        if (errorRate > config.getMaxErrorRate()) {
+            violations.add(String.format(Locale.ROOT, "%s error rate %.4f > %.4f", name, errorRate, config.getMaxErrorRate()));
+        }
+    }
+}
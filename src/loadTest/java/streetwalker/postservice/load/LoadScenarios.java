@@ -0,0 +1,102 @@
+package streetwalker.postservice.load;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Запросы нагрузочного теста по имени эндпоинта (как в {@code load.mix} и в отчёте).
+ * Id берутся из засеянных данных; чтение одного поста смещено к горячим постам.
+ */
+public class LoadScenarios {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    // Авторы лайков из нагрузки не пересекаются с засеянными, чтобы лайк не упирался в "Already liked"
+    private static final long FIRST_LOAD_AUTHOR = 10_000_000L;
+
+    private final String baseUrl;
+    private final LoadTestConfig config;
+    private final AtomicLong likeAuthors = new AtomicLong(FIRST_LOAD_AUTHOR);
+    private final Map<String, Function<SplittableRandom, HttpRequest>> requests = new LinkedHashMap<>();
+
+    public LoadScenarios(String baseUrl, LoadTestConfig config) {
+        this.baseUrl = baseUrl;
+        this.config = config;
+        register("post.get", random -> get("/api/posts/" + readPostId(random)));
+        register("post.list", random -> get("/api/posts?page=" + random.nextInt(50) + "&size=20"));
+        register("post.feed", random -> get("/api/posts?limit=20"));
+        register("post.search", random -> get("/api/posts/search?q=" + word(random) + "&limit=20"));
+        register("post.batch", random -> post("/api/posts/batch-get", "{\"ids\":" + postIds(random, 20) + "}"));
+        register("post.like", random -> post("/api/posts/like",
+                "{\"postId\":" + hotPostId(random) + ",\"authorId\":" + likeAuthors.incrementAndGet() + "}"));
+        register("post.likeStatus", random -> post("/api/posts/likes/status",
+                "{\"authorId\":" + (1 + random.nextInt(config.getLikesPerHotPost())) + ",\"postIds\":" + postIds(random, 50) + "}"));
+        register("post.create", random -> post("/api/posts", """
+                {"authorId":%d,"title":"Load %s %s","content":"%s","tags":["tag%d","tag%d"],"category":{"categoryName":"category%d"}}"""
+                .formatted(1 + random.nextInt(5000), word(random), word(random), word(random),
+                        1 + random.nextInt(config.getTags()), 1 + random.nextInt(config.getTags()),
+                        1 + random.nextInt(config.getCategories()))));
+        register("post.commentTree", random -> get("/api/posts/" + threadPostId(random) + "/comments/tree"));
+        register("comment.create", random -> post("/api/comments", """
+                {"postId":%d,"authorId":%d,"content":"load reply"}"""
+                .formatted(threadPostId(random), 1 + random.nextInt(5000))));
+        register("category.get", random -> get("/api/categories/category" + (1 + random.nextInt(config.getCategories()))));
+    }
+
+    private void register(String endpoint, Function<SplittableRandom, HttpRequest> request) {
+        requests.put(endpoint, request);
+    }
+
+    public Set<String> endpoints() {
+        return requests.keySet();
+    }
+
+    public HttpRequest request(String endpoint, SplittableRandom random) {
+        Function<SplittableRandom, HttpRequest> request = requests.get(endpoint);
+        if (request == null) {
+            throw new IllegalArgumentException("Unknown endpoint " + endpoint + ", known: " + requests.keySet());
+        }
+        return request.apply(random);
+    }
+
+    private long readPostId(SplittableRandom random) {
+        return random.nextInt(100) < config.getHotReadPercent() ? hotPostId(random) : 1 + random.nextInt(config.getPosts());
+    }
+
+    private long hotPostId(SplittableRandom random) {
+        return 1 + random.nextInt(Math.max(1, config.getHotPosts()));
+    }
+
+    private long threadPostId(SplittableRandom random) {
+        return 1 + random.nextInt(Math.max(1, config.getThreadPosts()));
+    }
+
+    private String postIds(SplittableRandom random, int count) {
+        StringBuilder ids = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            ids.append(i == 0 ? "" : ",").append(readPostId(random));
+        }
+        return ids.append(']').toString();
+    }
+
+    private static String word(SplittableRandom random) {
+        return LoadDataSeeder.WORDS[random.nextInt(LoadDataSeeder.WORDS.length)];
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+}
@@ -0,0 +1,76 @@
+package streetwalker.postservice.load;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Настройки нагрузочного теста из системных свойств {@code load.*} (gradle пробрасывает {@code -Pload.*}):
+ * объём данных, темп открытой модели, смесь запросов и бюджет задержек.
+ */
+@Getter
+public class LoadTestConfig {
+    private static final String DEFAULT_MIX = "post.get:35,post.list:10,post.feed:10,post.search:10,post.batch:5,"
+            + "post.like:10,post.likeStatus:5,post.create:3,post.commentTree:5,comment.create:4,category.get:3";
+
+    // Данные
+    private final int posts = intProperty("load.posts", 20_000);
+    private final int tags = intProperty("load.tags", 500);
+    private final int tagsPerPost = intProperty("load.tags-per-post", 3);
+    private final int categories = intProperty("load.categories", 30);
+    // Глубокие ветки комментариев: threadPosts постов по threadsPerPost цепочек глубины threadDepth
+    private final int threadPosts = intProperty("load.thread-posts", 200);
+    private final int threadsPerPost = intProperty("load.threads-per-post", 5);
+    private final int threadDepth = intProperty("load.thread-depth", 40);
+    // Горячие посты: на них приходится заметная доля чтений и все лайки
+    private final int hotPosts = intProperty("load.hot-posts", 20);
+    private final int likesPerHotPost = intProperty("load.likes-per-hot-post", 20_000);
+    private final int hotReadPercent = intProperty("load.hot-read-percent", 30);
+
+    // Нагрузка: открытая модель, запросы приходят с заданной частотой независимо от ответов
+    private final double rate = doubleProperty("load.rate", 200);
+    private final Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT15S"));
+    private final Duration duration = Duration.parse(System.getProperty("load.duration", "PT60S"));
+    private final int maxInFlight = intProperty("load.max-in-flight", 5_000);
+    private final long seed = Long.parseLong(System.getProperty("load.seed", "42"));
+    private final Map<String, Integer> mix = parseMix(System.getProperty("load.mix", DEFAULT_MIX));
+
+    // Порог: 0 — не проверять
+    private final double maxP99Ms = doubleProperty("load.max-p99-ms", 0);
+    private final double maxP999Ms = doubleProperty("load.max-p999-ms", 0);
+    private final double maxErrorRate = doubleProperty("load.max-error-rate", 0.01);
+
+    private final Path reportDir = Path.of(System.getProperty("load.report-dir", "build/reports/loadTest"));
+
+    // Порог для отдельного эндпоинта: load.max-p99-ms.post.get=20
+    public double maxP99Ms(String endpoint) {
+        return doubleProperty("load.max-p99-ms." + endpoint, maxP99Ms);
+    }
+
+    public double maxP999Ms(String endpoint) {
+        return doubleProperty("load.max-p999-ms." + endpoint, maxP999Ms);
+    }
+
+    private static Map<String, Integer> parseMix(String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("load.mix entries must be endpoint:weight, got " + entry);
+            }
+            mix.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return mix;
+    }
+
+    private static int intProperty(String name, int defaultValue) {
+        return Integer.parseInt(System.getProperty(name, String.valueOf(defaultValue)));
+    }
+
+    private static double doubleProperty(String name, double defaultValue) {
+        return Double.parseDouble(System.getProperty(name, String.valueOf(defaultValue)));
+    }
+}
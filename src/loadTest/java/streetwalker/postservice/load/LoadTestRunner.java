@@ -0,0 +1,75 @@
+package streetwalker.postservice.load;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import streetwalker.postservice.StreetWalkerPostServiceApplication;
+import streetwalker.postservice.services.PostSearchIndex;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+
+/**
+ * Точка входа {@code ./gradlew loadTest}: встроенный PostgreSQL, сервис на случайном порту, данные,
+ * прогрев и измеряемая фаза, отчёт. При превышении бюджета выходит с кодом 1, и сборка падает.
+ */
+public class LoadTestRunner {
+    private static final Logger log = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = new LoadTestConfig();
+        List<String> violations;
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(StreetWalkerPostServiceApplication.class)
+                     .properties(Map.of(
+                             "spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"),
+                             "spring.datasource.username", "postgres",
+                             "spring.datasource.password", "postgres",
+                             "spring.jpa.hibernate.ddl-auto", "create",
+                             "server.port", "0",
+                             "posts.grpc.enabled", "false",
+                             // Индекс строится после засева, а не на пустой базе при старте
+                             "posts.search.rebuild-on-startup", "false"))
+                     .run(args)) {
+            new LoadDataSeeder(context.getBean(JdbcTemplate.class), config).seed();
+            context.getBean(PostSearchIndex.class).rebuild();
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadScenarios scenarios = new LoadScenarios("http://localhost:" + port, config);
+            Map<String, EndpointStats> stats = new LinkedHashMap<>();
+            config.getMix().keySet().forEach(endpoint -> stats.put(endpoint, new EndpointStats(endpoint)));
+
+            try (HttpClient httpClient = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build()) {
+                OpenModelDriver driver = new OpenModelDriver(httpClient, scenarios, config, stats);
+                SplittableRandom random = new SplittableRandom(config.getSeed());
+
+                log.info("Warm-up: {} at {} req/s", config.getWarmup(), config.getRate());
+                driver.run(config.getWarmup(), random);
+                stats.values().forEach(EndpointStats::reset);
+
+                log.info("Measuring: {} at {} req/s", config.getDuration(), config.getRate());
+                driver.run(config.getDuration(), random);
+
+                violations = new LoadReport(config, stats, config.getDuration()).write(System.out);
+            }
+        }
+
+        if (!violations.isEmpty()) {
+            violations.forEach(violation -> System.err.println("Budget exceeded: " + violation));
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+}
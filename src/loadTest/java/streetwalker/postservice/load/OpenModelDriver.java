@@ -0,0 +1,111 @@
+package streetwalker.postservice.load;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Генератор нагрузки по открытой модели: пуассоновский поток {@code load.rate} запросов в секунду
+ * независимо от скорости ответов. Каждый запрос на своём виртуальном потоке; сверх
+ * {@code load.max-in-flight} одновременных запрос отбрасывается и учитывается.
+ */
+public class OpenModelDriver {
+    private static final Logger log = LoggerFactory.getLogger(OpenModelDriver.class);
+
+    private final HttpClient httpClient;
+    private final LoadScenarios scenarios;
+    private final LoadTestConfig config;
+    private final Map<String, EndpointStats> stats;
+    private final List<String> endpoints = new ArrayList<>();
+    private final int[] cumulativeWeights;
+
+    public OpenModelDriver(HttpClient httpClient, LoadScenarios scenarios, LoadTestConfig config, Map<String, EndpointStats> stats) {
+        this.httpClient = httpClient;
+        this.scenarios = scenarios;
+        this.config = config;
+        this.stats = stats;
+        this.cumulativeWeights = new int[config.getMix().size()];
+        int total = 0;
+        for (Map.Entry<String, Integer> entry : config.getMix().entrySet()) {
+            if (!scenarios.endpoints().contains(entry.getKey())) {
+                throw new IllegalArgumentException("Unknown endpoint " + entry.getKey() + " in load.mix, known: " + scenarios.endpoints());
+            }
+            total += entry.getValue();
+            cumulativeWeights[endpoints.size()] = total;
+            endpoints.add(entry.getKey());
+        }
+    }
+
+    /**
+     * Даёт нагрузку {@code duration} и возвращается, когда все начатые запросы завершились.
+     */
+    public void run(Duration duration, SplittableRandom random) {
+        Semaphore inFlight = new Semaphore(config.getMaxInFlight());
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / config.getRate();
+        int totalWeight = cumulativeWeights[cumulativeWeights.length - 1];
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long start = System.nanoTime();
+            long end = start + duration.toNanos();
+            long intended = start;
+            while (true) {
+                // Экспоненциальные интервалы между приходами — пуассоновский поток
+                intended += (long) (-Math.log(1 - random.nextDouble()) * meanIntervalNanos);
+                if (intended >= end) {
+                    break;
+                }
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                String endpoint = pick(random.nextInt(totalWeight));
+                EndpointStats endpointStats = stats.get(endpoint);
+                if (!inFlight.tryAcquire()) {
+                    endpointStats.drop();
+                    continue;
+                }
+                HttpRequest request = scenarios.request(endpoint, random.split());
+                long intendedStart = intended;
+                executor.execute(() -> {
+                    try {
+                        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        endpointStats.record(System.nanoTime() - intendedStart, isSuccess(response.statusCode()));
+                    } catch (Exception ex) {
+                        endpointStats.record(System.nanoTime() - intendedStart, false);
+                        log.debug("{} failed", endpoint, ex);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+    }
+
+    private String pick(int value) {
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return endpoints.get(i);
+            }
+        }
+        return endpoints.get(endpoints.size() - 1);
+    }
+
+    // 304 — успешный условный GET
+    private static boolean isSuccess(int status) {
+        return status / 100 == 2 || status == 304;
+    }
+}
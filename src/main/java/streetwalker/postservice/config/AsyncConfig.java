@@ -0,0 +1,10 @@
+package streetwalker.postservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+// @Async идёт через applicationTaskExecutor Spring Boot: виртуальные потоки при spring.threads.virtual.enabled=true
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
@@ -0,0 +1,128 @@
+package streetwalker.postservice.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Семафор перед пулом соединений: соединение выдаётся по разрешению, которое возвращается при close().
+ * Лишние вызовы (обычно виртуальные потоки) ждут на семафоре, а не в пуле, и через {@code maxWait}
+ * получают {@link SQLTransientConnectionException}. Метрики — {@code posts.db.bulkhead.*}.
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+    private final Semaphore permits;
+    private final int maxPermits;
+    private final long maxWaitNanos;
+    private final LongAdder rejected = new LongAdder();
+    private volatile Timer waitTimer;
+
+    public BulkheadDataSource(DataSource target, int maxPermits, Duration maxWait) {
+        super(target);
+        this.maxPermits = maxPermits;
+        this.permits = new Semaphore(maxPermits, true);
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        return guarded(() -> super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        return guarded(() -> super.getConnection(username, password));
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    public void bindTo(MeterRegistry registry) {
+        waitTimer = Timer.builder("posts.db.bulkhead.wait")
+                .description("Time spent waiting for a database bulkhead permit")
+                .register(registry);
+        FunctionCounter.builder("posts.db.bulkhead.rejected", rejected, LongAdder::sum)
+                .description("Connection requests rejected after waiting posts.db.bulkhead.max-wait")
+                .register(registry);
+        Gauge.builder("posts.db.bulkhead.available", permits, Semaphore::availablePermits)
+                .description("Free permits out of " + maxPermits)
+                .register(registry);
+        Gauge.builder("posts.db.bulkhead.queued", permits, Semaphore::getQueueLength)
+                .description("Threads waiting for a permit")
+                .register(registry);
+    }
+
+    private void acquire() throws SQLException {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database bulkhead permit", ex);
+        }
+        Timer timer = waitTimer;
+        if (timer != null) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new SQLTransientConnectionException("Database bulkhead is full: no permit within " + Duration.ofNanos(maxWaitNanos));
+        }
+    }
+
+    private Connection guarded(ConnectionSupplier supplier) throws SQLException {
+        Connection connection;
+        try {
+            connection = supplier.get();
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+        // Разрешение возвращается при первом close(), повторный close его не трогает
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                        try {
+                            connection.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getTargetException();
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
@@ -0,0 +1,33 @@
+package streetwalker.postservice.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import streetwalker.postservice.services.LikeBuffer;
+import streetwalker.postservice.services.PostCache;
+import streetwalker.postservice.services.PostLikerIndex;
+
+// Кэши и буферы в памяти: hit ratio кэша постов (cache.gets{cache="posts",result=hit|miss}), очередь лайков, размер bitmap-индекса
+@Configuration
+public class CacheMetricsConfig {
+
+    @Bean
+    public MeterBinder postCacheMetrics(PostCache postCache) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, postCache.nativeCache(), "posts");
+    }
+
+    @Bean
+    public MeterBinder likeMetrics(LikeBuffer likeBuffer, PostLikerIndex postLikerIndex) {
+        return registry -> {
+            Gauge.builder("posts.likes.buffer.pending", likeBuffer, LikeBuffer::size)
+                    .description("Like/unlike events waiting to be flushed")
+                    .register(registry);
+            Gauge.builder("posts.likes.bitmap.bytes", postLikerIndex, PostLikerIndex::usedBytes)
+                    .description("Estimated size of the in-memory liker bitmaps")
+                    .baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package streetwalker.postservice.config;
+
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+import streetwalker.postservice.models.Comment;
+import streetwalker.postservice.services.CommentPath;
+
+/**
+ * Заполняет {@code path} и {@code depth} нового комментария в {@code persist}: id уже выдан sequence,
+ * а состояние для INSERT ещё не снято, так что обе колонки уходят в тот же INSERT без лишнего UPDATE.
+ * Ответ под старым родителем без path остаётся для {@code CommentRepository.backfillPaths}.
+ */
+public class CommentPathInterceptor implements Interceptor {
+
+    @Override
+    public boolean onPersist(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        if (!(entity instanceof Comment comment) || comment.getPath() != null) {
+            return false;
+        }
+        Comment parent = comment.getParentComment();
+        if (parent == null) {
+            comment.setPath(CommentPath.of(null, (Long) id));
+            comment.setDepth(0);
+        } else if (parent.getPath() != null) {
+            comment.setPath(CommentPath.of(parent.getPath(), (Long) id));
+            comment.setDepth(parent.getDepth() + 1);
+        } else {
+            return false;
+        }
+        for (int i = 0; i < propertyNames.length; i++) {
+            switch (propertyNames[i]) {
+                case "path" -> state[i] = comment.getPath();
+                case "depth" -> state[i] = comment.getDepth();
+                default -> {
+                }
+            }
+        }
+        return true;
+    }
+}
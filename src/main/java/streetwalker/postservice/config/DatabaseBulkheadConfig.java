@@ -0,0 +1,43 @@
+package streetwalker.postservice.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Оборачивает пул соединений в BulkheadDataSource; включается вместе с виртуальными потоками
+@Configuration
+@ConditionalOnProperty(name = "posts.db.bulkhead.enabled", havingValue = "true")
+public class DatabaseBulkheadConfig {
+
+    @Bean
+    public static BeanPostProcessor databaseBulkheadPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof BulkheadDataSource)) {
+                    // По умолчанию разрешений столько же, сколько соединений в пуле Hikari
+                    int permits = environment.getProperty("posts.db.bulkhead.permits", Integer.class,
+                            environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+                    Duration maxWait = environment.getProperty("posts.db.bulkhead.max-wait", Duration.class, Duration.ofSeconds(5));
+                    return new BulkheadDataSource(dataSource, permits, maxWait);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder databaseBulkheadMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof BulkheadDataSource bulkhead) {
+                bulkhead.bindTo(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,16 @@
+package streetwalker.postservice.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Интерсептор общий для фабрики сессий: он без состояния, поэтому один экземпляр на все сессии
+@Configuration
+public class HibernateConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer commentPathInterceptorCustomizer() {
+        return properties -> properties.put(AvailableSettings.INTERCEPTOR, new CommentPathInterceptor());
+    }
+}
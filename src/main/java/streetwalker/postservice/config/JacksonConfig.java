@@ -0,0 +1,22 @@
+package streetwalker.postservice.config;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import streetwalker.postservice.services.PostFields;
+
+// PostDTO помечен @JsonFilter: без ?fields= фильтр по умолчанию сериализует все свойства
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer postFieldsFilterCustomizer() {
+        return builder -> builder.filters(defaultFilters());
+    }
+
+    public static SimpleFilterProvider defaultFilters() {
+        return new SimpleFilterProvider().addFilter(PostFields.FILTER_ID, SimpleBeanPropertyFilter.serializeAll());
+    }
+}
@@ -0,0 +1,49 @@
+package streetwalker.postservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Таймер {@code posts.service} на каждый публичный метод доменных сервисов с тегами {@code service},
+ * {@code operation}, {@code outcome} и {@code exception}; гистограммы дают p99 по всем инстансам.
+ * Вызовы сервиса самого себя идут мимо прокси и считаются во внешней операции.
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+    static final String METRIC = "posts.service";
+
+    private final MeterRegistry registry;
+
+    public ServiceMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * streetwalker.postservice.services.PostService.*(..))"
+            + " || execution(public * streetwalker.postservice.services.CommentService.*(..))"
+            + " || execution(public * streetwalker.postservice.services.TagService.*(..))"
+            + " || execution(public * streetwalker.postservice.services.CategoryService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(registry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            exception = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            sample.stop(Timer.builder(METRIC)
+                    .description("Domain service method calls")
+                    .tag("service", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("operation", joinPoint.getSignature().getName())
+                    .tag("outcome", exception.equals("none") ? "success" : "error")
+                    .tag("exception", exception)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package streetwalker.postservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+// Профиль diagnostics: счётчик SQL-запросов на каждый HTTP-запрос, заголовки и лог превышений бюджета
+@Configuration
+@Profile("diagnostics")
+public class SqlDiagnosticsConfig {
+
+    @Bean
+    public static BeanPostProcessor statementCountingPostProcessor() {
+        return new StatementCountingPostProcessor();
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatementBudgetFilter> sqlStatementBudgetFilter(
+            @Value("${posts.diagnostics.sql.budgets:}") String budgets,
+            @Value("${posts.diagnostics.sql.default-budget:10}") int defaultBudget) {
+        FilterRegistrationBean<SqlStatementBudgetFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatementBudgetFilter(parseBudgets(budgets), defaultBudget));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    // "GET /api/posts=3,GET /api/posts/{id}=2"
+    static Map<String, Integer> parseBudgets(String value) {
+        Map<String, Integer> budgets = new HashMap<>();
+        for (String entry : value.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.lastIndexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("posts.diagnostics.sql.budgets entries must be \"METHOD /path=N\", got " + entry);
+            }
+            budgets.put(entry.substring(0, separator).trim(), Integer.parseInt(entry.substring(separator + 1).trim()));
+        }
+        return budgets;
+    }
+
+    // Ordered — чтобы обернуть сам пул раньше BulkheadDataSource: время ожидания разрешения не считается временем БД
+    private static final class StatementCountingPostProcessor implements BeanPostProcessor, Ordered {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)
+                    && !(bean instanceof BulkheadDataSource)) {
+                return new StatementCountingDataSource(dataSource);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
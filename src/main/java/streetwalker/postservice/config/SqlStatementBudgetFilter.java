@@ -0,0 +1,116 @@
+package streetwalker.postservice.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Считает JDBC-запросы каждого запроса, отдаёт число и время БД в {@code X-SQL-Statements} /
+ * {@code X-SQL-Time-Ms} и логирует превышение бюджета эндпоинта ({@code "GET /api/posts/{id}"}).
+ * Заголовки ставятся перед коммитом ответа; у потоковых ответов учтена только часть до начала потока.
+ */
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    public static final String TIME_HEADER = "X-SQL-Time-Ms";
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementBudgetFilter.class);
+
+    private final Map<String, Integer> budgets;
+    private final int defaultBudget;
+
+    public SqlStatementBudgetFilter(Map<String, Integer> budgets, int defaultBudget) {
+        this.budgets = budgets;
+        this.defaultBudget = defaultBudget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementStats stats = SqlStatementStats.start();
+        StatsHeaderResponse wrapped = new StatsHeaderResponse(response, stats);
+        try {
+            chain.doFilter(request, wrapped);
+        } finally {
+            stats.stop();
+            wrapped.writeStats();
+            checkBudget(request, stats);
+        }
+    }
+
+    private void checkBudget(HttpServletRequest request, SqlStatementStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+        int budget = budgets.getOrDefault(endpoint, defaultBudget);
+        if (stats.statements() > budget) {
+            log.warn("{} issued {} SQL statements in {} ms, budget is {}", endpoint, stats.statements(),
+                    String.format(Locale.ROOT, "%.1f", stats.millis()), budget);
+        }
+    }
+
+    // Заголовки ставятся при первой записи тела, пока ответ ещё не закоммичен
+    private static final class StatsHeaderResponse extends HttpServletResponseWrapper {
+        private final SqlStatementStats stats;
+        private boolean written;
+
+        private StatsHeaderResponse(HttpServletResponse response, SqlStatementStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        private void writeStats() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader(STATEMENTS_HEADER, String.valueOf(stats.statements()));
+            setHeader(TIME_HEADER, String.format(Locale.ROOT, "%.1f", stats.millis()));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeStats();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeStats();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeStats();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeStats();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeStats();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeStats();
+            super.sendRedirect(location);
+        }
+    }
+}
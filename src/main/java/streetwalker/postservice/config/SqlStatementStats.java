@@ -0,0 +1,50 @@
+package streetwalker.postservice.config;
+
+/**
+ * Число и суммарное время JDBC-запросов текущего потока между {@link #start()} и {@link #stop()},
+ * их собирает {@link StatementCountingDataSource}. Области вложены: запрос учитывается во всех открытых.
+ */
+public final class SqlStatementStats {
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private final SqlStatementStats parent;
+    private int statements;
+    private long nanos;
+
+    private SqlStatementStats(SqlStatementStats parent) {
+        this.parent = parent;
+    }
+
+    public static SqlStatementStats start() {
+        SqlStatementStats stats = new SqlStatementStats(CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public void stop() {
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+        }
+    }
+
+    static void record(long elapsedNanos) {
+        for (SqlStatementStats stats = CURRENT.get(); stats != null; stats = stats.parent) {
+            stats.statements++;
+            stats.nanos += elapsedNanos;
+        }
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long nanos() {
+        return nanos;
+    }
+
+    public double millis() {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -39,6 +39,18 @@ public class CommentController {
         }
     }
 
+    // "Показать ещё ответы": следующие size потомков комментария в порядке треда
+    @GetMapping("/{id}/replies")
+    public ResponseEntity<?> getReplies(@PathVariable Long id,
+                                        @RequestParam(required = false) Long after,
+                                        @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(commentService.getReplies(id, after, size));
+        } catch (RuntimeException ex) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteComment(@PathVariable Long id) {
         try {
@@ -1,26 +1,51 @@
 package streetwalker.postservice.controllers;
 
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import streetwalker.postservice.dto.comment.CommentCreateDTO;
+import streetwalker.postservice.dto.post.PostBatchGetRequestDTO;
 import streetwalker.postservice.dto.post.PostCreateDTO;
 import streetwalker.postservice.dto.post.PostDTO;
+import streetwalker.postservice.dto.post.PostSliceDTO;
 import streetwalker.postservice.dto.post.PostUpdateDTO;
 import streetwalker.postservice.dto.postlike.PostLikeDTO;
+import streetwalker.postservice.dto.postlike.PostLikeStatusRequestDTO;
 import streetwalker.postservice.models.Comment;
+import streetwalker.postservice.services.LikeBufferFullException;
+import streetwalker.postservice.services.PostETag;
+import streetwalker.postservice.services.PostExportService;
+import streetwalker.postservice.services.PostFields;
+import streetwalker.postservice.services.PostImportService;
 import streetwalker.postservice.services.PostService;
+import streetwalker.postservice.services.PostVersionMismatchException;
+
+import java.io.InputStream;
+import java.time.OffsetDateTime;
 
 @RestController
 @RequestMapping("/api/posts")
 public class PostController {
+    private static final int DEFAULT_SLICE_SIZE = 20;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
 
     private final PostService postService;
+    private final PostImportService postImportService;
+    private final PostExportService postExportService;
 
-    public PostController(PostService postService) {
+    public PostController(PostService postService, PostImportService postImportService, PostExportService postExportService) {
         this.postService = postService;
+        this.postImportService = postImportService;
+        this.postExportService = postExportService;
     }
 
     @PostMapping
@@ -33,29 +58,120 @@ public class PostController {
         }
     }
 
+    // Тело читается и результаты пишутся потоком, по одной строке NDJSON на запись
+    @PostMapping(value = "/bulk", consumes = {"application/x-ndjson", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> importPosts(InputStream body) {
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(out -> postImportService.importPosts(body, out));
+    }
+
+    // Выгрузка всех постов (или изменённых начиная с updatedSince) потоком с курсора БД
+    @GetMapping("/export")
+    public ResponseEntity<?> exportPosts(@RequestParam(required = false, defaultValue = "ndjson") String format,
+                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime updatedSince) {
+        PostExportService.Format exportFormat;
+        try {
+            exportFormat = PostExportService.Format.parse(format);
+        } catch (RuntimeException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+        StreamingResponseBody body = out -> postExportService.export(exportFormat, updatedSince, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=posts." + exportFormat.getExtension())
+                .body(body);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<?> getPost(@PathVariable Long id) {
+    public ResponseEntity<?> getPost(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        PostFields postFields;
+        try {
+            postFields = PostFields.parse(fields);
+        } catch (RuntimeException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
         try {
-            return ResponseEntity.ok(postService.getPost(id));
+            // ETag + If-None-Match: при совпадении Spring отвечает 304, не сериализуя тело
+            PostDTO post = postService.getPost(id);
+            return ResponseEntity.ok().eTag(PostETag.of(post, postFields)).body(withFields(post, postFields));
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
         }
     }
 
     @GetMapping
-    public ResponseEntity<?> getPosts(Pageable pageable, @RequestParam(required = false, defaultValue = "") String title) {
+    public ResponseEntity<?> getPosts(Pageable pageable,
+                                      @RequestParam(required = false, defaultValue = "") String title,
+                                      @RequestParam(required = false) String after,
+                                      @RequestParam(required = false) Integer limit,
+                                      @RequestParam(required = false) String fields,
+                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            // fields сужает и SELECT, и JSON; без него поведение прежнее
+            PostFields postFields = PostFields.parse(fields);
+            // after/limit включают режим курсора; page/size остаются для обратной совместимости
+            if (after != null || limit != null) {
+                int size = limit != null ? limit : DEFAULT_SLICE_SIZE;
+                // If-None-Match проверяем по дешёвому валидатору, до загрузки тегов и категорий
+                if (ifNoneMatch != null) {
+                    String current = postService.getPostsAfterETag(after, size, title, postFields);
+                    if (PostETag.matches(ifNoneMatch, current)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+                    }
+                }
+                PostSliceDTO slice = postFields == null
+                        ? postService.getPostsAfter(after, size, title)
+                        : postService.getPostsAfter(after, size, title, postFields);
+                String eTag = PostETag.ofSlice(slice.getContent(), after, size, slice.getNextCursor(), postFields);
+                return ResponseEntity.ok().eTag(eTag).body(withFields(slice, postFields));
+            }
+            if (ifNoneMatch != null) {
+                String current = postService.getPostsETag(pageable, title, postFields);
+                if (PostETag.matches(ifNoneMatch, current)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+                }
+            }
+            Page<PostDTO> posts = postFields == null
+                    ? postService.getPosts(pageable, title)
+                    : postService.getPosts(pageable, title, postFields);
+            return ResponseEntity.ok().eTag(PostETag.ofPage(posts, postFields)).body(withFields(posts, postFields));
+        } catch (RuntimeException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    @PostMapping("/batch-get")
+    public ResponseEntity<?> getPostsByIds(@RequestBody PostBatchGetRequestDTO request,
+                                           @RequestParam(required = false) String fields) {
+        try {
+            PostFields postFields = PostFields.parse(fields);
+            return ResponseEntity.ok(withFields(postService.getPosts(request.getIds()), postFields));
+        } catch (RuntimeException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchPosts(@RequestParam String q, @RequestParam(required = false, defaultValue = "20") int limit) {
         try {
-            Page<PostDTO> posts = postService.getPosts(pageable, title);
-            return ResponseEntity.ok(posts);
+            return ResponseEntity.ok(postService.search(q, limit));
         } catch (RuntimeException ex) {
             return ResponseEntity.badRequest().body(ex.getMessage());
         }
     }
 
     @PutMapping
-    public ResponseEntity<?> updatePost(@RequestBody PostUpdateDTO postDTO) {
+    public ResponseEntity<?> updatePost(@RequestBody PostUpdateDTO postDTO,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            return ResponseEntity.ok(postService.update(postDTO));
+            // If-Match защищает от потерянных обновлений: тег должен быть от текущей версии поста
+            PostDTO updated = ifMatch == null
+                    ? postService.update(postDTO)
+                    : postService.update(postDTO, PostETag.expectedVersion(ifMatch, postDTO.getId()));
+            return ResponseEntity.ok().eTag(PostETag.of(updated, null)).body(updated);
+        } catch (PostVersionMismatchException ex) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(ex.getMessage());
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
         }
@@ -64,8 +180,10 @@ public class PostController {
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deletePost(@PathVariable Long id) {
         try {
-            postService.delete(id);
-            return ResponseEntity.noContent().build();
+            // 202 — крупный пост удаляется в фоне
+            return postService.delete(id)
+                    ? ResponseEntity.noContent().build()
+                    : ResponseEntity.accepted().build();
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
         }
@@ -76,6 +194,8 @@ public class PostController {
         try {
             postService.likePost(postLikeDTO);
             return ResponseEntity.ok("Post liked");
+        } catch (LikeBufferFullException ex) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ex.getMessage());
         } catch (RuntimeException ex) {
             return ResponseEntity.badRequest().body(ex.getMessage());
         }
@@ -86,6 +206,17 @@ public class PostController {
         try {
             postService.unlikePost(postLikeDTO);
             return ResponseEntity.ok("Post unliked");
+        } catch (LikeBufferFullException ex) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ex.getMessage());
+        } catch (RuntimeException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    @PostMapping("/likes/status")
+    public ResponseEntity<?> getLikeStatus(@RequestBody PostLikeStatusRequestDTO request) {
+        try {
+            return ResponseEntity.ok(postService.getLikeStatus(request));
         } catch (RuntimeException ex) {
             return ResponseEntity.badRequest().body(ex.getMessage());
         }
@@ -101,4 +232,25 @@ public class PostController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
         }
     }
+
+    // Jackson пишет дерево прямо в поток ответа, без промежуточной строки
+    @GetMapping("/{postId}/comments/tree")
+    public ResponseEntity<?> getCommentTree(@PathVariable Long postId) {
+        try {
+            return ResponseEntity.ok(postService.getCommentTree(postId));
+        } catch (RuntimeException ex) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+        }
+    }
+
+    // Оставляет в каждом PostDTO только запрошенные свойства
+    private static Object withFields(Object body, PostFields fields) {
+        if (fields == null) {
+            return body;
+        }
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(new SimpleFilterProvider()
+                .addFilter(PostFields.FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(fields.names())));
+        return value;
+    }
 }
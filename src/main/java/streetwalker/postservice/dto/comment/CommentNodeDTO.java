@@ -0,0 +1,20 @@
+package streetwalker.postservice.dto.comment;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+public class CommentNodeDTO {
+    private final Long id;
+    private final Long authorId;
+    private final String content;
+    private final List<CommentNodeDTO> replies = new ArrayList<>();
+
+    public CommentNodeDTO(Long id, Long authorId, String content) {
+        this.id = id;
+        this.authorId = authorId;
+        this.content = content;
+    }
+}
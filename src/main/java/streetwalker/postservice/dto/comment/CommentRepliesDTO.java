@@ -0,0 +1,16 @@
+package streetwalker.postservice.dto.comment;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Следующая порция потомков комментария в порядке треда; nextCursor == null на последней порции
+@Getter
+@AllArgsConstructor
+public class CommentRepliesDTO {
+    private Long commentId;
+    private List<CommentReplyDTO> replies;
+    private Long nextCursor;
+    private boolean hasNext;
+}
@@ -0,0 +1,15 @@
+package streetwalker.postservice.dto.comment;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Ответ из ветки комментария; depth абсолютная, дерево клиент собирает по parentCommentId
+@Getter
+@AllArgsConstructor
+public class CommentReplyDTO {
+    private Long id;
+    private Long parentCommentId;
+    private Long authorId;
+    private String content;
+    private Integer depth;
+}
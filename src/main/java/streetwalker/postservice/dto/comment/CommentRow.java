@@ -0,0 +1,14 @@
+package streetwalker.postservice.dto.comment;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Плоская строка комментария для сборки дерева в памяти
+@Getter
+@AllArgsConstructor
+public class CommentRow {
+    private Long id;
+    private Long parentCommentId;
+    private Long authorId;
+    private String content;
+}
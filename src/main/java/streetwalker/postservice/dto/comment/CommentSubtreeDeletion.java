@@ -0,0 +1,12 @@
+package streetwalker.postservice.dto.comment;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Итог удаления ветки комментариев: сколько строк удалено и чей это был пост
+@Getter
+@AllArgsConstructor
+public class CommentSubtreeDeletion {
+    private long deleted;
+    private Long postId;
+}
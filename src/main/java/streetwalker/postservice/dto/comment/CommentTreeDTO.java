@@ -0,0 +1,16 @@
+package streetwalker.postservice.dto.comment;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// truncated == true, если часть ветки отрезана лимитом глубины или размера
+@Getter
+@AllArgsConstructor
+public class CommentTreeDTO {
+    private Long postId;
+    private List<CommentNodeDTO> comments;
+    private int size;
+    private boolean truncated;
+}
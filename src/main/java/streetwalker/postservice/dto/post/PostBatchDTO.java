@@ -0,0 +1,14 @@
+package streetwalker.postservice.dto.post;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Посты в порядке запроса; id, которых нет в базе, перечислены в missingIds
+@Getter
+@AllArgsConstructor
+public class PostBatchDTO {
+    private List<PostDTO> posts;
+    private List<Long> missingIds;
+}
@@ -0,0 +1,12 @@
+package streetwalker.postservice.dto.post;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Setter
+@Getter
+public class PostBatchGetRequestDTO {
+    private List<Long> ids;
+}
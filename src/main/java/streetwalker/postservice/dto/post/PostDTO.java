@@ -1,5 +1,7 @@
 package streetwalker.postservice.dto.post;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
 import lombok.Setter;
 import streetwalker.postservice.dto.category.CategoryDTO;
@@ -8,6 +10,8 @@ import streetwalker.postservice.dto.comment.CommentDTO;
 
 import java.time.OffsetDateTime;
 import java.util.List;
+// Фильтр postFields отбирает свойства по ?fields= (см. PostFields)
+@JsonFilter("postFields")
 @Getter
 @Setter
 public class PostDTO {
@@ -21,4 +25,7 @@ public class PostDTO {
     private CategoryDTO category;
     private OffsetDateTime createdAt;
     private Boolean isUpdated;
+    // Только для ETag/If-Match, в JSON не попадает
+    @JsonIgnore
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package streetwalker.postservice.dto.post;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+// Строка выгрузки: читается прямо из ResultSet, без сущностей и PostDTO
+@Getter
+@AllArgsConstructor
+public class PostExportRow {
+    private Long id;
+    private String title;
+    private String content;
+    private Long authorId;
+    private Integer likeCount;
+    private String categoryName;
+    private List<String> tags;
+    private OffsetDateTime createdAt;
+    private OffsetDateTime updatedAt;
+}
@@ -0,0 +1,15 @@
+package streetwalker.postservice.dto.post;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Одна строка ответа bulk-импорта: line — номер строки во входном NDJSON, id или error
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PostImportResultDTO {
+    private long line;
+    private Long id;
+    private String error;
+}
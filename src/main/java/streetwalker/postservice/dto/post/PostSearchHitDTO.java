@@ -0,0 +1,12 @@
+package streetwalker.postservice.dto.post;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class PostSearchHitDTO {
+    private Long id;
+    private String title;
+    private double score;
+}
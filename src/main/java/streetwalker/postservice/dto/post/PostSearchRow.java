@@ -0,0 +1,13 @@
+package streetwalker.postservice.dto.post;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Текст поста для построения поискового индекса
+@Getter
+@AllArgsConstructor
+public class PostSearchRow {
+    private Long id;
+    private String title;
+    private String content;
+}
@@ -0,0 +1,15 @@
+package streetwalker.postservice.dto.post;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Страница в режиме курсора: без total, nextCursor == null на последней странице
+@Getter
+@AllArgsConstructor
+public class PostSliceDTO {
+    private List<PostDTO> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
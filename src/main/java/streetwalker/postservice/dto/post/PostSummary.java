@@ -0,0 +1,22 @@
+package streetwalker.postservice.dto.post;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.OffsetDateTime;
+
+// Строка списка постов: пост, категория и счётчик лайков одним запросом, теги грузятся отдельно
+@Getter
+@AllArgsConstructor
+public class PostSummary {
+    private Long id;
+    private String title;
+    private String content;
+    private Long authorId;
+    private Integer likeCount;
+    private String categoryName;
+    private String categoryDescription;
+    private OffsetDateTime createdAt;
+    private OffsetDateTime updatedAt;
+    private Long version;
+}
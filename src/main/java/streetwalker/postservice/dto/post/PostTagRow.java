@@ -0,0 +1,12 @@
+package streetwalker.postservice.dto.post;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class PostTagRow {
+    private Long postId;
+    private String tagName;
+    private String tagDescription;
+}
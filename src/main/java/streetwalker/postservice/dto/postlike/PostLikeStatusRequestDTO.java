@@ -0,0 +1,13 @@
+package streetwalker.postservice.dto.postlike;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Setter
+@Getter
+public class PostLikeStatusRequestDTO {
+    private Long authorId;
+    private List<Long> postIds;
+}
@@ -0,0 +1,89 @@
+package streetwalker.postservice.grpc;
+
+import io.grpc.BindableService;
+import io.grpc.Grpc;
+import io.grpc.InsecureServerCredentials;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * gRPC-сервер рядом с Tomcat на {@code posts.grpc.port}, стартует и останавливается вместе с контекстом.
+ * При {@code spring.threads.virtual.enabled} вызовы идут на виртуальных потоках.
+ */
+@Component
+@ConditionalOnProperty(name = "posts.grpc.enabled", havingValue = "true", matchIfMissing = true)
+public class GrpcServerLifecycle implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(GrpcServerLifecycle.class);
+
+    private final List<BindableService> services;
+    private final int port;
+    private final boolean virtualThreads;
+    private final long shutdownGraceSeconds;
+
+    private Server server;
+    private ExecutorService executor;
+
+    public GrpcServerLifecycle(List<BindableService> services,
+                               @Value("${posts.grpc.port:9094}") int port,
+                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                               @Value("${posts.grpc.shutdown-grace-seconds:10}") long shutdownGraceSeconds) {
+        this.services = services;
+        this.port = port;
+        this.virtualThreads = virtualThreads;
+        this.shutdownGraceSeconds = shutdownGraceSeconds;
+    }
+
+    @Override
+    public synchronized void start() {
+        ServerBuilder<?> builder = Grpc.newServerBuilderForPort(port, InsecureServerCredentials.create());
+        services.forEach(builder::addService);
+        if (virtualThreads) {
+            executor = Executors.newVirtualThreadPerTaskExecutor();
+            builder.executor(executor);
+        }
+        try {
+            server = builder.build().start();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to start gRPC server on port " + port, ex);
+        }
+        log.info("gRPC server started on port {}", server.getPort());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.shutdown();
+        try {
+            if (!server.awaitTermination(shutdownGraceSeconds, TimeUnit.SECONDS)) {
+                server.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            server.shutdownNow();
+        }
+        if (executor != null) {
+            executor.shutdown();
+        }
+        server = null;
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return server != null;
+    }
+}
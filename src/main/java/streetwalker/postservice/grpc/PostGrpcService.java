@@ -0,0 +1,128 @@
+package streetwalker.postservice.grpc;
+
+import com.google.protobuf.Empty;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.springframework.stereotype.Component;
+import streetwalker.postservice.dto.post.PostBatchDTO;
+import streetwalker.postservice.dto.post.PostDTO;
+import streetwalker.postservice.dto.post.PostSliceDTO;
+import streetwalker.postservice.grpc.proto.AddCommentRequest;
+import streetwalker.postservice.grpc.proto.BatchGetPostsRequest;
+import streetwalker.postservice.grpc.proto.BatchGetPostsResponse;
+import streetwalker.postservice.grpc.proto.Comment;
+import streetwalker.postservice.grpc.proto.CreatePostRequest;
+import streetwalker.postservice.grpc.proto.GetPostRequest;
+import streetwalker.postservice.grpc.proto.LikeRequest;
+import streetwalker.postservice.grpc.proto.ListPostsRequest;
+import streetwalker.postservice.grpc.proto.Post;
+import streetwalker.postservice.grpc.proto.PostServiceGrpc;
+import streetwalker.postservice.services.PostService;
+
+import java.util.function.Supplier;
+
+/**
+ * gRPC-фасад над {@link PostService}: та же логика и кэши, что у REST, но protobuf.
+ * Ошибки как в REST: "... not found" — NOT_FOUND, остальные — INVALID_ARGUMENT.
+ */
+@Component
+public class PostGrpcService extends PostServiceGrpc.PostServiceImplBase {
+    private static final int LIST_PAGE_SIZE = 100;
+
+    private final PostService postService;
+    private final PostProtoMapper mapper;
+
+    public PostGrpcService(PostService postService, PostProtoMapper mapper) {
+        this.postService = postService;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public void getPost(GetPostRequest request, StreamObserver<Post> responseObserver) {
+        unary(responseObserver, () -> mapper.toProto(postService.getPost(request.getId())));
+    }
+
+    @Override
+    public void batchGetPosts(BatchGetPostsRequest request, StreamObserver<BatchGetPostsResponse> responseObserver) {
+        unary(responseObserver, () -> {
+            PostBatchDTO batch = postService.getPosts(request.getIdsList());
+            BatchGetPostsResponse.Builder response = BatchGetPostsResponse.newBuilder()
+                    .addAllMissingIds(batch.getMissingIds());
+            batch.getPosts().forEach(post -> response.addPosts(mapper.toProto(post)));
+            return response.build();
+        });
+    }
+
+    // Постранично по keyset-курсору, каждая страница уходит клиенту сразу
+    @Override
+    public void listPosts(ListPostsRequest request, StreamObserver<Post> responseObserver) {
+        ServerCallStreamObserver<Post> observer = (ServerCallStreamObserver<Post>) responseObserver;
+        int remaining = request.getMaxResults() > 0 ? request.getMaxResults() : Integer.MAX_VALUE;
+        String after = request.getAfter();
+        try {
+            while (remaining > 0 && !observer.isCancelled()) {
+                PostSliceDTO slice = postService.getPostsAfter(after, Math.min(remaining, LIST_PAGE_SIZE), request.getTitle());
+                for (PostDTO post : slice.getContent()) {
+                    observer.onNext(mapper.toProto(post));
+                }
+                remaining -= slice.getContent().size();
+                if (!slice.isHasNext()) {
+                    break;
+                }
+                after = slice.getNextCursor();
+            }
+        } catch (RuntimeException ex) {
+            observer.onError(toStatus(ex));
+            return;
+        }
+        if (!observer.isCancelled()) {
+            observer.onCompleted();
+        }
+    }
+
+    @Override
+    public void createPost(CreatePostRequest request, StreamObserver<Post> responseObserver) {
+        unary(responseObserver, () -> mapper.toProto(postService.create(mapper.fromProto(request))));
+    }
+
+    @Override
+    public void likePost(LikeRequest request, StreamObserver<Empty> responseObserver) {
+        unary(responseObserver, () -> {
+            postService.likePost(mapper.fromProto(request));
+            return Empty.getDefaultInstance();
+        });
+    }
+
+    @Override
+    public void unlikePost(LikeRequest request, StreamObserver<Empty> responseObserver) {
+        unary(responseObserver, () -> {
+            postService.unlikePost(mapper.fromProto(request));
+            return Empty.getDefaultInstance();
+        });
+    }
+
+    @Override
+    public void addComment(AddCommentRequest request, StreamObserver<Comment> responseObserver) {
+        unary(responseObserver, () -> mapper.toProto(postService.addComment(mapper.fromProto(request))));
+    }
+
+    private static <T> void unary(StreamObserver<T> responseObserver, Supplier<T> call) {
+        T response;
+        try {
+            response = call.get();
+        } catch (RuntimeException ex) {
+            responseObserver.onError(toStatus(ex));
+            return;
+        }
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+    }
+
+    private static StatusRuntimeException toStatus(RuntimeException ex) {
+        String message = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
+        Status status = message.endsWith("not found") ? Status.NOT_FOUND : Status.INVALID_ARGUMENT;
+        return status.withDescription(message).asRuntimeException();
+    }
+}
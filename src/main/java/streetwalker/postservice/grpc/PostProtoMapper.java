@@ -0,0 +1,110 @@
+package streetwalker.postservice.grpc;
+
+import com.google.protobuf.Timestamp;
+import org.springframework.stereotype.Component;
+import streetwalker.postservice.dto.category.CategoryDTO;
+import streetwalker.postservice.dto.comment.CommentCreateDTO;
+import streetwalker.postservice.dto.post.PostCreateDTO;
+import streetwalker.postservice.dto.post.PostDTO;
+import streetwalker.postservice.dto.postlike.PostLikeDTO;
+import streetwalker.postservice.dto.tag.TagDTO;
+import streetwalker.postservice.grpc.proto.AddCommentRequest;
+import streetwalker.postservice.grpc.proto.Category;
+import streetwalker.postservice.grpc.proto.Comment;
+import streetwalker.postservice.grpc.proto.CreatePostRequest;
+import streetwalker.postservice.grpc.proto.LikeRequest;
+import streetwalker.postservice.grpc.proto.Post;
+import streetwalker.postservice.grpc.proto.Tag;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+
+// Ручной маппинг: MapStruct плохо дружит с билдерами protobuf (has/clear/optional-поля)
+@Component
+public class PostProtoMapper {
+
+    public Post toProto(PostDTO dto) {
+        Post.Builder post = Post.newBuilder()
+                .setId(dto.getId())
+                .setLikes(dto.getLikes() != null ? dto.getLikes() : 0)
+                .setUpdated(Boolean.TRUE.equals(dto.getIsUpdated()));
+        if (dto.getTitle() != null) {
+            post.setTitle(dto.getTitle());
+        }
+        if (dto.getContent() != null) {
+            post.setContent(dto.getContent());
+        }
+        if (dto.getAuthorId() != null) {
+            post.setAuthorId(dto.getAuthorId());
+        }
+        if (dto.getTags() != null) {
+            for (TagDTO tag : dto.getTags()) {
+                post.addTags(Tag.newBuilder()
+                        .setName(nullToEmpty(tag.getName()))
+                        .setDescription(nullToEmpty(tag.getDescription())));
+            }
+        }
+        if (dto.getCategory() != null) {
+            post.setCategory(Category.newBuilder()
+                    .setName(nullToEmpty(dto.getCategory().getCategoryName()))
+                    .setDescription(nullToEmpty(dto.getCategory().getCategoryDescription())));
+        }
+        if (dto.getCreatedAt() != null) {
+            post.setCreatedAt(timestamp(dto.getCreatedAt()));
+        }
+        return post.build();
+    }
+
+    public Comment toProto(streetwalker.postservice.models.Comment comment) {
+        Comment.Builder proto = Comment.newBuilder()
+                .setId(comment.getId())
+                .setPostId(comment.getPost().getId())
+                .setContent(nullToEmpty(comment.getContent()));
+        if (comment.getAuthorId() != null) {
+            proto.setAuthorId(comment.getAuthorId());
+        }
+        if (comment.getParentComment() != null) {
+            proto.setParentCommentId(comment.getParentComment().getId());
+        }
+        return proto.build();
+    }
+
+    public PostCreateDTO fromProto(CreatePostRequest request) {
+        PostCreateDTO dto = new PostCreateDTO();
+        dto.setAuthorId(request.getAuthorId());
+        dto.setTitle(request.getTitle());
+        dto.setContent(request.getContent());
+        dto.setTags(new ArrayList<>(request.getTagsList()));
+        CategoryDTO category = new CategoryDTO();
+        category.setCategoryName(request.getCategoryName());
+        dto.setCategory(category);
+        return dto;
+    }
+
+    public PostLikeDTO fromProto(LikeRequest request) {
+        PostLikeDTO dto = new PostLikeDTO();
+        dto.setPostId(request.getPostId());
+        dto.setAuthorId(request.getAuthorId());
+        return dto;
+    }
+
+    public CommentCreateDTO fromProto(AddCommentRequest request) {
+        CommentCreateDTO dto = new CommentCreateDTO();
+        dto.setPostId(request.getPostId());
+        dto.setParentCommentId(request.hasParentCommentId() ? request.getParentCommentId() : null);
+        dto.setAuthorId(request.getAuthorId());
+        dto.setContent(request.getContent());
+        return dto;
+    }
+
+    private static Timestamp timestamp(OffsetDateTime value) {
+        return Timestamp.newBuilder()
+                .setSeconds(value.toEpochSecond())
+                .setNanos(value.getNano())
+                .build();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
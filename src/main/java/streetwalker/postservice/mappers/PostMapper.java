@@ -3,30 +3,45 @@ package streetwalker.postservice.mappers;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
+import streetwalker.postservice.dto.category.CategoryDTO;
 import streetwalker.postservice.dto.post.PostCreateDTO;
 import streetwalker.postservice.dto.post.PostDTO;
+import streetwalker.postservice.dto.post.PostSummary;
 import streetwalker.postservice.dto.post.PostUpdateDTO;
 import streetwalker.postservice.dto.tag.TagDTO;
 import streetwalker.postservice.models.Post;
 import streetwalker.postservice.models.Tag;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Mapper(componentModel = "spring")
 public interface PostMapper {
 
-    @Mapping(target = "likes", source = "likes", qualifiedByName = "countLikes")
+    @Mapping(target = "likes", source = "likeCount")
     @Mapping(target = "tags", source = "tags", qualifiedByName = "mapTagsToDTO")
     @Mapping(target = "isUpdated", expression = "java(isPostUpdated(post))")
     @Mapping(target = "comments", ignore = true)
     PostDTO toDTO(Post post);
 
+    @Mapping(target = "likes", source = "summary.likeCount")
+    @Mapping(target = "tags", source = "tags")
+    @Mapping(target = "category", source = "summary", qualifiedByName = "summaryCategory")
+    @Mapping(target = "isUpdated", expression = "java(isUpdated(summary.getCreatedAt(), summary.getUpdatedAt()))")
+    @Mapping(target = "comments", ignore = true)
+    PostDTO fromSummary(PostSummary summary, List<TagDTO> tags);
+
+    // Поверхностная копия, чтобы не менять DTO, лежащий в кэше
+    PostDTO copy(PostDTO postDTO);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "comments", ignore = true)
     @Mapping(target = "likes", ignore = true)
+    @Mapping(target = "likeCount", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "category", ignore = true)
     @Mapping(target = "tags", ignore = true) // Обработаем отдельно в сервисе
     Post fromCreateDTO(PostCreateDTO dto);
@@ -35,17 +50,14 @@ public interface PostMapper {
     @Mapping(target = "authorId", ignore = true)
     @Mapping(target = "comments", ignore = true)
     @Mapping(target = "likes", ignore = true)
+    @Mapping(target = "likeCount", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "category", ignore = true)
     @Mapping(target = "tags", ignore = true) // Обработаем отдельно в сервисе
     void updateFromDTO(PostUpdateDTO dto, @org.mapstruct.MappingTarget Post post);
 
-    @Named("countLikes")
-    default Integer countLikes(List<?> likes) {
-        return likes != null ? likes.size() : 0;
-    }
-
     @Named("mapTagsToDTO")
     default List<TagDTO> mapTagsToDTO(List<Tag> tags) {
         if (tags == null) {
@@ -56,9 +68,29 @@ public interface PostMapper {
                 .collect(Collectors.toList());
     }
 
+    @Named("summaryCategory")
+    default CategoryDTO summaryCategory(PostSummary summary) {
+        return summaryCategory(summary.getCategoryName(), summary.getCategoryDescription());
+    }
+
+    @Named("summaryCategoryColumns")
+    default CategoryDTO summaryCategory(String categoryName, String categoryDescription) {
+        if (categoryName == null) {
+            return null;
+        }
+        CategoryDTO category = new CategoryDTO();
+        category.setCategoryName(categoryName);
+        category.setCategoryDescription(categoryDescription);
+        return category;
+    }
+
     default Boolean isPostUpdated(Post post) {
-        return post.getCreatedAt() != null &&
-                post.getUpdatedAt() != null &&
-                !post.getCreatedAt().isEqual(post.getUpdatedAt());
+        return isUpdated(post.getCreatedAt(), post.getUpdatedAt());
+    }
+
+    default Boolean isUpdated(OffsetDateTime createdAt, OffsetDateTime updatedAt) {
+        return createdAt != null &&
+                updatedAt != null &&
+                !createdAt.isEqual(updatedAt);
     }
 }
\ No newline at end of file
@@ -1,21 +1,48 @@
 package streetwalker.postservice.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
+import java.util.Locale;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
 @Getter
 @Setter
-@AllArgsConstructor
 @NoArgsConstructor
 public class Category {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "category_seq")
+    @SequenceGenerator(name = "category_seq", sequenceName = "category_seq", allocationSize = 50)
     private Long id;
     private String categoryName;
     private String categoryDescription;
 
+    // --- Natural id: trimmed lower-case name, for case-insensitive cached lookups ---
+    @NaturalId
+    @JsonIgnore
+    private String nameKey;
+
+    public Category(Long id, String categoryName, String categoryDescription) {
+        this.id = id;
+        this.categoryName = categoryName;
+        this.categoryDescription = categoryDescription;
+    }
+
+    @PrePersist
+    void fillNameKey() {
+        nameKey = normalizeName(categoryName);
+    }
+
+    public static String normalizeName(String name) {
+        return name == null ? null : name.trim().toLowerCase(Locale.ROOT);
+    }
 }
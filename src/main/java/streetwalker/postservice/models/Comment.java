@@ -11,18 +11,29 @@ import java.util.List;
 import java.util.Objects;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_comment_path", columnList = "path"),
+        @Index(name = "idx_comment_post_depth", columnList = "post_id, depth")})
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
 public class Comment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comment_seq")
+    @SequenceGenerator(name = "comment_seq", sequenceName = "comment_seq", allocationSize = 50)
     private Long id;
 
     private String content;
     private Long authorId;
 
+    // Путь от корня ветки (заполняет CommentPathInterceptor): диапазон по нему — поддерево в порядке треда
+    @Column(length = 1900)
+    private String path;
+
+    // 0 — ответ на пост, 1 — ответ на корневой комментарий и т.д.
+    private Integer depth;
+
     // --- Reference to Post ---
     @ManyToOne
     @JoinColumn(name = "post_id")
@@ -57,6 +68,7 @@ public class Comment {
                 "id=" + id +
                 ", content='" + content + '\'' +
                 ", authorId=" + authorId +
+                ", depth=" + depth +
                 ", post=" + post +
                 ", parentComment=" + parentComment +
                 ", replies=" + replies +
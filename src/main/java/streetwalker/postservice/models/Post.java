@@ -5,8 +5,10 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
@@ -14,13 +16,20 @@ import java.util.List;
 import java.util.Objects;
 
 @Entity
+@EntityListeners(AuditingEntityListener.class)
+// Индексы под keyset-пагинацию ленты (order by created_at desc, id desc) и инкрементальную выгрузку
+@Table(indexes = {
+        @Index(name = "idx_post_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_post_updated_at", columnList = "updated_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Post {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_seq")
+    @SequenceGenerator(name = "post_seq", sequenceName = "post_seq", allocationSize = 50)
     private Long id;
 
     private String title;
@@ -34,7 +43,9 @@ public class Post {
     private List<Comment> comments = new ArrayList<>();
 
     // --- Tags ---
+    // Порядок по имени, как в findTagRows и экспорте: от него зависит ETag поста
     @ManyToMany
+    @OrderBy("tagName")
     @JoinTable(
             name = "post_tags",
             joinColumns = @JoinColumn(name = "post_id"),
@@ -48,17 +59,31 @@ public class Post {
             orphanRemoval = true)
     private List<PostLike> likes = new ArrayList<>();
 
+    // --- Denormalized like counter, kept in sync with post_like ---
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Integer likeCount = 0;
+
     // --- Category ---
     @ManyToOne
     @JoinColumn(name = "category_id")
     private Category category;
 
+    // Ключ keyset-листинга вместе с id, поэтому не null (старые строки дозаполняет PostCreatedAtBackfill)
     @CreatedDate
+    @Column(nullable = false, updatable = false)
     private OffsetDateTime createdAt;
 
     @LastModifiedDate
     private OffsetDateTime updatedAt;
 
+    // Оптимистическая блокировка и ETag; меняется при любом изменении поста, включая теги.
+    // null у нового поста: по нему Spring Data выбирает persist, а не merge
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
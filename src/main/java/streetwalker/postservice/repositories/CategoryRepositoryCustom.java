@@ -0,0 +1,10 @@
+package streetwalker.postservice.repositories;
+
+import streetwalker.postservice.models.Category;
+
+import java.util.Optional;
+
+public interface CategoryRepositoryCustom {
+    // Поиск по natural id (Category.nameKey) через second-level cache
+    Optional<Category> findByNameKey(String nameKey);
+}
@@ -0,0 +1,26 @@
+package streetwalker.postservice.repositories;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+import streetwalker.postservice.models.Category;
+
+import java.util.Optional;
+
+public class CategoryRepositoryImpl implements CategoryRepositoryCustom {
+    private final EntityManager entityManager;
+
+    public CategoryRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    // unwrap(Session) требует транзакционный EntityManager: без него вызовы из gRPC и @Async падают
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Category> findByNameKey(String nameKey) {
+        if (nameKey == null) {
+            return Optional.empty();
+        }
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Category.class).loadOptional(nameKey);
+    }
+}
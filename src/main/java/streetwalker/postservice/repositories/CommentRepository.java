@@ -1,8 +1,48 @@
 package streetwalker.postservice.repositories;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import streetwalker.postservice.dto.comment.CommentReplyDTO;
+import streetwalker.postservice.dto.comment.CommentRow;
 import streetwalker.postservice.models.Comment;
+
+import java.util.List;
+
 @Repository
-public interface CommentRepository extends JpaRepository<Comment, Long> {
+public interface CommentRepository extends JpaRepository<Comment, Long>, CommentRepositoryCustom {
+
+    // Комментарии, записанные до появления path и depth
+    boolean existsByPostIdAndPathIsNull(Long postId);
+
+    // Id ответа может быть меньше id родителя (пуловые sequence), поэтому дерево связывается без опоры на порядок.
+    // Верхние уровни первыми: при лимите отрезаются самые глубокие ответы
+    @Query("""
+            select new streetwalker.postservice.dto.comment.CommentRow(c.id, parent.id, c.authorId, c.content)
+            from Comment c left join c.parentComment parent
+            where c.post.id = :postId
+            order by c.depth nulls last, c.id
+            """)
+    List<CommentRow> findRowsByPostId(Long postId, Limit limit);
+
+    // Поддерево — диапазон (root.path, root.path + maxSegment) по индексу idx_comment_path, уже в порядке треда
+    @Query("""
+            select new streetwalker.postservice.dto.comment.CommentReplyDTO(c.id, parent.id, c.authorId, c.content, c.depth)
+            from Comment c left join c.parentComment parent, Comment root
+            where root.id = :commentId
+              and c.path > root.path and c.path < concat(root.path, :maxSegment)
+            order by c.path
+            """)
+    List<CommentReplyDTO> findFirstReplies(Long commentId, String maxSegment, Limit limit);
+
+    // Keyset: продолжаем строго после path последнего отданного ответа
+    @Query("""
+            select new streetwalker.postservice.dto.comment.CommentReplyDTO(c.id, parent.id, c.authorId, c.content, c.depth)
+            from Comment c left join c.parentComment parent, Comment root, Comment last
+            where root.id = :commentId and last.id = :afterId
+              and c.path > root.path and c.path > last.path and c.path < concat(root.path, :maxSegment)
+            order by c.path
+            """)
+    List<CommentReplyDTO> findRepliesAfter(Long commentId, Long afterId, String maxSegment, Limit limit);
 }
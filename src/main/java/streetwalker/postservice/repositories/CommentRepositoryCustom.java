@@ -0,0 +1,20 @@
+package streetwalker.postservice.repositories;
+
+import streetwalker.postservice.dto.comment.CommentSubtreeDeletion;
+
+public interface CommentRepositoryCustom {
+    /**
+     * Удаляет комментарий со всеми ответами одним запросом (рекурсивный CTE по {@code parent_comment_id}),
+     * ничего не загружая. {@code deleted} равен 0, если комментария нет.
+     */
+    CommentSubtreeDeletion deleteSubtree(Long commentId);
+
+    /**
+     * Заполняет {@code path} и {@code depth} комментариям, записанным до появления этих колонок,
+     * обходя каждую ветку от корня рекурсивным CTE. Возвращает число обновлённых строк.
+     */
+    int backfillPaths();
+
+    // То же для комментариев одного поста
+    int backfillPaths(Long postId);
+}
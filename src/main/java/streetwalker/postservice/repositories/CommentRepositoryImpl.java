@@ -0,0 +1,58 @@
+package streetwalker.postservice.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import streetwalker.postservice.dto.comment.CommentSubtreeDeletion;
+
+public class CommentRepositoryImpl implements CommentRepositoryCustom {
+    // Внешний ключ parent_comment_id проверяется в конце оператора, поэтому порядок удаления внутри ветки не важен
+    private static final String DELETE_SUBTREE = """
+            with recursive subtree (id) as (
+                select id from comment where id = ?
+                union all
+                select c.id from comment c join subtree s on c.parent_comment_id = s.id
+            ),
+            deleted as (
+                delete from comment where id in (select id from subtree)
+                returning post_id
+            )
+            select count(*) as deleted, max(post_id) as post_id from deleted""";
+
+    // lpad до 19 цифр — тот же сегмент, что CommentPath.segment
+    private static final String BACKFILL_PATHS = """
+            with recursive tree (id, path, depth) as (
+                select id, lpad(id::text, 19, '0'), 0 from comment where parent_comment_id is null%s
+                union all
+                select c.id, t.path || lpad(c.id::text, 19, '0'), t.depth + 1
+                from comment c join tree t on c.parent_comment_id = t.id
+            )
+            update comment c set path = tree.path, depth = tree.depth
+            from tree
+            where c.id = tree.id and c.path is null""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CommentRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public CommentSubtreeDeletion deleteSubtree(Long commentId) {
+        return jdbcTemplate.queryForObject(DELETE_SUBTREE, (rs, rowNum) -> new CommentSubtreeDeletion(
+                rs.getLong("deleted"),
+                rs.getObject("post_id", Long.class)), commentId);
+    }
+
+    @Override
+    @Transactional
+    public int backfillPaths() {
+        return jdbcTemplate.update(BACKFILL_PATHS.formatted(""));
+    }
+
+    @Override
+    @Transactional
+    public int backfillPaths(Long postId) {
+        return jdbcTemplate.update(BACKFILL_PATHS.formatted(" and post_id = ?"), postId);
+    }
+}
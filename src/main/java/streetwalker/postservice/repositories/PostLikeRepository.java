@@ -1,9 +1,49 @@
 package streetwalker.postservice.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import streetwalker.postservice.models.LikeId;
 import streetwalker.postservice.models.PostLike;
+
+import java.util.Collection;
+import java.util.List;
 @Repository
-public interface PostLikeRepository extends JpaRepository<PostLike, Long> {
-    Boolean existsByAuthorIdAndLikeId(Long authorId, Long likeId);
+public interface PostLikeRepository extends JpaRepository<PostLike, LikeId>, PostLikeRepositoryCustom {
+
+    // Native-запросы объявляют затронутые таблицы, иначе Hibernate сбрасывает весь second-level cache
+    // 1 — лайк поставлен и like_count увеличен, 0 — лайк уже был или поста нет
+    @Modifying
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "post_like"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "post")})
+    @Query(value = """
+            with inserted as (
+                insert into post_like (post_id, author_id)
+                select :postId, :authorId where exists (select 1 from post where id = :postId)
+                on conflict do nothing
+                returning post_id
+            )
+            update post set like_count = like_count + 1 where id in (select post_id from inserted)""",
+            nativeQuery = true)
+    int likeIfAbsent(Long postId, Long authorId);
+
+    // 1 — лайк удалён и like_count уменьшен, 0 — лайка не было
+    @Modifying
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "post_like"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "post")})
+    @Query(value = """
+            with deleted as (
+                delete from post_like where post_id = :postId and author_id = :authorId
+                returning post_id
+            )
+            update post set like_count = like_count - 1 where id in (select post_id from deleted)""",
+            nativeQuery = true)
+    int unlikeIfPresent(Long postId, Long authorId);
+
+    @Query("select l.post.id from PostLike l where l.id.authorId = :authorId and l.post.id in :postIds")
+    List<Long> findLikedPostIds(Long authorId, Collection<Long> postIds);
 }
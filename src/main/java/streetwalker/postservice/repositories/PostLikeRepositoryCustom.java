@@ -0,0 +1,18 @@
+package streetwalker.postservice.repositories;
+
+import streetwalker.postservice.models.LikeId;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+public interface PostLikeRepositoryCustom {
+    /**
+     * Применяет буферизованные лайки и анлайки JDBC-батчами; возвращает реально применённую дельту
+     * like_count по постам (дубликаты и несуществующие посты не учитываются).
+     */
+    Map<Long, Integer> applyLikeChanges(Collection<LikeId> likes, Collection<LikeId> unlikes);
+
+    // author_id всех лайков поста построчно примитивным long — без промежуточного List<Long>
+    void forEachAuthorId(Long postId, LongConsumer consumer);
+}
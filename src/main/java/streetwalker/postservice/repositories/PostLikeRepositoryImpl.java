@@ -0,0 +1,80 @@
+package streetwalker.postservice.repositories;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.annotation.Transactional;
+import streetwalker.postservice.models.LikeId;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+public class PostLikeRepositoryImpl implements PostLikeRepositoryCustom {
+    private static final String INSERT_LIKE = """
+            insert into post_like (post_id, author_id)
+            select ?, ? where exists (select 1 from post where id = ?)
+            on conflict do nothing""";
+    private static final String DELETE_LIKE = "delete from post_like where post_id = ? and author_id = ?";
+    private static final String UPDATE_LIKE_COUNT = "update post set like_count = like_count + ? where id = ?";
+    private static final String SELECT_AUTHOR_IDS = "select author_id from post_like where post_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public PostLikeRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                  @Value("${posts.likes.buffer.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    @Transactional
+    public Map<Long, Integer> applyLikeChanges(Collection<LikeId> likes, Collection<LikeId> unlikes) {
+        Map<Long, Integer> applied = new HashMap<>();
+        if (!likes.isEmpty()) {
+            int[][] inserted = jdbcTemplate.batchUpdate(INSERT_LIKE, likes, batchSize, (ps, like) -> {
+                ps.setLong(1, like.getObjectId());
+                ps.setLong(2, like.getAuthorId());
+                ps.setLong(3, like.getObjectId());
+            });
+            collect(applied, likes, inserted, 1);
+        }
+        if (!unlikes.isEmpty()) {
+            int[][] deleted = jdbcTemplate.batchUpdate(DELETE_LIKE, unlikes, batchSize, (ps, like) -> {
+                ps.setLong(1, like.getObjectId());
+                ps.setLong(2, like.getAuthorId());
+            });
+            collect(applied, unlikes, deleted, -1);
+        }
+
+        // Один UPDATE на пост вместо одного на каждый лайк
+        List<Map.Entry<Long, Integer>> counters = applied.entrySet().stream()
+                .filter(entry -> entry.getValue() != 0)
+                .toList();
+        if (!counters.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_LIKE_COUNT, counters, batchSize, (ps, entry) -> {
+                ps.setInt(1, entry.getValue());
+                ps.setLong(2, entry.getKey());
+            });
+        }
+        return applied;
+    }
+
+    @Override
+    public void forEachAuthorId(Long postId, LongConsumer consumer) {
+        jdbcTemplate.query(SELECT_AUTHOR_IDS, (RowCallbackHandler) rs -> consumer.accept(rs.getLong(1)), postId);
+    }
+
+    private void collect(Map<Long, Integer> applied, Collection<LikeId> changes, int[][] counts, int sign) {
+        int i = 0;
+        for (LikeId change : changes) {
+            if (counts[i / batchSize][i % batchSize] > 0) {
+                applied.merge(change.getObjectId(), sign, Integer::sum);
+            }
+            i++;
+        }
+    }
+}
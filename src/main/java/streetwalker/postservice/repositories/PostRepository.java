@@ -1,11 +1,79 @@
 package streetwalker.postservice.repositories;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import streetwalker.postservice.dto.post.PostSearchRow;
+import streetwalker.postservice.dto.post.PostSummary;
+import streetwalker.postservice.dto.post.PostTagRow;
 import streetwalker.postservice.models.Post;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface PostRepository extends JpaRepository<Post, Long> {
-    Page<Post> findPostByTitleContainingIgnoreCase(Pageable pageable, String substring);
+public interface PostRepository extends JpaRepository<Post, Long>, PostRepositoryCustom {
+    // % и _ в строке поиска экранируются так же, как в производном ...ContainingIgnoreCase
+    @Query(value = """
+            select new streetwalker.postservice.dto.post.PostSummary(
+                p.id, p.title, p.content, p.authorId, p.likeCount,
+                c.categoryName, c.categoryDescription, p.createdAt, p.updatedAt, p.version)
+            from Post p left join p.category c
+            where lower(p.title) like lower(concat('%', :#{escape([0])}, '%')) escape '\\'
+            """,
+            countQuery = "select count(p) from Post p where lower(p.title) like lower(concat('%', :#{escape([0])}, '%')) escape '\\'")
+    Page<PostSummary> findSummaries(String title, Pageable pageable);
+
+    @Query("""
+            select new streetwalker.postservice.dto.post.PostSummary(
+                p.id, p.title, p.content, p.authorId, p.likeCount,
+                c.categoryName, c.categoryDescription, p.createdAt, p.updatedAt, p.version)
+            from Post p left join p.category c
+            where lower(p.title) like lower(concat('%', :#{escape([0])}, '%')) escape '\\'
+            order by p.createdAt desc, p.id desc
+            """)
+    List<PostSummary> findFirstSummaries(String title, Limit limit);
+
+    // Keyset: продолжаем строго после (createdAt, id) курсора, без offset и count
+    @Query("""
+            select new streetwalker.postservice.dto.post.PostSummary(
+                p.id, p.title, p.content, p.authorId, p.likeCount,
+                c.categoryName, c.categoryDescription, p.createdAt, p.updatedAt, p.version)
+            from Post p left join p.category c
+            where lower(p.title) like lower(concat('%', :#{escape([0])}, '%')) escape '\\'
+              and (p.createdAt, p.id) < (:createdAt, :id)
+            order by p.createdAt desc, p.id desc
+            """)
+    List<PostSummary> findSummariesAfter(String title, OffsetDateTime createdAt, Long id, Limit limit);
+
+    @Query("""
+            select new streetwalker.postservice.dto.post.PostSummary(
+                p.id, p.title, p.content, p.authorId, p.likeCount,
+                c.categoryName, c.categoryDescription, p.createdAt, p.updatedAt, p.version)
+            from Post p left join p.category c
+            where p.id in :ids
+            """)
+    List<PostSummary> findSummariesByIds(Collection<Long> ids);
+
+    long countByTitleContainingIgnoreCase(String title);
+
+    @Query("""
+            select new streetwalker.postservice.dto.post.PostSearchRow(p.id, p.title, p.content)
+            from Post p
+            where p.id > :afterId
+            order by p.id
+            """)
+    List<PostSearchRow> findSearchRows(Long afterId, Limit limit);
+
+    @Query("""
+            select new streetwalker.postservice.dto.post.PostTagRow(p.id, t.tagName, t.tagDescription)
+            from Post p join p.tags t
+            where p.id in :postIds
+            order by p.id, t.tagName
+            """)
+    List<PostTagRow> findTagRows(Collection<Long> postIds);
 }
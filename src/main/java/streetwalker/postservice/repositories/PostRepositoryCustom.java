@@ -0,0 +1,48 @@
+package streetwalker.postservice.repositories;
+
+import jakarta.persistence.Tuple;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import streetwalker.postservice.dto.post.PostExportRow;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface PostRepositoryCustom {
+    /**
+     * Отдаёт в {@code consumer} все посты (или изменённые начиная с {@code updatedSince}) по порядку id
+     * через forward-only курсор, по мере чтения.
+     */
+    void streamExportRows(OffsetDateTime updatedSince, Consumer<PostExportRow> consumer);
+
+    /**
+     * Страница постов с {@code title} в заголовке: только {@code id} и заданные атрибуты {@code Post}
+     * (алиасы — имена атрибутов; "category" даёт categoryName и categoryDescription через left join).
+     */
+    List<Tuple> findPostAttributes(Collection<String> attributes, String title, Pageable pageable);
+
+    // То же для режима курсора: (createdAt, id) < курсора, newest first; createdAt == null — первая страница
+    List<Tuple> findPostAttributesAfter(Collection<String> attributes, String title, OffsetDateTime createdAt, Long id, Limit limit);
+
+    /**
+     * Удаляет пост set-based запросами в одной транзакции: комментарии, лайки, связи с тегами, затем сам пост.
+     * Ничего не загружается в контекст. Возвращает число удалённых постов (0 — поста нет).
+     */
+    int deletePostCascade(Long postId);
+
+    // Строки, которые придётся удалить вместе с постом: комментарии и лайки
+    long countDependentRows(Long postId);
+
+    // Порции для фонового удаления, каждая в своей короткой транзакции; возвращают число удалённых строк
+    int deleteCommentsChunk(Long postId, int chunkSize);
+
+    int deleteLikesChunk(Long postId, int chunkSize);
+
+    // Ставит createdAt = updatedAt (или fallback) постам, записанным без аудита; возвращает число строк
+    int backfillCreatedAt(OffsetDateTime fallback);
+
+    // Пересчитывает like_count по post_like там, где он разошёлся (посты до появления счётчика); возвращает число строк
+    int backfillLikeCounts();
+}
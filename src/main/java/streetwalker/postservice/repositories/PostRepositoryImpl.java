@@ -0,0 +1,215 @@
+package streetwalker.postservice.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import streetwalker.postservice.dto.post.PostExportRow;
+import streetwalker.postservice.models.Category;
+import streetwalker.postservice.models.Post;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+public class PostRepositoryImpl implements PostRepositoryCustom {
+    private static final String SELECT_EXPORT_ROWS = """
+            select p.id, p.title, p.content, p.author_id, p.like_count, c.category_name,
+                   (select array_agg(t.tag_name order by t.tag_name)
+                    from post_tags pt join tag t on t.id = pt.tag_id
+                    where pt.post_id = p.id) as tags,
+                   p.created_at, p.updated_at
+            from post p left join category c on c.id = p.category_id""";
+    private static final String BACKFILL_CREATED_AT = "update post set created_at = coalesce(updated_at, ?) where created_at is null";
+    // Переписываются только расходящиеся строки, поэтому повторный запуск почти ничего не пишет
+    private static final String BACKFILL_LIKE_COUNTS = """
+            update post p set like_count = (select count(*) from post_like l where l.post_id = p.id)
+            where p.like_count <> (select count(*) from post_like l where l.post_id = p.id)""";
+    private static final String DELETE_COMMENTS = "delete from comment where post_id = ?";
+    private static final String DELETE_LIKES = "delete from post_like where post_id = ?";
+    private static final String DELETE_TAG_LINKS = "delete from post_tags where post_id = ?";
+    private static final String DELETE_POST = "delete from post where id = ?";
+    private static final String COUNT_DEPENDENT_ROWS = """
+            select (select count(*) from comment where post_id = ?)
+                 + (select count(*) from post_like where post_id = ?)""";
+    // Самые глубокие строки первыми: ответы любой строки порции глубже её, значит удалены раньше или в этой же порции.
+    // Порядок id тут не годится — пуловые sequence выдают ответу id меньше, чем у родителя
+    private static final String DELETE_COMMENTS_CHUNK = """
+            delete from comment where id in (
+                select id from comment where post_id = ? order by depth desc, id desc limit ?
+            )""";
+    private static final String DELETE_LIKES_CHUNK = """
+            delete from post_like where post_id = ? and author_id in (
+                select author_id from post_like where post_id = ? limit ?
+            )""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final int fetchSize;
+
+    public PostRepositoryImpl(JdbcTemplate jdbcTemplate,
+                              EntityManager entityManager,
+                              @Value("${posts.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.fetchSize = fetchSize;
+    }
+
+    // PgJDBC читает порциями по fetchSize только вне autocommit, поэтому нужна транзакция
+    @Override
+    @Transactional(readOnly = true)
+    public void streamExportRows(OffsetDateTime updatedSince, Consumer<PostExportRow> consumer) {
+        String sql = SELECT_EXPORT_ROWS + (updatedSince != null ? " where p.updated_at >= ?" : "") + " order by p.id";
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            if (updatedSince != null) {
+                ps.setObject(1, updatedSince);
+            }
+            return ps;
+        }, rs -> {
+            consumer.accept(new PostExportRow(
+                    rs.getLong("id"),
+                    rs.getString("title"),
+                    rs.getString("content"),
+                    rs.getObject("author_id", Long.class),
+                    rs.getInt("like_count"),
+                    rs.getString("category_name"),
+                    tags(rs.getArray("tags")),
+                    rs.getObject("created_at", OffsetDateTime.class),
+                    rs.getObject("updated_at", OffsetDateTime.class)));
+        });
+    }
+
+    @Override
+    @Transactional
+    public int backfillCreatedAt(OffsetDateTime fallback) {
+        return jdbcTemplate.update(BACKFILL_CREATED_AT, fallback);
+    }
+
+    @Override
+    @Transactional
+    public int backfillLikeCounts() {
+        return jdbcTemplate.update(BACKFILL_LIKE_COUNTS);
+    }
+
+    @Override
+    @Transactional
+    public int deletePostCascade(Long postId) {
+        jdbcTemplate.update(DELETE_COMMENTS, postId);
+        jdbcTemplate.update(DELETE_LIKES, postId);
+        jdbcTemplate.update(DELETE_TAG_LINKS, postId);
+        return jdbcTemplate.update(DELETE_POST, postId);
+    }
+
+    @Override
+    public long countDependentRows(Long postId) {
+        Long count = jdbcTemplate.queryForObject(COUNT_DEPENDENT_ROWS, Long.class, postId, postId);
+        return count != null ? count : 0;
+    }
+
+    @Override
+    @Transactional
+    public int deleteCommentsChunk(Long postId, int chunkSize) {
+        return jdbcTemplate.update(DELETE_COMMENTS_CHUNK, postId, chunkSize);
+    }
+
+    @Override
+    @Transactional
+    public int deleteLikesChunk(Long postId, int chunkSize) {
+        return jdbcTemplate.update(DELETE_LIKES_CHUNK, postId, postId, chunkSize);
+    }
+
+    @Override
+    public List<Tuple> findPostAttributes(Collection<String> attributes, String title, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Post> post = query.from(Post.class);
+        query.multiselect(selections(post, attributes))
+                .where(titleContains(cb, post, title))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), post, cb));
+        TypedQuery<Tuple> typed = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typed.setFirstResult((int) pageable.getOffset());
+            typed.setMaxResults(pageable.getPageSize());
+        }
+        return typed.getResultList();
+    }
+
+    @Override
+    public List<Tuple> findPostAttributesAfter(Collection<String> attributes, String title, OffsetDateTime createdAt, Long id, Limit limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Post> post = query.from(Post.class);
+        Predicate where = titleContains(cb, post, title);
+        if (createdAt != null) {
+            Path<OffsetDateTime> postCreatedAt = post.get("createdAt");
+            Path<Long> postId = post.get("id");
+            where = cb.and(where, cb.or(
+                    cb.lessThan(postCreatedAt, createdAt),
+                    cb.and(cb.equal(postCreatedAt, createdAt), cb.lessThan(postId, id))));
+        }
+        query.multiselect(selections(post, attributes))
+                .where(where)
+                .orderBy(cb.desc(post.get("createdAt")), cb.desc(post.get("id")));
+        TypedQuery<Tuple> typed = entityManager.createQuery(query);
+        if (limit.isLimited()) {
+            typed.setMaxResults(limit.max());
+        }
+        return typed.getResultList();
+    }
+
+    private static List<Selection<?>> selections(Root<Post> post, Collection<String> attributes) {
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(post.get("id").alias("id"));
+        for (String attribute : attributes) {
+            if (attribute.equals("category")) {
+                Join<Post, Category> category = post.join("category", JoinType.LEFT);
+                selections.add(category.get("categoryName").alias("categoryName"));
+                selections.add(category.get("categoryDescription").alias("categoryDescription"));
+            } else if (!attribute.equals("id")) {
+                selections.add(post.get(attribute).alias(attribute));
+            }
+        }
+        return selections;
+    }
+
+    // Экранирование как у countByTitleContainingIgnoreCase, иначе строки страницы и totalElements расходятся на % и _
+    private static Predicate titleContains(CriteriaBuilder cb, Root<Post> post, String title) {
+        String pattern = "%" + EscapeCharacter.DEFAULT.escape(title.toLowerCase(Locale.ROOT)) + "%";
+        return cb.like(cb.lower(post.<String>get("title")), pattern, EscapeCharacter.DEFAULT.getEscapeCharacter());
+    }
+
+    private static List<String> tags(Array array) throws SQLException {
+        List<String> tags = new ArrayList<>();
+        if (array == null) {
+            return tags;
+        }
+        for (Object tag : (Object[]) array.getArray()) {
+            tags.add(String.valueOf(tag));
+        }
+        array.free();
+        return tags;
+    }
+}
@@ -0,0 +1,17 @@
+package streetwalker.postservice.repositories;
+
+import streetwalker.postservice.models.Tag;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TagRepositoryCustom {
+    // Поиск по natural id (tagName) через second-level cache; отсутствующие имена пропускаются
+    List<Tag> findAllByTagNames(Collection<String> tagNames);
+
+    /**
+     * Вставляет все имена тегов одним запросом, пропуская существующие (в том числе вставленные
+     * параллельным запросом). Возвращает число вставленных строк.
+     */
+    int insertMissing(Collection<String> tagNames, String description);
+}
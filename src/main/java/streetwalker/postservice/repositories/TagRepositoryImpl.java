@@ -0,0 +1,54 @@
+package streetwalker.postservice.repositories;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import streetwalker.postservice.models.Tag;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+public class TagRepositoryImpl implements TagRepositoryCustom {
+    // Один INSERT на все имена через unnest, конфликты по уникальному tag_name пропускаются.
+    // Сырой nextval безопасен для pooled-оптимизатора Hibernate: он берёт блок, который не выдан ни одному узлу
+    private static final String INSERT_TAGS = """
+            insert into tag (id, tag_name, tag_description)
+            select nextval('tag_seq'), name, ? from unnest(?::text[]) as name
+            on conflict (tag_name) do nothing""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    public TagRepositoryImpl(JdbcTemplate jdbcTemplate, EntityManager entityManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Tag> findAllByTagNames(Collection<String> tagNames) {
+        if (tagNames.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.unwrap(Session.class)
+                .byMultipleNaturalId(Tag.class)
+                .multiLoad(new ArrayList<>(tagNames))
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    public int insertMissing(Collection<String> tagNames, String description) {
+        if (tagNames.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(INSERT_TAGS, ps -> {
+            ps.setString(1, description);
+            ps.setArray(2, ps.getConnection().createArrayOf("text", tagNames.toArray()));
+        });
+    }
+}
@@ -0,0 +1,27 @@
+package streetwalker.postservice.services;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Откладывает побочные эффекты записи в памяти (патч кэша, bitmap) до коммита: при откате они не
+ * применяются, и другие запросы не видят того, чего ещё нет в БД. Вне транзакции выполняет сразу.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -14,8 +14,11 @@ public class CategoryService {
         this.categoryRepository = categoryRepository;
         this.categoryMapper = categoryMapper;
     }
+    // Natural id из L2-кэша; запрос по имени (тоже кэшируемый) — для строк без name_key
     public Category getCategory(String categoryName) {
-       return categoryRepository.findByCategoryNameIgnoreCase(categoryName).orElseThrow(() -> new RuntimeException("Category not found"));
+       return categoryRepository.findByNameKey(Category.normalizeName(categoryName))
+               .or(() -> categoryRepository.findByCategoryNameIgnoreCase(categoryName))
+               .orElseThrow(() -> new RuntimeException("Category not found"));
     }
     public Category createCategory(CategoryDTO category) {
         if (categoryRepository.existsByCategoryNameIgnoreCase(category.getCategoryName())  ) {
@@ -0,0 +1,27 @@
+package streetwalker.postservice.services;
+
+/**
+ * Материализованный путь комментария: id предков и свой id, по 19 цифр на сегмент.
+ * Сортировка по path даёт порядок ветки, поддерево — диапазон {@code (path, path + MAX_SEGMENT)}.
+ * Только цифры, поэтому порядок не зависит от collation БД.
+ */
+public final class CommentPath {
+    public static final int SEGMENT_LENGTH = 19;
+    // Больше любого id: Long.MAX_VALUE = 9223372036854775807
+    public static final String MAX_SEGMENT = "9".repeat(SEGMENT_LENGTH);
+    public static final int MAX_LENGTH = 1900;
+    public static final int MAX_DEPTH = MAX_LENGTH / SEGMENT_LENGTH - 1;
+
+    private CommentPath() {
+    }
+
+    public static String segment(Long id) {
+        String digits = Long.toString(id);
+        return "0".repeat(SEGMENT_LENGTH - digits.length()) + digits;
+    }
+
+    // parentPath == null — корневой комментарий
+    public static String of(String parentPath, Long id) {
+        return parentPath == null ? segment(id) : parentPath + segment(id);
+    }
+}
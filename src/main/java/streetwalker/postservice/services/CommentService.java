@@ -1,24 +1,61 @@
 package streetwalker.postservice.services;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import streetwalker.postservice.dto.comment.CommentCreateDTO;
+import streetwalker.postservice.dto.comment.CommentNodeDTO;
+import streetwalker.postservice.dto.comment.CommentRepliesDTO;
+import streetwalker.postservice.dto.comment.CommentReplyDTO;
+import streetwalker.postservice.dto.comment.CommentRow;
+import streetwalker.postservice.dto.comment.CommentSubtreeDeletion;
+import streetwalker.postservice.dto.comment.CommentTreeDTO;
 import streetwalker.postservice.dto.comment.CommentUpdateDTO;
 import streetwalker.postservice.models.Comment;
 import streetwalker.postservice.models.Post;
 import streetwalker.postservice.repositories.CommentRepository;
+import streetwalker.postservice.util.LongIntHashMap;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 @Service
 public class CommentService {
+    private static final Logger log = LoggerFactory.getLogger(CommentService.class);
+    private static final int MAX_REPLIES_PAGE = 100;
+    // Служебные значения в массивах родителей и глубин дерева
+    private static final int ROOT = -1;
+    private static final int CUT = -2;
+    private static final int UNKNOWN = Integer.MIN_VALUE;
+
     private final CommentRepository commentRepository;
+    private final PostCache postCache;
+    private final int maxTreeSize;
+    private final int maxTreeDepth;
+    private final boolean backfillPathsOnStartup;
 
 
-    public CommentService(CommentRepository commentRepository) {
+    public CommentService(CommentRepository commentRepository, PostCache postCache,
+                          @Value("${posts.comments.tree.max-size:5000}") int maxTreeSize,
+                          @Value("${posts.comments.tree.max-depth:32}") int maxTreeDepth,
+                          @Value("${posts.comments.path.backfill-on-startup:false}") boolean backfillPathsOnStartup) {
         this.commentRepository = commentRepository;
+        this.postCache = postCache;
+        this.maxTreeSize = maxTreeSize;
+        this.maxTreeDepth = maxTreeDepth;
+        this.backfillPathsOnStartup = backfillPathsOnStartup;
     }
 
+    // path и depth заполняет CommentPathInterceptor при persist, когда id уже выдан, — одним INSERT без UPDATE
+    @Transactional
     public Comment createComment(CommentCreateDTO commentCreateDTO, Post post) {
         Comment newComment = new Comment();
         newComment.setAuthorId(commentCreateDTO.getAuthorId());
@@ -28,19 +65,144 @@ public class CommentService {
         if (commentCreateDTO.getParentCommentId() != null) {
             Comment parentComment = commentRepository.findById(commentCreateDTO.getParentCommentId())
                     .orElseThrow(() -> new RuntimeException("Parent comment not found"));
+            if (parentComment.getDepth() != null && parentComment.getDepth() >= CommentPath.MAX_DEPTH) {
+                throw new RuntimeException("Reply nesting is too deep");
+            }
             newComment.setParentComment(parentComment);
         }
 
-        return commentRepository.save(newComment);
+        Comment saved = commentRepository.save(newComment);
+        invalidatePost(newComment);
+        return saved;
     }
     public Comment updateComment(CommentUpdateDTO commentUpdateDTO) {
         Comment comment = commentRepository.findById(commentUpdateDTO.getCommentId()).orElseThrow(() -> new RuntimeException("Comment not found"));
         comment.setContent(commentUpdateDTO.getNewContent());
-        return commentRepository.save(comment);
+        Comment saved = commentRepository.save(comment);
+        invalidatePost(comment);
+        return saved;
     }
 
+    // Ветка ответов удаляется одним запросом, без загрузки сущностей и каскада orphanRemoval по одной строке
     public void deleteComment(Long commentId) {
-        commentRepository.findById(commentId).orElseThrow(() -> new RuntimeException("Comment not found"));
-        commentRepository.deleteById(commentId);
+        CommentSubtreeDeletion deletion = commentRepository.deleteSubtree(commentId);
+        if (deletion.getDeleted() == 0) {
+            throw new RuntimeException("Comment not found");
+        }
+        if (deletion.getPostId() != null) {
+            AfterCommit.run(() -> postCache.invalidate(deletion.getPostId()));
+        }
+    }
+
+    /**
+     * Следующие {@code limit} потомков комментария в порядке ветки, одним range scan по {@code path}.
+     * {@code after} — {@code nextCursor} предыдущей страницы. Нет комментария или ответов — пустая страница.
+     */
+    public CommentRepliesDTO getReplies(Long commentId, Long after, int limit) {
+        if (limit < 1 || limit > MAX_REPLIES_PAGE) {
+            throw new RuntimeException("limit must be between 1 and " + MAX_REPLIES_PAGE);
+        }
+        List<CommentReplyDTO> rows = after == null
+                ? commentRepository.findFirstReplies(commentId, CommentPath.MAX_SEGMENT, Limit.of(limit + 1))
+                : commentRepository.findRepliesAfter(commentId, after, CommentPath.MAX_SEGMENT, Limit.of(limit + 1));
+        boolean hasNext = rows.size() > limit;
+        List<CommentReplyDTO> replies = hasNext ? rows.subList(0, limit) : rows;
+        Long nextCursor = hasNext ? replies.get(replies.size() - 1).getId() : null;
+        return new CommentRepliesDTO(commentId, replies, nextCursor, hasNext);
+    }
+
+    // Комментарии, записанные до появления path и depth, дозаполняются в фоне, не задерживая старт
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (backfillPathsOnStartup) {
+            log.info("Backfilled path of {} comments", commentRepository.backfillPaths());
+        }
+    }
+
+    /**
+     * Все комментарии поста одним плоским запросом (сначала верхние уровни), дерево собирается в два прохода.
+     * Не больше {@code posts.comments.tree.max-size} комментариев и {@code posts.comments.tree.max-depth}
+     * уровней; если что-то отрезано, ставится {@code truncated}.
+     */
+    public CommentTreeDTO getCommentTree(Long postId) {
+        List<CommentRow> rows = commentRepository.findRowsByPostId(postId, Limit.of(maxTreeSize + 1));
+        boolean truncated = rows.size() > maxTreeSize;
+        int count = Math.min(rows.size(), maxTreeSize);
+
+        LongIntHashMap indexById = new LongIntHashMap(count);
+        for (int i = 0; i < count; i++) {
+            indexById.put(rows.get(i).getId(), i);
+        }
+        int[] parents = new int[count];
+        for (int i = 0; i < count; i++) {
+            Long parentId = rows.get(i).getParentCommentId();
+            parents[i] = parentId == null ? ROOT : indexById.get(parentId, CUT);
+        }
+        int[] depths = new int[count];
+        int[] chain = new int[count];
+        Arrays.fill(depths, UNKNOWN);
+        CommentNodeDTO[] nodes = new CommentNodeDTO[count];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            int depth = depthOf(i, parents, depths, chain);
+            if (depth == CUT || depth >= maxTreeDepth) {
+                // Родитель отрезан лимитом размера или ветка глубже лимита — вся ветка тоже
+                truncated = true;
+                continue;
+            }
+            CommentRow row = rows.get(i);
+            nodes[i] = new CommentNodeDTO(row.getId(), row.getAuthorId(), row.getContent());
+            size++;
+        }
+        List<CommentNodeDTO> roots = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (nodes[i] != null) {
+                (parents[i] == ROOT ? roots : nodes[parents[i]].getReplies()).add(nodes[i]);
+            }
+        }
+        return new CommentTreeDTO(postId, roots, size, truncated);
+    }
+
+    // Глубина строки по цепочке родителей, CUT — если предок не попал в выборку.
+    // Цепочка проходится один раз и запоминается целиком, поэтому весь проход линейный
+    private static int depthOf(int index, int[] parents, int[] depths, int[] chain) {
+        int length = 0;
+        int current = index;
+        int depth;
+        while (true) {
+            if (depths[current] != UNKNOWN) {
+                depth = depths[current];
+                break;
+            }
+            if (length == chain.length) {
+                depth = CUT;
+                break;
+            }
+            chain[length++] = current;
+            int parent = parents[current];
+            if (parent == ROOT) {
+                depth = -1;
+                break;
+            }
+            if (parent == CUT) {
+                depth = CUT;
+                break;
+            }
+            current = parent;
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            depth = depth == CUT ? CUT : depth + 1;
+            depths[chain[i]] = depth;
+        }
+        return depths[index];
+    }
+
+    // Комментарии входят в закэшированный PostDTO; сброс после коммита, иначе промах кэша успеет закэшировать старое
+    private void invalidatePost(Comment comment) {
+        if (comment.getPost() != null) {
+            Long postId = comment.getPost().getId();
+            AfterCommit.run(() -> postCache.invalidate(postId));
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,255 @@
+package streetwalker.postservice.services;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import streetwalker.postservice.models.LikeId;
+import streetwalker.postservice.repositories.PostLikeRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind буфер лайков ({@code posts.likes.buffer.enabled}). События по {@link LikeId} схлопываются
+ * до последнего состояния и пишутся в post_like JDBC-батчами: по расписанию, при остановке и фоновым потоком
+ * при {@code posts.likes.buffer.max-size}. Потоки запросов не пишут: сверх {@code posts.likes.buffer.max-pending}
+ * получают {@link LikeBufferFullException}. Неудачный батч повторяется по одному посту и отбрасывается
+ * после {@code posts.likes.buffer.max-retries} неудач.
+ */
+@Component
+public class LikeBuffer {
+    private static final Logger log = LoggerFactory.getLogger(LikeBuffer.class);
+
+    private final PostLikeRepository postLikeRepository;
+    private final PostLikerIndex postLikerIndex;
+    private final PostCache postCache;
+    private final boolean enabled;
+    private final int maxSize;
+    private final int maxPending;
+    private final int maxRetries;
+
+    private final ConcurrentHashMap<LikeId, Boolean> pending = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> pendingDeltas = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // Число неудачных записей события; меняется только под flushLock
+    private final Map<LikeId, Integer> failures = new HashMap<>();
+    private final ExecutorService flusher = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("like-buffer-flush").daemon().factory());
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    public LikeBuffer(PostLikeRepository postLikeRepository,
+                      PostLikerIndex postLikerIndex,
+                      PostCache postCache,
+                      @Value("${posts.likes.buffer.enabled:false}") boolean enabled,
+                      @Value("${posts.likes.buffer.max-size:10000}") int maxSize,
+                      @Value("${posts.likes.buffer.max-pending:50000}") int maxPending,
+                      @Value("${posts.likes.buffer.max-retries:3}") int maxRetries) {
+        this.postLikeRepository = postLikeRepository;
+        this.postLikerIndex = postLikerIndex;
+        this.postCache = postCache;
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.maxPending = maxPending;
+        this.maxRetries = maxRetries;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void like(Long postId, Long authorId) {
+        record(postId, authorId, true);
+    }
+
+    public void unlike(Long postId, Long authorId) {
+        record(postId, authorId, false);
+    }
+
+    // Ещё не сброшенное изменение like_count поста, чтобы пользователь сразу видел свой лайк
+    public long pendingDelta(Long postId) {
+        return pendingDeltas.getOrDefault(postId, 0L);
+    }
+
+    public Boolean pendingState(Long postId, Long authorId) {
+        return pending.get(new LikeId(postId, authorId));
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${posts.likes.buffer.flush-interval-ms:200}")
+    public void scheduledFlush() {
+        if (enabled) {
+            flush(false);
+        }
+    }
+
+    @PreDestroy
+    public void drain() {
+        flusher.shutdown();
+        while (!pending.isEmpty()) {
+            if (!flush(true)) {
+                log.error("Dropping {} buffered likes on shutdown", pending.size());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Сбрасывает всё накопленное. При {@code wait == false} сразу возвращается, если сброс уже идёт.
+     * false — батч записать не удалось.
+     */
+    public boolean flush(boolean wait) {
+        if (pending.isEmpty()) {
+            return true;
+        }
+        if (wait) {
+            flushLock.lock();
+        } else if (!flushLock.tryLock()) {
+            return true;
+        }
+        try {
+            return flushLocked();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private boolean flushLocked() {
+        Map<LikeId, Boolean> fresh = new HashMap<>();
+        Map<Long, Map<LikeId, Boolean>> retriedByPost = new HashMap<>();
+        for (LikeId key : pending.keySet()) {
+            Boolean liked = pending.remove(key);
+            if (liked == null) {
+                continue;
+            }
+            // Уже падавшие события пишутся отдельно по постам: пост, удалённый из БД, не валит чужие лайки
+            if (failures.containsKey(key)) {
+                retriedByPost.computeIfAbsent(key.getObjectId(), postId -> new HashMap<>()).put(key, liked);
+            } else {
+                fresh.put(key, liked);
+            }
+        }
+
+        List<Map<LikeId, Boolean>> parts = new ArrayList<>(retriedByPost.size() + 1);
+        if (!fresh.isEmpty()) {
+            parts.add(fresh);
+        }
+        parts.addAll(retriedByPost.values());
+        boolean written = true;
+        for (Map<LikeId, Boolean> part : parts) {
+            if (written) {
+                written = write(part);
+            } else {
+                // После первой ошибки (например, БД недоступна) остальное ждёт следующего сброса без попытки
+                requeue(part, false);
+            }
+        }
+        return written;
+    }
+
+    private boolean write(Map<LikeId, Boolean> part) {
+        List<LikeId> likes = new ArrayList<>();
+        List<LikeId> unlikes = new ArrayList<>();
+        part.forEach((key, liked) -> (liked ? likes : unlikes).add(key));
+
+        Map<Long, Integer> applied;
+        try {
+            applied = postLikeRepository.applyLikeChanges(likes, unlikes);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to flush {} buffered likes, re-queueing", part.size(), ex);
+            requeue(part, true);
+            return false;
+        }
+
+        part.forEach((key, liked) -> {
+            failures.remove(key);
+            if (liked) {
+                postLikerIndex.onLike(key.getObjectId(), key.getAuthorId());
+            } else {
+                postLikerIndex.onUnlike(key.getObjectId(), key.getAuthorId());
+            }
+            addDelta(key.getObjectId(), -weight(liked));
+        });
+        applied.forEach(postCache::adjustLikes);
+        return true;
+    }
+
+    private void requeue(Map<LikeId, Boolean> part, boolean failed) {
+        int dropped = 0;
+        for (Map.Entry<LikeId, Boolean> entry : part.entrySet()) {
+            LikeId key = entry.getKey();
+            int attempts = failures.getOrDefault(key, 0) + (failed ? 1 : 0);
+            if (attempts > maxRetries) {
+                failures.remove(key);
+                addDelta(key.getObjectId(), -weight(entry.getValue()));
+                dropped++;
+            } else if (pending.putIfAbsent(key, entry.getValue()) != null) {
+                // Более новое событие для той же пары важнее неудачного и начинает счёт попыток заново
+                failures.remove(key);
+                addDelta(key.getObjectId(), -weight(entry.getValue()));
+            } else if (attempts > 0) {
+                failures.put(key, attempts);
+            }
+        }
+        if (dropped > 0) {
+            log.error("Dropping {} buffered likes after {} failed writes", dropped, maxRetries + 1);
+        }
+    }
+
+    private void record(Long postId, Long authorId, boolean liked) {
+        LikeId key = new LikeId(postId, authorId);
+        int size = pending.size();
+        if (size >= maxPending && !pending.containsKey(key)) {
+            requestFlush();
+            throw new LikeBufferFullException(size);
+        }
+        Boolean previous = pending.put(key, liked);
+        addDelta(postId, weight(liked) - weight(previous));
+        if (pending.size() >= maxSize) {
+            requestFlush();
+        }
+    }
+
+    // Сброс по размеру уходит в фоновый поток; повторные сигналы, пока он не начался, схлопываются
+    private void requestFlush() {
+        if (!flushRequested.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            flusher.execute(() -> {
+                flushRequested.set(false);
+                flush(true);
+            });
+        } catch (RejectedExecutionException ex) {
+            // Остановка: остаток заберёт drain()
+            flushRequested.set(false);
+        }
+    }
+
+    private void addDelta(Long postId, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        pendingDeltas.merge(postId, (long) delta, (current, change) -> current + change == 0 ? null : current + change);
+    }
+
+    private static int weight(Boolean liked) {
+        if (liked == null) {
+            return 0;
+        }
+        return liked ? 1 : -1;
+    }
+}
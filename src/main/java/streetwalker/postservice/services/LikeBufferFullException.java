@@ -0,0 +1,8 @@
+package streetwalker.postservice.services;
+
+// Буфер лайков переполнен, пока сброс в БД отстаёт; контроллер отвечает 503, клиент повторяет позже
+public class LikeBufferFullException extends RuntimeException {
+    public LikeBufferFullException(int pending) {
+        super("Too many likes waiting to be written (" + pending + "), retry later");
+    }
+}
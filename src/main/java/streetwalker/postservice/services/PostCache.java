@@ -0,0 +1,72 @@
+package streetwalker.postservice.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import streetwalker.postservice.dto.post.PostDTO;
+import streetwalker.postservice.mappers.PostMapper;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Ограниченный read-through кэш {@link PostDTO} по id (размер и TTL). Каждая запись в {@link PostService}
+ * инвалидирует или патчит запись, так что пост в кэше не старше последней записи на этом узле.
+ */
+@Component
+public class PostCache {
+    private final PostMapper postMapper;
+    private final Cache<Long, PostDTO> cache;
+
+    public PostCache(PostMapper postMapper,
+                     @Value("${posts.cache.max-size:10000}") long maxSize,
+                     @Value("${posts.cache.ttl:PT5M}") Duration ttl) {
+        this.postMapper = postMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public PostDTO get(Long id, Function<Long, PostDTO> loader) {
+        return cache.get(id, loader);
+    }
+
+    public PostDTO getIfPresent(Long id) {
+        return cache.getIfPresent(id);
+    }
+
+    public void put(PostDTO postDTO) {
+        if (postDTO != null && postDTO.getId() != null) {
+            cache.put(postDTO.getId(), postDTO);
+        }
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    // Лайк меняет только счётчик — патчим копию вместо сброса записи горячего поста
+    public void adjustLikes(Long id, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        cache.asMap().computeIfPresent(id, (key, cached) -> {
+            PostDTO patched = postMapper.copy(cached);
+            int likes = cached.getLikes() != null ? cached.getLikes() : 0;
+            patched.setLikes(Math.max(0, likes + delta));
+            return patched;
+        });
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public Cache<Long, PostDTO> nativeCache() {
+        return cache;
+    }
+}
@@ -0,0 +1,43 @@
+package streetwalker.postservice.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import streetwalker.postservice.repositories.PostRepository;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Проставляет {@code created_at} постам, записанным до включения аудита, чтобы keyset-лента
+ * (created_at, id) строила по ним курсоры и не пропускала их. Берётся {@code updated_at}, а без него эпоха.
+ * Выполняется при старте, если {@code posts.listing.backfill-created-at} не false.
+ */
+@Component
+public class PostCreatedAtBackfill {
+    private static final Logger log = LoggerFactory.getLogger(PostCreatedAtBackfill.class);
+    static final OffsetDateTime FALLBACK = OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private final PostRepository postRepository;
+    private final boolean enabled;
+
+    public PostCreatedAtBackfill(PostRepository postRepository,
+                                 @Value("${posts.listing.backfill-created-at:true}") boolean enabled) {
+        this.postRepository = postRepository;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        int updated = postRepository.backfillCreatedAt(FALLBACK);
+        if (updated > 0) {
+            log.info("Backfilled created_at of {} posts", updated);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package streetwalker.postservice.services;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Позиция в порядке (created_at, id); клиенту отдаётся непрозрачной base64-строкой.
+ */
+@Getter
+@AllArgsConstructor
+public class PostCursor {
+    private OffsetDateTime createdAt;
+    private Long id;
+
+    public String encode() {
+        String raw = createdAt.toInstant() + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PostCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new PostCursor(OffsetDateTime.ofInstant(Instant.parse(raw.substring(0, separator)), ZoneOffset.UTC),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException ex) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package streetwalker.postservice.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import streetwalker.postservice.repositories.CommentRepository;
+import streetwalker.postservice.repositories.PostRepository;
+
+/**
+ * Фоновое удаление постов с большим числом комментариев и лайков: порциями по {@code posts.delete.chunk-size}
+ * строк в коротких транзакциях (комментарии с самых глубоких), пост — последним.
+ * Так удаляются посты от {@code posts.delete.async-threshold} зависимых строк; 0 отключает.
+ */
+@Service
+public class PostDeletionService {
+    private static final Logger log = LoggerFactory.getLogger(PostDeletionService.class);
+
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final PostCache postCache;
+    private final PostLikerIndex postLikerIndex;
+    private final long asyncThreshold;
+    private final int chunkSize;
+
+    public PostDeletionService(PostRepository postRepository,
+                               CommentRepository commentRepository,
+                               PostCache postCache,
+                               PostLikerIndex postLikerIndex,
+                               @Value("${posts.delete.async-threshold:10000}") long asyncThreshold,
+                               @Value("${posts.delete.chunk-size:1000}") int chunkSize) {
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.postCache = postCache;
+        this.postLikerIndex = postLikerIndex;
+        this.asyncThreshold = asyncThreshold;
+        this.chunkSize = chunkSize;
+    }
+
+    public boolean shouldDeleteInBackground(Long postId) {
+        return asyncThreshold > 0 && postRepository.countDependentRows(postId) >= asyncThreshold;
+    }
+
+    @Async
+    public void deleteInChunks(Long postId) {
+        long comments = 0;
+        long likes = 0;
+        int deleted;
+        try {
+            // Порции идут по depth, поэтому у старых комментариев без depth он сначала дозаполняется
+            if (commentRepository.existsByPostIdAndPathIsNull(postId)) {
+                commentRepository.backfillPaths(postId);
+            }
+            while ((deleted = postRepository.deleteCommentsChunk(postId, chunkSize)) > 0) {
+                comments += deleted;
+            }
+            while ((deleted = postRepository.deleteLikesChunk(postId, chunkSize)) > 0) {
+                likes += deleted;
+            }
+            postRepository.deletePostCascade(postId);
+            log.info("Post {} deleted in background: {} comments, {} likes", postId, comments, likes);
+        } catch (RuntimeException ex) {
+            log.error("Background deletion of post {} stopped after {} comments and {} likes", postId, comments, likes, ex);
+        } finally {
+            // Пока шло удаление, GET мог снова положить пост в кэш
+            postCache.invalidate(postId);
+            postLikerIndex.evict(postId);
+        }
+    }
+}
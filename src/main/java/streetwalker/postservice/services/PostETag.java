@@ -0,0 +1,101 @@
+package streetwalker.postservice.services;
+
+import org.springframework.data.domain.Page;
+import streetwalker.postservice.dto.post.PostDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Сильные ETag ответов с постами. Пост — {@code "<id>-<version>-<likes>"}: version меняется при правках,
+ * лайки в неё не входят и учитываются отдельно. Лента — дайджест тех же троек, пагинации и fields.
+ */
+public final class PostETag {
+
+    private PostETag() {
+    }
+
+    public static String of(PostDTO post, PostFields fields) {
+        String tag = post.getId() + "-" + post.getVersion() + "-" + post.getLikes();
+        if (fields != null) {
+            tag += "-" + digest(String.join(",", fields.names())).substring(0, 8);
+        }
+        return quote(tag);
+    }
+
+    public static String ofPage(Page<PostDTO> page, PostFields fields) {
+        return ofList(page.getContent(), page.getNumber() + ":" + page.getSize() + ":" + page.getTotalElements(), fields);
+    }
+
+    public static String ofSlice(List<PostDTO> posts, String after, int limit, String nextCursor, PostFields fields) {
+        return ofList(posts, after + ":" + limit + ":" + nextCursor, fields);
+    }
+
+    // If-None-Match: список тегов через запятую или *; для GET сравнение слабое, W/ отбрасывается
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // paging — номер/размер/total страницы или nextCursor, чтобы разные страницы не совпадали по тегу
+    private static String ofList(List<PostDTO> posts, String paging, PostFields fields) {
+        StringBuilder raw = new StringBuilder(paging).append('|');
+        if (fields != null) {
+            raw.append(String.join(",", fields.names()));
+        }
+        for (PostDTO post : posts) {
+            raw.append('|').append(post.getId()).append(':').append(post.getVersion()).append(':').append(post.getLikes());
+        }
+        return quote("l-" + digest(raw.toString()));
+    }
+
+    /**
+     * Ожидаемая версия из If-Match. null для {@code *}; слабый, битый или чужой тег не может совпасть
+     * и считается несовпадением версии.
+     */
+    public static Long expectedVersion(String ifMatch, Long postId) {
+        String value = ifMatch.trim();
+        if (value.equals("*")) {
+            return null;
+        }
+        if (value.length() < 2 || !value.startsWith("\"") || !value.endsWith("\"")) {
+            throw new PostVersionMismatchException(postId);
+        }
+        String[] parts = value.substring(1, value.length() - 1).split("-");
+        try {
+            if (parts.length < 2 || !parts[0].equals(String.valueOf(postId))) {
+                throw new PostVersionMismatchException(postId);
+            }
+            return Long.parseLong(parts[1]);
+        } catch (NumberFormatException ex) {
+            throw new PostVersionMismatchException(postId);
+        }
+    }
+
+    private static String quote(String tag) {
+        return "\"" + tag + "\"";
+    }
+
+    private static String digest(String raw) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(raw.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package streetwalker.postservice.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import streetwalker.postservice.dto.post.PostExportRow;
+import streetwalker.postservice.repositories.PostRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Locale;
+
+/**
+ * Полная или инкрементальная выгрузка постов для {@code GET /api/posts/export}. Строки идут с
+ * forward-only курсора прямо в ответ, так что память не зависит от числа постов.
+ */
+@Service
+public class PostExportService {
+    private static final String CSV_HEADER = "id,title,content,author_id,like_count,category,tags,created_at,updated_at";
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String format) {
+            try {
+                return valueOf(format.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new RuntimeException("format must be ndjson or csv");
+            }
+        }
+    }
+
+    private final PostRepository postRepository;
+    private final ObjectMapper objectMapper;
+
+    public PostExportService(PostRepository postRepository, ObjectMapper objectMapper) {
+        this.postRepository = postRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public void export(Format format, OffsetDateTime updatedSince, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try {
+            if (format == Format.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+                postRepository.streamExportRows(updatedSince, row -> writeCsv(row, writer));
+            } else {
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+                // Каждая запись — отдельная строка NDJSON
+                generator.setRootValueSeparator(null);
+                postRepository.streamExportRows(updatedSince, row -> writeJson(row, generator));
+                generator.flush();
+            }
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        writer.flush();
+    }
+
+    private static void writeJson(PostExportRow row, JsonGenerator generator) {
+        try {
+            generator.writeStartObject();
+            generator.writeNumberField("id", row.getId());
+            generator.writeStringField("title", row.getTitle());
+            generator.writeStringField("content", row.getContent());
+            writeNumberOrNull(generator, "authorId", row.getAuthorId());
+            generator.writeNumberField("likes", row.getLikeCount());
+            generator.writeStringField("category", row.getCategoryName());
+            generator.writeArrayFieldStart("tags");
+            for (String tag : row.getTags()) {
+                generator.writeString(tag);
+            }
+            generator.writeEndArray();
+            generator.writeStringField("createdAt", timestamp(row.getCreatedAt()));
+            generator.writeStringField("updatedAt", timestamp(row.getUpdatedAt()));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void writeNumberOrNull(JsonGenerator generator, String field, Long value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(field);
+        } else {
+            generator.writeNumberField(field, value);
+        }
+    }
+
+    private static void writeCsv(PostExportRow row, Writer writer) {
+        try {
+            writer.write(String.valueOf(row.getId()));
+            writer.write(',');
+            writer.write(csv(row.getTitle()));
+            writer.write(',');
+            writer.write(csv(row.getContent()));
+            writer.write(',');
+            writer.write(row.getAuthorId() != null ? row.getAuthorId().toString() : "");
+            writer.write(',');
+            writer.write(String.valueOf(row.getLikeCount()));
+            writer.write(',');
+            writer.write(csv(row.getCategoryName()));
+            writer.write(',');
+            writer.write(csv(String.join("|", row.getTags())));
+            writer.write(',');
+            writer.write(nullToEmpty(timestamp(row.getCreatedAt())));
+            writer.write(',');
+            writer.write(nullToEmpty(timestamp(row.getUpdatedAt())));
+            writer.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // RFC 4180: поле в кавычках, если в нём есть разделитель, кавычка или перевод строки
+    static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String timestamp(OffsetDateTime value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
@@ -0,0 +1,84 @@
+package streetwalker.postservice.services;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Набор полей ответа ({@code ?fields=id,title,likes}): какие свойства {@code PostDTO} сериализуются и какие
+ * атрибуты {@code Post} выбирает запрос ленты. {@code id} есть всегда.
+ */
+public class PostFields {
+    public static final String FILTER_ID = "postFields";
+
+    public static final String ID = "id";
+    public static final String TITLE = "title";
+    public static final String CONTENT = "content";
+    public static final String AUTHOR_ID = "authorId";
+    public static final String LIKES = "likes";
+    public static final String TAGS = "tags";
+    public static final String CATEGORY = "category";
+    public static final String CREATED_AT = "createdAt";
+    public static final String IS_UPDATED = "isUpdated";
+
+    // Свойство PostDTO -> атрибуты Post, которые нужно выбрать; теги грузятся отдельным запросом
+    private static final Map<String, List<String>> ATTRIBUTES = new LinkedHashMap<>();
+
+    static {
+        ATTRIBUTES.put(ID, List.of());
+        ATTRIBUTES.put(TITLE, List.of("title"));
+        ATTRIBUTES.put(CONTENT, List.of("content"));
+        ATTRIBUTES.put(AUTHOR_ID, List.of("authorId"));
+        ATTRIBUTES.put(LIKES, List.of("likeCount"));
+        ATTRIBUTES.put(TAGS, List.of());
+        ATTRIBUTES.put(CATEGORY, List.of("category"));
+        ATTRIBUTES.put(CREATED_AT, List.of("createdAt"));
+        ATTRIBUTES.put(IS_UPDATED, List.of("createdAt", "updatedAt"));
+    }
+
+    private final Set<String> names;
+
+    private PostFields(Set<String> names) {
+        this.names = names;
+    }
+
+    // null, если параметр не задан: тогда отдаются все поля
+    public static PostFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        names.add(ID);
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            String known = ATTRIBUTES.keySet().stream()
+                    .filter(candidate -> candidate.toLowerCase(Locale.ROOT).equals(name.toLowerCase(Locale.ROOT)))
+                    .findFirst()
+                    .orElseThrow(() -> new RuntimeException("Unknown field " + name + ", allowed: " + String.join(",", ATTRIBUTES.keySet())));
+            names.add(known);
+        }
+        return new PostFields(names);
+    }
+
+    public boolean includes(String name) {
+        return names.contains(name);
+    }
+
+    public Set<String> names() {
+        return names;
+    }
+
+    // version выбирается всегда: по нему строится ETag ответа
+    public Set<String> attributes() {
+        Set<String> attributes = new LinkedHashSet<>();
+        attributes.add("version");
+        names.forEach(name -> attributes.addAll(ATTRIBUTES.get(name)));
+        return attributes;
+    }
+}
@@ -0,0 +1,236 @@
+package streetwalker.postservice.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import streetwalker.postservice.dto.post.PostCreateDTO;
+import streetwalker.postservice.dto.post.PostImportResultDTO;
+import streetwalker.postservice.mappers.PostMapper;
+import streetwalker.postservice.models.Category;
+import streetwalker.postservice.models.Post;
+import streetwalker.postservice.models.Tag;
+import streetwalker.postservice.repositories.PostRepository;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Потоковый импорт NDJSON {@link PostCreateDTO} для {@code POST /api/posts/bulk}: порции по
+ * {@code posts.import.chunk-size} записей, транзакция на порцию, категории и теги разрешаются раз на порцию,
+ * после порции контекст очищается. Результат по записи пишется сразу после коммита её порции.
+ */
+@Service
+public class PostImportService {
+    private static final Logger log = LoggerFactory.getLogger(PostImportService.class);
+
+    private final PostRepository postRepository;
+    private final PostMapper postMapper;
+    private final CategoryService categoryService;
+    private final TagService tagService;
+    private final PostSearchIndex postSearchIndex;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+    private final int chunkSize;
+
+    public PostImportService(PostRepository postRepository,
+                             PostMapper postMapper,
+                             CategoryService categoryService,
+                             TagService tagService,
+                             PostSearchIndex postSearchIndex,
+                             EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             @Value("${posts.import.chunk-size:500}") int chunkSize) {
+        this.postRepository = postRepository;
+        this.postMapper = postMapper;
+        this.categoryService = categoryService;
+        this.tagService = tagService;
+        this.postSearchIndex = postSearchIndex;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reader = objectMapper.readerFor(PostCreateDTO.class);
+        this.writer = objectMapper.writerFor(PostImportResultDTO.class);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Читает записи из {@code in} и пишет в {@code out} по {@link PostImportResultDTO} на непустую строку,
+     * в порядке ввода. Плохая запись падает сама по себе; при сбое транзакции падает вся порция, импорт идёт дальше.
+     */
+    public void importPosts(InputStream in, OutputStream out) throws IOException {
+        BufferedReader lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Writer results = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        List<Record> chunk = new ArrayList<>(chunkSize);
+        long lineNumber = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            chunk.add(parse(lineNumber, line));
+            if (chunk.size() >= chunkSize) {
+                writeResults(importChunk(chunk), results);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeResults(importChunk(chunk), results);
+        }
+        results.flush();
+    }
+
+    private Record parse(long line, String json) {
+        try {
+            PostCreateDTO dto = reader.readValue(json);
+            return new Record(line, dto, validate(dto));
+        } catch (JsonProcessingException ex) {
+            return new Record(line, null, "Malformed JSON: " + ex.getOriginalMessage());
+        }
+    }
+
+    private static String validate(PostCreateDTO dto) {
+        if (dto == null) {
+            return "Empty record";
+        }
+        if (dto.getTitle() == null || dto.getTitle().isBlank()) {
+            return "title is required";
+        }
+        if (dto.getCategory() == null || dto.getCategory().getCategoryName() == null) {
+            return "category is required";
+        }
+        return null;
+    }
+
+    private List<PostImportResultDTO> importChunk(List<Record> chunk) {
+        List<Post> saved;
+        try {
+            saved = transactionTemplate.execute(status -> persist(chunk));
+        } catch (RuntimeException ex) {
+            log.warn("Bulk import chunk of {} records starting at line {} failed", chunk.size(), chunk.get(0).line, ex);
+            entityManager.clear();
+            return chunk.stream()
+                    .map(record -> new PostImportResultDTO(record.line, null,
+                            record.error != null ? record.error : "Chunk failed: " + ex.getMessage()))
+                    .toList();
+        }
+        List<PostImportResultDTO> results = new ArrayList<>(chunk.size());
+        for (Record record : chunk) {
+            if (record.post != null) {
+                postSearchIndex.index(record.post.getId(), record.post.getTitle(), record.post.getContent());
+                results.add(new PostImportResultDTO(record.line, record.post.getId(), null));
+            } else {
+                results.add(new PostImportResultDTO(record.line, null, record.error));
+            }
+        }
+        log.debug("Imported {} of {} posts", saved.size(), chunk.size());
+        return results;
+    }
+
+    // Одна транзакция на пачку: категории и теги — одним набором запросов, посты — батчами JDBC
+    private List<Post> persist(List<Record> chunk) {
+        Map<String, Category> categories = new HashMap<>();
+        Set<String> tagNames = new LinkedHashSet<>();
+        for (Record record : chunk) {
+            if (record.error != null) {
+                continue;
+            }
+            String categoryName = record.dto.getCategory().getCategoryName();
+            Category category = categories.computeIfAbsent(Category.normalizeName(categoryName), key -> findCategory(categoryName));
+            if (category == null) {
+                record.error = "Category not found";
+                continue;
+            }
+            if (record.dto.getTags() != null) {
+                record.dto.getTags().stream().filter(Objects::nonNull).forEach(tagNames::add);
+            }
+        }
+        Map<String, Tag> tags = tagService.resolveTags(tagNames);
+
+        List<Post> posts = new ArrayList<>(chunk.size());
+        for (Record record : chunk) {
+            record.post = null;
+            if (record.error != null) {
+                continue;
+            }
+            Post post = postMapper.fromCreateDTO(record.dto);
+            post.setCategory(categories.get(Category.normalizeName(record.dto.getCategory().getCategoryName())));
+            if (record.dto.getTags() != null) {
+                post.setTags(record.dto.getTags().stream()
+                        .filter(Objects::nonNull)
+                        .distinct()
+                        .map(tags::get)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toCollection(ArrayList::new)));
+            }
+            record.post = post;
+            posts.add(post);
+        }
+        List<Post> saved = postRepository.saveAll(posts);
+        // saveAll возвращает сохранённые экземпляры в том же порядке; id берём у них
+        int index = 0;
+        for (Record record : chunk) {
+            if (record.post != null) {
+                record.post = saved.get(index++);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return saved;
+    }
+
+    private Category findCategory(String categoryName) {
+        try {
+            return categoryService.getCategory(categoryName);
+        } catch (RuntimeException ex) {
+            return null;
+        }
+    }
+
+    private void writeResults(List<PostImportResultDTO> results, Writer out) throws IOException {
+        for (PostImportResultDTO result : results) {
+            out.write(writer.writeValueAsString(result));
+            out.write('\n');
+        }
+        // Клиент видит результаты по мере коммита пачек, а не в конце импорта
+        out.flush();
+    }
+
+    private static final class Record {
+        private final long line;
+        private final PostCreateDTO dto;
+        private String error;
+        private Post post;
+
+        private Record(long line, PostCreateDTO dto, String error) {
+            this.line = line;
+            this.dto = dto;
+            this.error = error;
+        }
+    }
+}
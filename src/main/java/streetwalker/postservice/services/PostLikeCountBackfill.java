@@ -0,0 +1,38 @@
+package streetwalker.postservice.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import streetwalker.postservice.repositories.PostRepository;
+
+/**
+ * Заполняет like_count из post_like для постов, записанных до появления счётчика: без этого они
+ * показывают 0 лайков, а инкременты like_count + ? считают от неверной базы. Включается один раз
+ * после обновления свойством {@code posts.likes.backfill-like-count}.
+ */
+@Component
+public class PostLikeCountBackfill {
+    private static final Logger log = LoggerFactory.getLogger(PostLikeCountBackfill.class);
+
+    private final PostRepository postRepository;
+    private final boolean enabled;
+
+    public PostLikeCountBackfill(PostRepository postRepository,
+                                 @Value("${posts.likes.backfill-like-count:false}") boolean enabled) {
+        this.postRepository = postRepository;
+        this.enabled = enabled;
+    }
+
+    // Проход по всей таблице — в фоне, не задерживая старт
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            log.info("Backfilled like_count of {} posts", postRepository.backfillLikeCounts());
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package streetwalker.postservice.services;
+
+import jakarta.annotation.PreDestroy;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import streetwalker.postservice.repositories.PostLikeRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Индекс лайкеров в памяти: сжатый Roaring bitmap id авторов на пост. Строится лениво из post_like
+ * в фоновом потоке, обновляется лайками и вытесняется по LRU сверх {@code posts.likes.bitmap.max-bytes}.
+ * Лайк сообщается только после коммита, поэтому загрузка не применит изменение, которого нет в таблице.
+ */
+@Component
+public class PostLikerIndex {
+    private static final Logger log = LoggerFactory.getLogger(PostLikerIndex.class);
+    // Грубая оценка прироста bitmap на один добавленный id
+    private static final int BYTES_PER_ADD = 2;
+
+    private final PostLikeRepository postLikeRepository;
+    private final long maxBytes;
+    private final int loadsPerRequest;
+    private final boolean asyncLoad;
+    // Bitmap строятся вне потока запроса; очередь ограничена loading и loadsPerRequest
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("liker-bitmap-load").daemon().factory());
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Long, Entry> likers = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<Long, PendingLoad> loading = new HashMap<>();
+    // Пишется под lock, читается без него в usedBytes()
+    private volatile long usedBytes;
+
+    public PostLikerIndex(PostLikeRepository postLikeRepository,
+                          @Value("${posts.likes.bitmap.max-bytes:67108864}") long maxBytes,
+                          @Value("${posts.likes.bitmap.loads-per-request:4}") int loadsPerRequest,
+                          @Value("${posts.likes.bitmap.async-load:true}") boolean asyncLoad) {
+        this.postLikeRepository = postLikeRepository;
+        this.maxBytes = maxBytes;
+        this.loadsPerRequest = loadsPerRequest;
+        this.asyncLoad = asyncLoad;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loader.shutdownNow();
+    }
+
+    /**
+     * Лайкал ли автор посты, в порядке запроса. Посты без bitmap — одним IN-запросом,
+     * нескольким из них bitmap строится на будущее.
+     */
+    public Map<Long, Boolean> likedBy(Long authorId, List<Long> postIds) {
+        Map<Long, Boolean> result = new LinkedHashMap<>();
+        List<Long> unresolved = new ArrayList<>();
+        lock.lock();
+        try {
+            for (Long postId : postIds) {
+                Entry entry = likers.get(postId);
+                if (entry != null) {
+                    result.put(postId, entry.bitmap.contains(authorId));
+                } else if (result.putIfAbsent(postId, false) == null) {
+                    unresolved.add(postId);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (!unresolved.isEmpty()) {
+            Set<Long> liked = new HashSet<>(postLikeRepository.findLikedPostIds(authorId, unresolved));
+            unresolved.forEach(postId -> result.put(postId, liked.contains(postId)));
+            unresolved.stream().limit(loadsPerRequest).forEach(this::scheduleLoad);
+        }
+        return result;
+    }
+
+    public void onLike(Long postId, Long authorId) {
+        update(postId, authorId, true);
+    }
+
+    public void onUnlike(Long postId, Long authorId) {
+        update(postId, authorId, false);
+    }
+
+    public void evict(Long postId) {
+        lock.lock();
+        try {
+            Entry entry = likers.remove(postId);
+            if (entry != null) {
+                usedBytes -= entry.bytes;
+            }
+            loading.remove(postId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isLoaded(Long postId) {
+        lock.lock();
+        try {
+            return likers.containsKey(postId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long usedBytes() {
+        return usedBytes;
+    }
+
+    private void update(Long postId, Long authorId, boolean liked) {
+        lock.lock();
+        try {
+            Entry entry = likers.get(postId);
+            if (entry != null) {
+                if (liked) {
+                    entry.bitmap.addLong(authorId);
+                    entry.bytes += BYTES_PER_ADD;
+                    usedBytes += BYTES_PER_ADD;
+                    evictOverBudget();
+                } else {
+                    entry.bitmap.removeLong(authorId);
+                }
+            }
+            PendingLoad pending = loading.get(postId);
+            if (pending != null) {
+                pending.record(authorId, liked);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void scheduleLoad(Long postId) {
+        lock.lock();
+        try {
+            if (likers.containsKey(postId) || loading.containsKey(postId)) {
+                return;
+            }
+            loading.put(postId, new PendingLoad());
+        } finally {
+            lock.unlock();
+        }
+        if (!asyncLoad) {
+            load(postId);
+            return;
+        }
+        try {
+            loader.execute(() -> load(postId));
+        } catch (RejectedExecutionException ex) {
+            // Остановка приложения: bitmap просто не будет построен
+            abandon(postId);
+        }
+    }
+
+    private void load(Long postId) {
+        Roaring64Bitmap bitmap = new Roaring64Bitmap();
+        try {
+            postLikeRepository.forEachAuthorId(postId, bitmap::addLong);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to build liker bitmap for post {}", postId, ex);
+            abandon(postId);
+            return;
+        }
+        bitmap.runOptimize();
+
+        lock.lock();
+        try {
+            // Лайки и анлайки, пришедшие во время загрузки, применяются поверх снимка из БД
+            PendingLoad pending = loading.remove(postId);
+            if (pending == null) {
+                // evict во время загрузки: снимок мог устареть
+                return;
+            }
+            pending.applyTo(bitmap);
+            Entry entry = new Entry(bitmap, bitmap.getLongSizeInBytes());
+            likers.put(postId, entry);
+            usedBytes += entry.bytes;
+            evictOverBudget();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void abandon(Long postId) {
+        lock.lock();
+        try {
+            loading.remove(postId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evictOverBudget() {
+        Iterator<Entry> eldest = likers.values().iterator();
+        while (usedBytes > maxBytes && eldest.hasNext()) {
+            usedBytes -= eldest.next().bytes;
+            eldest.remove();
+        }
+    }
+
+    private static final class Entry {
+        private final Roaring64Bitmap bitmap;
+        private long bytes;
+
+        private Entry(Roaring64Bitmap bitmap, long bytes) {
+            this.bitmap = bitmap;
+            this.bytes = bytes;
+        }
+    }
+
+    private static final class PendingLoad {
+        private final Roaring64Bitmap added = new Roaring64Bitmap();
+        private final Roaring64Bitmap removed = new Roaring64Bitmap();
+
+        private void record(long authorId, boolean liked) {
+            if (liked) {
+                added.addLong(authorId);
+                removed.removeLong(authorId);
+            } else {
+                removed.addLong(authorId);
+                added.removeLong(authorId);
+            }
+        }
+
+        private void applyTo(Roaring64Bitmap bitmap) {
+            bitmap.or(added);
+            bitmap.andNot(removed);
+        }
+    }
+}
@@ -0,0 +1,496 @@
+package streetwalker.postservice.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import streetwalker.postservice.dto.post.PostSearchHitDTO;
+import streetwalker.postservice.dto.post.PostSearchRow;
+import streetwalker.postservice.repositories.PostRepository;
+import streetwalker.postservice.util.LongIntHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс по заголовку и тексту постов с ранжированием BM25 (заголовок с весом
+ * {@code posts.search.title-boost}). Обновление и удаление помечают старый ordinal, индекс сжимается,
+ * когда таких больше четверти. Запрос идёт document-at-a-time с отсечением MaxScore.
+ * Синхронизируется из {@link PostService}, при старте перестраивается из БД.
+ */
+@Component
+public class PostSearchIndex {
+    private static final Logger log = LoggerFactory.getLogger(PostSearchIndex.class);
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MAX_QUERY_TERMS = 16;
+    private static final int MIN_TOMBSTONES_TO_COMPACT = 10_000;
+
+    private final PostRepository postRepository;
+    private final int titleBoost;
+    private final boolean rebuildOnStartup;
+    private final int rebuildBatchSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Segment segment = new Segment();
+    // Изменения, пришедшие во время перестроения; применяются к новому сегменту перед подменой
+    private List<PendingChange> pendingChanges;
+    private volatile boolean ready;
+
+    public PostSearchIndex(PostRepository postRepository,
+                           @Value("${posts.search.title-boost:3}") int titleBoost,
+                           @Value("${posts.search.rebuild-on-startup:true}") boolean rebuildOnStartup,
+                           @Value("${posts.search.rebuild-batch-size:1000}") int rebuildBatchSize) {
+        this.postRepository = postRepository;
+        this.titleBoost = titleBoost;
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.rebuildBatchSize = rebuildBatchSize;
+    }
+
+    // Перестроение не держит старт приложения: выполняется в applicationTaskExecutor
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (rebuildOnStartup) {
+            rebuild();
+        } else {
+            ready = true;
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(Long postId, String title, String content) {
+        lock.writeLock().lock();
+        try {
+            segment.add(postId, title, content, titleBoost);
+            if (pendingChanges != null) {
+                pendingChanges.add(new PendingChange(postId, title, content, false));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long postId) {
+        lock.writeLock().lock();
+        try {
+            segment.remove(postId);
+            if (pendingChanges != null) {
+                pendingChanges.add(new PendingChange(postId, null, null, true));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<PostSearchHitDTO> search(String query, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.analyze(query)));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        if (terms.size() > MAX_QUERY_TERMS) {
+            terms = terms.subList(0, MAX_QUERY_TERMS);
+        }
+        lock.readLock().lock();
+        try {
+            return segment.search(terms, limit, titleBoost);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return segment.liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Строит новый сегмент из таблицы постов и подменяет им старый. Поиск пока идёт по старому,
+     * записи, сделанные во время перестроения, переигрываются на новом.
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                return;
+            }
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Segment rebuilt = new Segment();
+        try {
+            Long lastId = 0L;
+            List<PostSearchRow> rows;
+            do {
+                rows = postRepository.findSearchRows(lastId, Limit.of(rebuildBatchSize));
+                for (PostSearchRow row : rows) {
+                    rebuilt.add(row.getId(), row.getTitle(), row.getContent(), titleBoost);
+                    lastId = row.getId();
+                }
+            } while (rows.size() == rebuildBatchSize);
+        } catch (RuntimeException ex) {
+            log.error("Failed to rebuild post search index", ex);
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (PendingChange change : pendingChanges) {
+                if (change.deleted) {
+                    rebuilt.remove(change.postId);
+                } else {
+                    rebuilt.add(change.postId, change.title, change.content, titleBoost);
+                }
+            }
+            pendingChanges = null;
+            segment = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Post search index rebuilt: {} posts, {} terms", rebuilt.liveCount, rebuilt.postings.size());
+    }
+
+    private static final class Segment {
+        private final Map<String, Postings> postings = new HashMap<>();
+        // Удалённые id остаются в карте до compact(); живость ординала проверяется по deleted
+        private LongIntHashMap ordinals = new LongIntHashMap(1024);
+        private long[] postIds = new long[1024];
+        private int[] lengths = new int[1024];
+        private String[] titles = new String[1024];
+        private final BitSet deleted = new BitSet();
+        private int size;
+        private int liveCount;
+        private long totalLength;
+
+        private void add(Long postId, String title, String content, int titleBoost) {
+            remove(postId);
+            Map<String, int[]> frequencies = new HashMap<>();
+            List<String> titleTerms = TextAnalyzer.analyze(title);
+            List<String> contentTerms = TextAnalyzer.analyze(content);
+            titleTerms.forEach(term -> frequencies.computeIfAbsent(term, t -> new int[2])[0]++);
+            contentTerms.forEach(term -> frequencies.computeIfAbsent(term, t -> new int[2])[1]++);
+
+            int ord = size++;
+            if (ord == postIds.length) {
+                int capacity = postIds.length * 2;
+                postIds = Arrays.copyOf(postIds, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+                titles = Arrays.copyOf(titles, capacity);
+            }
+            postIds[ord] = postId;
+            lengths[ord] = titleBoost * titleTerms.size() + contentTerms.size();
+            titles[ord] = title;
+            ordinals.put(postId, ord);
+            liveCount++;
+            totalLength += lengths[ord];
+            frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new Postings()).add(ord, tf[0], tf[1]));
+        }
+
+        private void remove(Long postId) {
+            int ord = ordinals.get(postId, -1);
+            if (ord < 0 || deleted.get(ord)) {
+                return;
+            }
+            deleted.set(ord);
+            titles[ord] = null;
+            liveCount--;
+            totalLength -= lengths[ord];
+            int tombstones = size - liveCount;
+            if (tombstones >= MIN_TOMBSTONES_TO_COMPACT && tombstones > liveCount / 4) {
+                compact();
+            }
+        }
+
+        private List<PostSearchHitDTO> search(List<String> terms, int limit, int titleBoost) {
+            if (liveCount == 0 || limit <= 0) {
+                return List.of();
+            }
+            double avgLength = Math.max(1.0, (double) totalLength / liveCount);
+            Postings[] lists = new Postings[terms.size()];
+            double[] idfs = new double[terms.size()];
+            int count = 0;
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                // df включает ещё не уплотнённые удалённые документы — погрешность ограничена порогом compact()
+                int df = Math.min(list.size, liveCount);
+                double idf = Math.log(1 + (liveCount - df + 0.5) / (df + 0.5));
+                // Списки по возрастанию верхней границы вклада idf * (K1 + 1): слабые первыми уходят в несущественные
+                int i = count++;
+                while (i > 0 && idfs[i - 1] > idf) {
+                    lists[i] = lists[i - 1];
+                    idfs[i] = idfs[i - 1];
+                    i--;
+                }
+                lists[i] = list;
+                idfs[i] = idf;
+            }
+            if (count == 0) {
+                return List.of();
+            }
+            // bounds[i] — сумма верхних границ списков 0..i
+            double[] bounds = new double[count];
+            for (int i = 0; i < count; i++) {
+                bounds[i] = (i == 0 ? 0 : bounds[i - 1]) + idfs[i] * (K1 + 1);
+            }
+
+            int[] positions = new int[count];
+            TopHits top = new TopHits(Math.min(limit, liveCount));
+            // Списки 0..firstEssential-1 сами кандидатов не дают: их суммарный вклад не пробьёт порог top-k
+            int firstEssential = 0;
+            while (firstEssential < count) {
+                int ord = Integer.MAX_VALUE;
+                for (int i = firstEssential; i < count; i++) {
+                    if (positions[i] < lists[i].size) {
+                        ord = Math.min(ord, lists[i].docs[positions[i]]);
+                    }
+                }
+                if (ord == Integer.MAX_VALUE) {
+                    break;
+                }
+                double score = 0;
+                for (int i = firstEssential; i < count; i++) {
+                    Postings list = lists[i];
+                    if (positions[i] < list.size && list.docs[positions[i]] == ord) {
+                        score += termScore(list.freqs[positions[i]], idfs[i], lengths[ord], avgLength, titleBoost);
+                        positions[i]++;
+                    }
+                }
+                if (deleted.get(ord)) {
+                    continue;
+                }
+                for (int i = firstEssential - 1; i >= 0 && score + bounds[i] > top.threshold(); i--) {
+                    Postings list = lists[i];
+                    positions[i] = list.advance(positions[i], ord);
+                    if (positions[i] < list.size && list.docs[positions[i]] == ord) {
+                        score += termScore(list.freqs[positions[i]], idfs[i], lengths[ord], avgLength, titleBoost);
+                    }
+                }
+                if (top.offer(ord, score)) {
+                    while (firstEssential < count && bounds[firstEssential] <= top.threshold()) {
+                        firstEssential++;
+                    }
+                }
+            }
+
+            top.sortDescending();
+            List<PostSearchHitDTO> hits = new ArrayList<>(top.size);
+            for (int i = 0; i < top.size; i++) {
+                int ord = top.ords[i];
+                hits.add(new PostSearchHitDTO(postIds[ord], titles[ord], top.scores[i]));
+            }
+            return hits;
+        }
+
+        private static double termScore(int packed, double idf, int length, double avgLength, int titleBoost) {
+            double tf = titleBoost * (packed >>> 16) + (packed & 0xFFFF);
+            double norm = K1 * (1 - B + B * length / avgLength);
+            return idf * tf * (K1 + 1) / (tf + norm);
+        }
+
+        // Переназначает ординалы без дыр и выкидывает удалённые документы из всех posting-листов
+        private void compact() {
+            int[] remap = new int[size];
+            LongIntHashMap live = new LongIntHashMap(liveCount);
+            int next = 0;
+            for (int ord = 0; ord < size; ord++) {
+                if (deleted.get(ord)) {
+                    remap[ord] = -1;
+                } else {
+                    remap[ord] = next;
+                    postIds[next] = postIds[ord];
+                    lengths[next] = lengths[ord];
+                    titles[next] = titles[ord];
+                    live.put(postIds[next], next);
+                    next++;
+                }
+            }
+            Arrays.fill(titles, next, size, null);
+            ordinals = live;
+            size = next;
+            deleted.clear();
+            postings.values().removeIf(list -> list.compact(remap) == 0);
+        }
+    }
+
+    private static final class Postings {
+        private int[] docs = new int[4];
+        // tf в заголовке в старших 16 битах, tf в тексте — в младших
+        private int[] freqs = new int[4];
+        private int size;
+
+        private void add(int ord, int titleTf, int contentTf) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = ord;
+            freqs[size] = (Math.min(titleTf, 0xFFFF) << 16) | Math.min(contentTf, 0xFFFF);
+            size++;
+        }
+
+        // Первая позиция не раньше from с ординалом >= target: галопом, затем бинарным поиском
+        private int advance(int from, int target) {
+            int low = from;
+            int high = from;
+            int step = 1;
+            while (high < size && docs[high] < target) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            high = Math.min(high, size);
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (docs[mid] < target) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int compact(int[] remap) {
+            int next = 0;
+            for (int i = 0; i < size; i++) {
+                int ord = remap[docs[i]];
+                if (ord >= 0) {
+                    docs[next] = ord;
+                    freqs[next] = freqs[i];
+                    next++;
+                }
+            }
+            size = next;
+            return size;
+        }
+    }
+
+    /**
+     * Ограниченная min-куча (score, ordinal) на примитивных массивах. В корне самый слабый результат:
+     * меньший score, при равенстве больший ordinal, чтобы выигрывал более старый пост.
+     */
+    private static final class TopHits {
+        private final double[] scores;
+        private final int[] ords;
+        private int size;
+
+        private TopHits(int capacity) {
+            scores = new double[capacity];
+            ords = new int[capacity];
+        }
+
+        // Счёт, который нужно строго превысить, чтобы попасть в top-k
+        private double threshold() {
+            return size == scores.length ? scores[0] : Double.NEGATIVE_INFINITY;
+        }
+
+        // Ординалы приходят по возрастанию, поэтому равный счёт более позднего документа не вытесняет корень
+        private boolean offer(int ord, double score) {
+            if (size < scores.length) {
+                scores[size] = score;
+                ords[size] = ord;
+                siftUp(size++);
+                return true;
+            }
+            if (score <= scores[0]) {
+                return false;
+            }
+            scores[0] = score;
+            ords[0] = ord;
+            siftDown(0, size);
+            return true;
+        }
+
+        // Пирамидальная сортировка на месте: слабейший корень уходит в конец, лучший результат — в позиции 0
+        private void sortDescending() {
+            for (int end = size - 1; end > 0; end--) {
+                swap(0, end);
+                siftDown(0, end);
+            }
+        }
+
+        private boolean weaker(int a, int b) {
+            return scores[a] < scores[b] || (scores[a] == scores[b] && ords[a] > ords[b]);
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!weaker(index, parent)) {
+                    return;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index, int end) {
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= end) {
+                    return;
+                }
+                if (child + 1 < end && weaker(child + 1, child)) {
+                    child++;
+                }
+                if (!weaker(child, index)) {
+                    return;
+                }
+                swap(index, child);
+                index = child;
+            }
+        }
+
+        private void swap(int a, int b) {
+            double score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+            int ord = ords[a];
+            ords[a] = ords[b];
+            ords[b] = ord;
+        }
+    }
+
+    private static final class PendingChange {
+        private final Long postId;
+        private final String title;
+        private final String content;
+        private final boolean deleted;
+
+        private PendingChange(Long postId, String title, String content, boolean deleted) {
+            this.postId = postId;
+            this.title = title;
+            this.content = content;
+            this.deleted = deleted;
+        }
+    }
+}
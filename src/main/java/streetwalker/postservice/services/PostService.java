@@ -1,37 +1,75 @@
 package streetwalker.postservice.services;
 
+import jakarta.persistence.Tuple;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import streetwalker.postservice.dto.comment.CommentCreateDTO;
 import streetwalker.postservice.dto.comment.CommentDTO;
+import streetwalker.postservice.dto.comment.CommentTreeDTO;
 import streetwalker.postservice.dto.comment.CommentUpdateDTO;
+import streetwalker.postservice.dto.post.PostBatchDTO;
 import streetwalker.postservice.dto.post.PostCreateDTO;
 import streetwalker.postservice.dto.post.PostDTO;
+import streetwalker.postservice.dto.post.PostSearchHitDTO;
+import streetwalker.postservice.dto.post.PostSliceDTO;
+import streetwalker.postservice.dto.post.PostSummary;
+import streetwalker.postservice.dto.post.PostTagRow;
 import streetwalker.postservice.dto.postlike.PostLikeDTO;
+import streetwalker.postservice.dto.postlike.PostLikeStatusRequestDTO;
 import streetwalker.postservice.dto.post.PostUpdateDTO;
+import streetwalker.postservice.dto.tag.TagDTO;
 import streetwalker.postservice.mappers.PostMapper;
 import streetwalker.postservice.models.*;
+import streetwalker.postservice.repositories.PostLikeRepository;
 import streetwalker.postservice.repositories.PostRepository;
 
-import java.util.Optional;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 
 @Service
 public class PostService {
+    private static final int MAX_LIKE_STATUS_POSTS = 500;
+    private static final int MAX_SLICE_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final List<String> ETAG_ATTRIBUTES = List.of("version", "likeCount");
+
     private final PostRepository postRepository;
+    private final PostLikeRepository postLikeRepository;
     private final PostMapper postMapper;
     private final CategoryService categoryService;
     private final TagService tagService;
     private final CommentService commentService;
+    private final LikeBuffer likeBuffer;
+    private final PostLikerIndex postLikerIndex;
+    private final PostCache postCache;
+    private final PostSearchIndex postSearchIndex;
+    private final PostDeletionService postDeletionService;
 
-    public PostService(PostRepository postRepository, PostMapper postMapper, CategoryService categoryService, TagService tagService, CommentService commentService) {
+    public PostService(PostRepository postRepository, PostLikeRepository postLikeRepository, PostMapper postMapper, CategoryService categoryService, TagService tagService, CommentService commentService, LikeBuffer likeBuffer, PostLikerIndex postLikerIndex, PostCache postCache, PostSearchIndex postSearchIndex, PostDeletionService postDeletionService) {
         this.postRepository = postRepository;
+        this.postLikeRepository = postLikeRepository;
         this.postMapper = postMapper;
         this.categoryService = categoryService;
         this.tagService = tagService;
         this.commentService = commentService;
+        this.likeBuffer = likeBuffer;
+        this.postLikerIndex = postLikerIndex;
+        this.postCache = postCache;
+        this.postSearchIndex = postSearchIndex;
+        this.postDeletionService = postDeletionService;
     }
     public PostDTO create(PostCreateDTO postDTO) throws RuntimeException {
         if (postDTO != null){
@@ -41,59 +79,295 @@ public class PostService {
             post.setTags(tagService.proceedTagsWhenCreatingPost(postDTO.getTags()));
 
 
-            postRepository.save(post);
-            return postMapper.toDTO(post);
+            Post saved = postRepository.save(post);
+            postSearchIndex.index(saved.getId(), saved.getTitle(), saved.getContent());
+            return postMapper.toDTO(saved);
         }
         return null;
     }
+    // Транзакция нужна для ленивых tags и comments при промахе кэша: у вызовов из gRPC и @Async нет open-session-in-view
+    @Transactional(readOnly = true)
     public PostDTO getPost(Long id) throws RuntimeException {
-        return postMapper.toDTO(postRepository.findById(id).orElseThrow(()-> new RuntimeException("Post not found")));
+        return withPendingLikes(postCache.get(id, key ->
+                postMapper.toDTO(postRepository.findById(key).orElseThrow(()-> new RuntimeException("Post not found")))));
     }
     //связать с юзерсервисом, добавить поиск по сообществам и юзернеймам
+    // Страница собирается из проекции (пост + категория + like_count) и одного запроса тегов по id страницы
+    @Transactional(readOnly = true)
     public Page<PostDTO> getPosts(Pageable pageable, String title) throws RuntimeException {
-        return postRepository.findPostByTitleContainingIgnoreCase(pageable, title).map(postMapper::toDTO);
+        Page<PostSummary> page = postRepository.findSummaries(title != null ? title : "", pageable);
+        Map<Long, List<TagDTO>> tags = findTags(page.getContent());
+        return page.map(summary -> withPendingLikes(postMapper.fromSummary(summary, tags.getOrDefault(summary.getId(), new ArrayList<>()))));
+    }
+
+    // Сначала кэш, остальное — два IN-запроса (проекция постов и их теги) на весь батч
+    @Transactional(readOnly = true)
+    public PostBatchDTO getPosts(Collection<Long> ids) throws RuntimeException {
+        if (ids == null || ids.isEmpty()) {
+            return new PostBatchDTO(List.of(), List.of());
+        }
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        if (requested.size() > MAX_BATCH_SIZE) {
+            throw new RuntimeException("Too many post ids, max " + MAX_BATCH_SIZE);
+        }
+
+        Map<Long, PostDTO> found = new HashMap<>();
+        List<Long> uncached = new ArrayList<>();
+        for (Long id : requested) {
+            PostDTO cached = postCache.getIfPresent(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                uncached.add(id);
+            }
+        }
+        if (!uncached.isEmpty()) {
+            List<PostSummary> summaries = postRepository.findSummariesByIds(uncached);
+            Map<Long, List<TagDTO>> tags = findTags(summaries);
+            for (PostSummary summary : summaries) {
+                PostDTO post = postMapper.fromSummary(summary, tags.getOrDefault(summary.getId(), new ArrayList<>()));
+                postCache.put(post);
+                found.put(summary.getId(), post);
+            }
+        }
+
+        List<PostDTO> posts = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            PostDTO post = found.get(id);
+            if (post != null) {
+                posts.add(withPendingLikes(post));
+            } else {
+                missing.add(id);
+            }
+        }
+        return new PostBatchDTO(posts, missing);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<PostDTO> getPosts(Pageable pageable, String title, PostFields fields) throws RuntimeException {
+        if (fields == null) {
+            return getPosts(pageable, title);
+        }
+        String filter = title != null ? title : "";
+        List<PostDTO> posts = toSparseDTOs(postRepository.findPostAttributes(fields.attributes(), filter, pageable), fields);
+        return PageableExecutionUtils.getPage(posts, pageable, () -> postRepository.countByTitleContainingIgnoreCase(filter));
+    }
+
+    // Лента в режиме курсора: seek по (created_at, id), limit + 1 строка вместо count
+    @Transactional(readOnly = true)
+    public PostSliceDTO getPostsAfter(String after, int limit, String title) throws RuntimeException {
+        return getPostsAfter(after, limit, title, null);
+    }
+
+    @Transactional(readOnly = true)
+    public PostSliceDTO getPostsAfter(String after, int limit, String title, PostFields fields) throws RuntimeException {
+        if (limit < 1 || limit > MAX_SLICE_SIZE) {
+            throw new RuntimeException("limit must be between 1 and " + MAX_SLICE_SIZE);
+        }
+        String filter = title != null ? title : "";
+        PostCursor cursor = after == null || after.isEmpty() ? null : PostCursor.decode(after);
+        if (fields != null) {
+            return sparseSliceAfter(cursor, limit, filter, fields);
+        }
+        List<PostSummary> rows;
+        if (cursor == null) {
+            rows = postRepository.findFirstSummaries(filter, Limit.of(limit + 1));
+        } else {
+            rows = postRepository.findSummariesAfter(filter, cursor.getCreatedAt(), cursor.getId(), Limit.of(limit + 1));
+        }
+        boolean hasNext = rows.size() > limit;
+        List<PostSummary> content = hasNext ? rows.subList(0, limit) : rows;
+        Map<Long, List<TagDTO>> tags = findTags(content);
+        List<PostDTO> posts = content.stream()
+                .map(summary -> withPendingLikes(postMapper.fromSummary(summary, tags.getOrDefault(summary.getId(), new ArrayList<>()))))
+                .toList();
+        String nextCursor = null;
+        if (hasNext) {
+            PostSummary last = content.get(content.size() - 1);
+            nextCursor = new PostCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new PostSliceDTO(posts, nextCursor, hasNext);
+    }
+
+    private PostSliceDTO sparseSliceAfter(PostCursor cursor, int limit, String filter, PostFields fields) {
+        // createdAt нужен для следующего курсора, даже если его нет в fields
+        Set<String> attributes = new LinkedHashSet<>(fields.attributes());
+        attributes.add("createdAt");
+        List<Tuple> rows = postRepository.findPostAttributesAfter(attributes, filter,
+                cursor != null ? cursor.getCreatedAt() : null, cursor != null ? cursor.getId() : null, Limit.of(limit + 1));
+        boolean hasNext = rows.size() > limit;
+        List<Tuple> content = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            Tuple last = content.get(content.size() - 1);
+            nextCursor = new PostCursor(last.get("createdAt", OffsetDateTime.class), last.get("id", Long.class)).encode();
+        }
+        return new PostSliceDTO(toSparseDTOs(content, fields), nextCursor, hasNext);
+    }
+
+    // Валидатор ленты для If-None-Match: те же строки страницы, но только id, version и like_count (+ count),
+    // без категорий, тегов и маппинга; тег совпадает с PostETag.ofPage по полной странице
+    @Transactional(readOnly = true)
+    public String getPostsETag(Pageable pageable, String title, PostFields fields) throws RuntimeException {
+        String filter = title != null ? title : "";
+        List<PostDTO> rows = toETagRows(postRepository.findPostAttributes(ETAG_ATTRIBUTES, filter, pageable), fields);
+        return PostETag.ofPage(PageableExecutionUtils.getPage(rows, pageable,
+                () -> postRepository.countByTitleContainingIgnoreCase(filter)), fields);
+    }
+
+    @Transactional(readOnly = true)
+    public String getPostsAfterETag(String after, int limit, String title, PostFields fields) throws RuntimeException {
+        if (limit < 1 || limit > MAX_SLICE_SIZE) {
+            throw new RuntimeException("limit must be between 1 and " + MAX_SLICE_SIZE);
+        }
+        String filter = title != null ? title : "";
+        PostCursor cursor = after == null || after.isEmpty() ? null : PostCursor.decode(after);
+        List<String> attributes = new ArrayList<>(ETAG_ATTRIBUTES);
+        attributes.add("createdAt");
+        List<Tuple> rows = postRepository.findPostAttributesAfter(attributes, filter,
+                cursor != null ? cursor.getCreatedAt() : null, cursor != null ? cursor.getId() : null, Limit.of(limit + 1));
+        boolean hasNext = rows.size() > limit;
+        List<Tuple> content = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            Tuple last = content.get(content.size() - 1);
+            nextCursor = new PostCursor(last.get("createdAt", OffsetDateTime.class), last.get("id", Long.class)).encode();
+        }
+        return PostETag.ofSlice(toETagRows(content, fields), after, limit, nextCursor, fields);
+    }
+
+    // likes попадают в тег, только когда они есть в ответе — как у toSparseDTOs
+    private List<PostDTO> toETagRows(List<Tuple> rows, PostFields fields) {
+        List<PostDTO> posts = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            PostDTO post = new PostDTO();
+            post.setId(row.get("id", Long.class));
+            post.setVersion(row.get("version", Long.class));
+            if (fields == null || fields.includes(PostFields.LIKES)) {
+                post.setLikes(row.get("likeCount", Integer.class));
+                post = withPendingLikes(post);
+            }
+            posts.add(post);
+        }
+        return posts;
     }
 
     public PostDTO update(PostUpdateDTO postDTO) throws RuntimeException {
+        return update(postDTO, null);
+    }
+    // expectedVersion == null — обновление без проверки (нет If-Match или If-Match: *)
+    public PostDTO update(PostUpdateDTO postDTO, Long expectedVersion) throws RuntimeException {
         Post post = postRepository.findById(postDTO.getId()).orElseThrow(()-> new RuntimeException("Post not found"));
+        if (expectedVersion != null && !expectedVersion.equals(post.getVersion())) {
+            throw new PostVersionMismatchException(post.getId());
+        }
         postMapper.updateFromDTO(postDTO, post);
         post.setTags(tagService.proceedTagsWhenCreatingPost(postDTO.getTags()));
         post.setCategory(categoryService.getCategory( postDTO.getCategoryName()));
-        return postMapper.toDTO(postRepository.save(post));
+        Post saved;
+        try {
+            saved = postRepository.save(post);
+        } catch (ObjectOptimisticLockingFailureException ex) {
+            // Параллельное обновление между чтением и записью
+            throw new PostVersionMismatchException(post.getId());
+        }
+        postSearchIndex.index(saved.getId(), saved.getTitle(), saved.getContent());
+        PostDTO updated = postMapper.toDTO(saved);
+        postCache.put(updated);
+        return updated;
     }
-    public void delete(Long id) throws DataAccessException {
-        postRepository.deleteById(id);
+    // true — пост удалён, false — у поста много комментариев и лайков, он удаляется в фоне порциями
+    public boolean delete(Long id) throws DataAccessException {
+        boolean inBackground = postDeletionService.shouldDeleteInBackground(id);
+        if (inBackground) {
+            postDeletionService.deleteInChunks(id);
+        } else if (postRepository.deletePostCascade(id) == 0) {
+            throw new RuntimeException("Post not found");
+        }
+        postCache.invalidate(id);
+        postLikerIndex.evict(id);
+        postSearchIndex.remove(id);
+        return !inBackground;
     }
+    // Лайк и снятие лайка — один идемпотентный SQL-запрос без загрузки поста
+    @Transactional
     public void likePost(PostLikeDTO postLikeDTO) throws RuntimeException {
-        Post post = postRepository.findById(postLikeDTO.getPostId())
-                .orElseThrow(() -> new RuntimeException("Post not found"));
-
-        boolean alreadyLiked = post.getLikes().stream()
-                .anyMatch(like -> like.getId().getAuthorId().equals(postLikeDTO.getAuthorId()));
-
-        if (alreadyLiked) {
-            throw new RuntimeException("Already liked");
+        Long postId = postLikeDTO.getPostId();
+        if (likeBuffer.isEnabled()) {
+            requireExists(postId);
+            likeBuffer.like(postId, postLikeDTO.getAuthorId());
+            return;
         }
-
-        PostLike newLike = new PostLike(post, postLikeDTO.getAuthorId());
-        post.getLikes().add(newLike);
-        postRepository.save(post);
+        if (postLikeRepository.likeIfAbsent(postId, postLikeDTO.getAuthorId()) == 0) {
+            throw new RuntimeException(postRepository.existsById(postId) ? "Already liked" : "Post not found");
+        }
+        // Кэш и bitmap меняем только после коммита: при откате лайка не было, а до коммита его не видят другие запросы
+        // (и загрузка bitmap, которая проигрывает события поверх снимка post_like)
+        Long authorId = postLikeDTO.getAuthorId();
+        AfterCommit.run(() -> {
+            postLikerIndex.onLike(postId, authorId);
+            postCache.adjustLikes(postId, 1);
+        });
     }
 
+    @Transactional
     public void unlikePost(PostLikeDTO postLikeDTO) throws RuntimeException {
-        Post post = postRepository.findById(postLikeDTO.getPostId())
-                .orElseThrow(() -> new RuntimeException("Post not found"));
+        Long postId = postLikeDTO.getPostId();
+        if (likeBuffer.isEnabled()) {
+            requireExists(postId);
+            likeBuffer.unlike(postId, postLikeDTO.getAuthorId());
+            return;
+        }
+        if (postLikeRepository.unlikeIfPresent(postId, postLikeDTO.getAuthorId()) == 0) {
+            throw new RuntimeException(postRepository.existsById(postId) ? "Already unliked or never liked" : "Post not found");
+        }
+        Long authorId = postLikeDTO.getAuthorId();
+        AfterCommit.run(() -> {
+            postLikerIndex.onUnlike(postId, authorId);
+            postCache.adjustLikes(postId, -1);
+        });
+    }
 
-        Optional<PostLike> likeToRemove = post.getLikes().stream()
-                .filter(like -> like.getId().getAuthorId().equals(postLikeDTO.getAuthorId()))
-                .findFirst();
+    // Буфер пишет позже и молча отбросит лайк несуществующего поста, поэтому проверяем сразу;
+    // пост в кэше заведомо есть, запрос к БД нужен только при промахе
+    private void requireExists(Long postId) {
+        if (postCache.getIfPresent(postId) == null && !postRepository.existsById(postId)) {
+            throw new RuntimeException("Post not found");
+        }
+    }
 
-        if (likeToRemove.isEmpty()) {
-            throw new RuntimeException("Already unliked or never liked");
+    // Поиск идёт только по индексу в памяти, без обращения к БД
+    public List<PostSearchHitDTO> search(String query, int limit) throws RuntimeException {
+        if (query == null || query.isBlank()) {
+            throw new RuntimeException("q is required");
+        }
+        if (limit < 1 || limit > MAX_SLICE_SIZE) {
+            throw new RuntimeException("limit must be between 1 and " + MAX_SLICE_SIZE);
         }
+        return postSearchIndex.search(query, limit);
+    }
 
-        post.getLikes().remove(likeToRemove.get());
-        postRepository.save(post);
+    public Map<Long, Boolean> getLikeStatus(PostLikeStatusRequestDTO request) throws RuntimeException {
+        if (request.getAuthorId() == null) {
+            throw new RuntimeException("authorId is required");
+        }
+        if (request.getPostIds() == null || request.getPostIds().isEmpty()) {
+            return Map.of();
+        }
+        if (request.getPostIds().size() > MAX_LIKE_STATUS_POSTS) {
+            throw new RuntimeException("Too many post ids, max " + MAX_LIKE_STATUS_POSTS);
+        }
+        Long authorId = request.getAuthorId();
+        Map<Long, Boolean> status = postLikerIndex.likedBy(authorId, request.getPostIds());
+        if (likeBuffer.isEnabled()) {
+            status.replaceAll((postId, liked) -> {
+                Boolean pending = likeBuffer.pendingState(postId, authorId);
+                return pending != null ? pending : liked;
+            });
+        }
+        return status;
     }
 
     public Comment addComment(CommentCreateDTO commentDTO) throws RuntimeException {
@@ -101,5 +375,80 @@ public class PostService {
         return commentService.createComment(commentDTO, post);
     }
 
+    private Map<Long, List<TagDTO>> findTags(List<PostSummary> summaries) {
+        return findTagsByIds(summaries.stream().map(PostSummary::getId).toList());
+    }
+
+    private Map<Long, List<TagDTO>> findTagsByIds(List<Long> postIds) {
+        Map<Long, List<TagDTO>> tags = new HashMap<>();
+        if (postIds.isEmpty()) {
+            return tags;
+        }
+        for (PostTagRow row : postRepository.findTagRows(postIds)) {
+            tags.computeIfAbsent(row.getPostId(), id -> new ArrayList<>()).add(new TagDTO(row.getTagName(), row.getTagDescription()));
+        }
+        return tags;
+    }
+
+    // Только запрошенные колонки; теги — отдельным запросом и только если они в fields
+    private List<PostDTO> toSparseDTOs(List<Tuple> rows, PostFields fields) {
+        Map<Long, List<TagDTO>> tags = fields.includes(PostFields.TAGS)
+                ? findTagsByIds(rows.stream().map(row -> row.get("id", Long.class)).toList())
+                : Map.of();
+        List<PostDTO> posts = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            PostDTO post = new PostDTO();
+            post.setId(row.get("id", Long.class));
+            post.setVersion(row.get("version", Long.class));
+            if (fields.includes(PostFields.TITLE)) {
+                post.setTitle(row.get("title", String.class));
+            }
+            if (fields.includes(PostFields.CONTENT)) {
+                post.setContent(row.get("content", String.class));
+            }
+            if (fields.includes(PostFields.AUTHOR_ID)) {
+                post.setAuthorId(row.get("authorId", Long.class));
+            }
+            if (fields.includes(PostFields.TAGS)) {
+                post.setTags(tags.getOrDefault(post.getId(), new ArrayList<>()));
+            }
+            if (fields.includes(PostFields.CATEGORY)) {
+                post.setCategory(postMapper.summaryCategory(row.get("categoryName", String.class), row.get("categoryDescription", String.class)));
+            }
+            if (fields.includes(PostFields.CREATED_AT)) {
+                post.setCreatedAt(row.get("createdAt", OffsetDateTime.class));
+            }
+            if (fields.includes(PostFields.IS_UPDATED)) {
+                post.setIsUpdated(postMapper.isUpdated(row.get("createdAt", OffsetDateTime.class), row.get("updatedAt", OffsetDateTime.class)));
+            }
+            if (fields.includes(PostFields.LIKES)) {
+                post.setLikes(row.get("likeCount", Integer.class));
+                post = withPendingLikes(post);
+            }
+            posts.add(post);
+        }
+        return posts;
+    }
+
+    public CommentTreeDTO getCommentTree(Long postId) throws RuntimeException {
+        CommentTreeDTO tree = commentService.getCommentTree(postId);
+        // Пустое дерево — отдельно проверяем, что пост вообще существует
+        if (tree.getComments().isEmpty() && !postRepository.existsById(postId)) {
+            throw new RuntimeException("Post not found");
+        }
+        return tree;
+    }
 
+    private PostDTO withPendingLikes(PostDTO postDTO) {
+        if (likeBuffer.isEnabled() && postDTO != null && postDTO.getId() != null) {
+            long pending = likeBuffer.pendingDelta(postDTO.getId());
+            if (pending != 0) {
+                int likes = postDTO.getLikes() != null ? postDTO.getLikes() : 0;
+                PostDTO merged = postMapper.copy(postDTO);
+                merged.setLikes((int) Math.max(0, likes + pending));
+                return merged;
+            }
+        }
+        return postDTO;
+    }
 }
@@ -0,0 +1,8 @@
+package streetwalker.postservice.services;
+
+// Пост изменился с момента чтения клиентом (If-Match не совпал); контроллер отвечает 412
+public class PostVersionMismatchException extends RuntimeException {
+    public PostVersionMismatchException(Long postId) {
+        super("Post " + postId + " was modified, reload it and retry");
+    }
+}
@@ -5,19 +5,60 @@ import streetwalker.postservice.dto.tag.TagDTO;
 import streetwalker.postservice.models.Tag;
 import streetwalker.postservice.repositories.TagRepository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 public class TagService {
+    private static final String DEFAULT_DESCRIPTION = "description";
+
     private final TagRepository tagRepository;
 
     public TagService(TagRepository tagRepository) {
         this.tagRepository = tagRepository;
     }
+
+    // Не больше трёх запросов на пост (выборка, upsert недостающих, выборка вставленных), в установившемся режиме — ни одного
     public List<Tag> proceedTagsWhenCreatingPost(List<String> tags) {
         if (tags == null) return null;
-        return tags.stream().map(tagName -> tagRepository.findTagByTagName(tagName).orElseGet(() -> tagRepository.save(new Tag(null, tagName, "description")))).toList();
+        Set<String> names = new LinkedHashSet<>(tags.stream().filter(Objects::nonNull).toList());
+        if (names.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<String, Tag> byName = resolveTags(names);
+
+        List<Tag> result = new ArrayList<>(names.size());
+        for (String name : names) {
+            Tag tag = byName.get(name);
+            if (tag == null) {
+                throw new RuntimeException("Failed to resolve tag " + name);
+            }
+            result.add(tag);
+        }
+        return result;
+    }
+    // Общий набор имён для пачки постов (bulk import): те же два-три запроса на всю пачку
+    public Map<String, Tag> resolveTags(Collection<String> names) {
+        Map<String, Tag> byName = new HashMap<>();
+        if (names.isEmpty()) {
+            return byName;
+        }
+        tagRepository.findAllByTagNames(names).forEach(tag -> byName.put(tag.getTagName(), tag));
+        List<String> missing = names.stream().filter(name -> !byName.containsKey(name)).toList();
+        if (!missing.isEmpty()) {
+            tagRepository.insertMissing(missing, DEFAULT_DESCRIPTION);
+            tagRepository.findAllByTagNames(missing).forEach(tag -> byName.put(tag.getTagName(), tag));
+        }
+        return byName;
     }
+
     public TagDTO convertToDTO(Tag tag) {
         if (tag == null) return null;
         return new TagDTO(tag.getTagName(), tag.getTagDescription());
@@ -0,0 +1,74 @@
+package streetwalker.postservice.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Термы из текста поста: разбиение по не-буквам и не-цифрам, нижний регистр, без стоп-слов и частых
+ * английских и русских окончаний. Документы и запросы разбираются одинаково.
+ */
+public final class TextAnalyzer {
+    private static final int MIN_TOKEN_LENGTH = 2;
+    private static final int MAX_TOKEN_LENGTH = 40;
+    private static final int MIN_STEM_LENGTH = 3;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it", "of", "on", "or",
+            "the", "to", "was", "with",
+            "и", "в", "во", "на", "не", "что", "с", "со", "по", "из", "за", "от", "до", "для", "как", "это", "но", "а");
+
+    // Порядок важен: сначала длинные окончания
+    private static final String[] EN_SUFFIXES = {"ingly", "ing", "edly", "ed", "ies", "ly", "s"};
+    private static final String[] RU_SUFFIXES = {
+            "иями", "ями", "ами", "ого", "его", "ому", "ему", "ыми", "ими", "ах", "ях", "ов", "ев", "ей", "ий", "ый",
+            "ой", "ая", "яя", "ое", "ее", "ые", "ие", "ом", "ем", "ам", "ям", "ую", "юю", "а", "я", "ы", "и", "е",
+            "о", "у", "ю", "ь"};
+
+    private TextAnalyzer() {
+    }
+
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                addTerm(terms, text.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    static String stem(String token) {
+        String[] suffixes = isCyrillic(token) ? RU_SUFFIXES : EN_SUFFIXES;
+        for (String suffix : suffixes) {
+            if (token.endsWith(suffix) && token.length() - suffix.length() >= MIN_STEM_LENGTH) {
+                String stem = token.substring(0, token.length() - suffix.length());
+                return suffix.equals("ies") ? stem + "y" : stem;
+            }
+        }
+        return token;
+    }
+
+    private static void addTerm(List<String> terms, String token) {
+        if (token.length() < MIN_TOKEN_LENGTH || token.length() > MAX_TOKEN_LENGTH) {
+            return;
+        }
+        String lower = token.toLowerCase(Locale.ROOT);
+        if (!STOP_WORDS.contains(lower)) {
+            terms.add(stem(lower));
+        }
+    }
+
+    private static boolean isCyrillic(String token) {
+        return Character.UnicodeBlock.of(token.charAt(token.length() - 1)) == Character.UnicodeBlock.CYRILLIC;
+    }
+}
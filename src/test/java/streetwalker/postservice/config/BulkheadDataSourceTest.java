@@ -0,0 +1,72 @@
+package streetwalker.postservice.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BulkheadDataSourceTest {
+    private DataSource target;
+    private BulkheadDataSource bulkhead;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        target = mock(DataSource.class);
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        bulkhead = new BulkheadDataSource(target, 2, Duration.ofMillis(50));
+        registry = new SimpleMeterRegistry();
+        bulkhead.bindTo(registry);
+    }
+
+    @Test
+    void getConnection_ShouldHoldPermitUntilClose() throws SQLException {
+        Connection first = bulkhead.getConnection();
+        Connection second = bulkhead.getConnection();
+        assertEquals(0, bulkhead.availablePermits());
+
+        first.close();
+        first.close();
+
+        assertEquals(1, bulkhead.availablePermits());
+        second.close();
+        assertEquals(2, bulkhead.availablePermits());
+    }
+
+    @Test
+    void getConnection_WhenFull_ShouldRejectAfterMaxWait() throws SQLException {
+        bulkhead.getConnection();
+        bulkhead.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, () -> bulkhead.getConnection());
+        assertEquals(1, bulkhead.rejectedCount());
+        assertEquals(1.0, registry.get("posts.db.bulkhead.rejected").functionCounter().count());
+        assertEquals(3, registry.get("posts.db.bulkhead.wait").timer().count());
+        verify(target, times(2)).getConnection();
+    }
+
+    @Test
+    void getConnection_WhenPoolFails_ShouldReleasePermit() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("pool down"));
+
+        assertThrows(SQLException.class, () -> bulkhead.getConnection());
+        assertEquals(2, bulkhead.availablePermits());
+    }
+
+    @Test
+    void connectionProxy_ShouldDelegateCalls() throws SQLException {
+        Connection connection = bulkhead.getConnection();
+        connection.setAutoCommit(false);
+
+        assertFalse(connection.isClosed());
+        assertEquals(1.0, registry.get("posts.db.bulkhead.available").gauge().value());
+    }
+}
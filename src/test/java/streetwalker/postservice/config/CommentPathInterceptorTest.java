@@ -0,0 +1,59 @@
+package streetwalker.postservice.config;
+
+import org.junit.jupiter.api.Test;
+import streetwalker.postservice.models.Comment;
+import streetwalker.postservice.services.CommentPath;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommentPathInterceptorTest {
+    private static final String[] PROPERTIES = {"authorId", "content", "depth", "path"};
+
+    private final CommentPathInterceptor interceptor = new CommentPathInterceptor();
+
+    @Test
+    void onPersist_rootComment_ShouldWritePathIntoInsertState() {
+        Comment comment = new Comment();
+        Object[] state = new Object[PROPERTIES.length];
+
+        assertTrue(interceptor.onPersist(comment, 5L, state, PROPERTIES, null));
+
+        assertEquals("0000000000000000005", comment.getPath());
+        assertEquals(0, comment.getDepth());
+        assertEquals(0, state[2]);
+        assertEquals("0000000000000000005", state[3]);
+    }
+
+    @Test
+    void onPersist_reply_ShouldExtendParentPath() {
+        Comment parent = new Comment();
+        parent.setPath(CommentPath.segment(70L));
+        parent.setDepth(0);
+        Comment comment = new Comment();
+        comment.setParentComment(parent);
+        Object[] state = new Object[PROPERTIES.length];
+
+        assertTrue(interceptor.onPersist(comment, 12L, state, PROPERTIES, null));
+
+        // Id ответа меньше id родителя при пуловом sequence — путь всё равно идёт от родителя
+        assertEquals("0000000000000000070" + "0000000000000000012", state[3]);
+        assertEquals(1, state[2]);
+    }
+
+    @Test
+    void onPersist_underLegacyParentWithoutPath_ShouldLeavePathForBackfill() {
+        Comment comment = new Comment();
+        comment.setParentComment(new Comment());
+        Object[] state = new Object[PROPERTIES.length];
+
+        assertFalse(interceptor.onPersist(comment, 12L, state, PROPERTIES, null));
+
+        assertNull(comment.getPath());
+        assertNull(state[3]);
+    }
+
+    @Test
+    void onPersist_otherEntity_ShouldBeIgnored() {
+        assertFalse(interceptor.onPersist(new Object(), 1L, new Object[0], new String[0], null));
+    }
+}
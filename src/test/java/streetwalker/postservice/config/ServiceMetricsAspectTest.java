@@ -0,0 +1,60 @@
+package streetwalker.postservice.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import streetwalker.postservice.models.Tag;
+import streetwalker.postservice.repositories.TagRepository;
+import streetwalker.postservice.services.TagService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class ServiceMetricsAspectTest {
+    private SimpleMeterRegistry registry;
+    private TagRepository tagRepository;
+    private TagService tagService;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        tagRepository = mock(TagRepository.class);
+        AspectJProxyFactory factory = new AspectJProxyFactory(new TagService(tagRepository));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ServiceMetricsAspect(registry));
+        tagService = factory.getProxy();
+    }
+
+    @Test
+    void serviceCalls_ShouldBeTimedByOperationAndOutcome() {
+        when(tagRepository.findAllByTagNames(anyCollection())).thenReturn(List.of(new Tag(1L, "night", "desc")));
+        tagService.proceedTagsWhenCreatingPost(List.of("night"));
+        tagService.proceedTagsWhenCreatingPost(List.of("night"));
+
+        Timer timer = registry.get(ServiceMetricsAspect.METRIC)
+                .tag("service", "TagService")
+                .tag("operation", "proceedTagsWhenCreatingPost")
+                .tag("outcome", "success")
+                .timer();
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    void failedCalls_ShouldBeTaggedWithException() {
+        when(tagRepository.findAllByTagNames(anyCollection())).thenThrow(new IllegalStateException("db down"));
+
+        assertThrows(IllegalStateException.class, () -> tagService.proceedTagsWhenCreatingPost(List.of("night")));
+
+        Timer timer = registry.get(ServiceMetricsAspect.METRIC)
+                .tag("operation", "proceedTagsWhenCreatingPost")
+                .tag("outcome", "error")
+                .tag("exception", "IllegalStateException")
+                .timer();
+        assertEquals(1, timer.count());
+    }
+}
@@ -0,0 +1,99 @@
+package streetwalker.postservice.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import streetwalker.postservice.models.Category;
+import streetwalker.postservice.models.Post;
+import streetwalker.postservice.models.Tag;
+import streetwalker.postservice.repositories.CategoryRepository;
+import streetwalker.postservice.repositories.PostRepository;
+import streetwalker.postservice.repositories.TagRepository;
+import streetwalker.postservice.services.PostCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Бюджеты SQL-запросов эндпоинтов на полном контексте: ленивые загрузки и N+1 видны здесь, а не в моках
+@SpringBootTest(properties = {"posts.grpc.enabled=false", "posts.search.rebuild-on-startup=false"})
+@AutoConfigureMockMvc
+@ActiveProfiles("diagnostics")
+class SqlStatementBudgetTest {
+
+    @RegisterExtension
+    SqlStatementCounter sql = new SqlStatementCounter();
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private TagRepository tagRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private PostCache postCache;
+
+    private Long postId;
+
+    @BeforeEach
+    void setUp() {
+        postRepository.deleteAll();
+        postCache.nativeCache().invalidateAll();
+        // Имена категорий и тегов уникальны (natural id), а контекст общий для всех тестов класса
+        String suffix = String.valueOf(System.nanoTime());
+        Category category = categoryRepository.save(new Category(null, "city-" + suffix, "city walks"));
+        Tag night = tagRepository.save(new Tag(null, "night-" + suffix, null));
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            Post post = new Post();
+            post.setTitle("Walk " + i);
+            post.setContent("content " + i);
+            post.setAuthorId(100L + i);
+            post.setCategory(category);
+            post.setTags(new ArrayList<>(List.of(night)));
+            posts.add(post);
+        }
+        postId = postRepository.saveAll(posts).get(0).getId();
+    }
+
+    @Test
+    void getPosts_ShouldStayWithinThreeStatements() throws Throwable {
+        // Страница, count и теги страницы — без запроса на каждый пост
+        sql.assertAtMost(3, () -> mockMvc.perform(get("/api/posts").param("size", "20"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void getPost_ShouldLoadOnceAndThenServeFromCache() throws Throwable {
+        sql.assertAtMost(2, () -> mockMvc.perform(get("/api/posts/" + postId)).andExpect(status().isOk()));
+        sql.assertAtMost(0, () -> mockMvc.perform(get("/api/posts/" + postId)).andExpect(status().isOk()));
+    }
+
+    @Test
+    void batchGet_ShouldStayWithinTwoStatements() throws Throwable {
+        sql.assertAtMost(2, () -> mockMvc.perform(post("/api/posts/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + postId + "," + (postId + 1) + "," + (postId + 2) + "]}"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void responses_ShouldCarryStatementCountHeaders() throws Exception {
+        mockMvc.perform(get("/api/posts").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SqlStatementBudgetFilter.STATEMENTS_HEADER, "3"))
+                .andExpect(header().exists(SqlStatementBudgetFilter.TIME_HEADER));
+    }
+}
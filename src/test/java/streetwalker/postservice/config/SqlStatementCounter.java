@@ -0,0 +1,66 @@
+package streetwalker.postservice.config;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * JUnit-расширение для бюджета запросов в интеграционных тестах:
+ * <pre>
+ * &#64;RegisterExtension
+ * SqlStatementCounter sql = new SqlStatementCounter();
+ * ...
+ * sql.assertAtMost(3, () -> mockMvc.perform(get("/api/posts")));
+ * </pre>
+ * Контекст должен работать с профилем {@code diagnostics}, он ставит {@link StatementCountingDataSource}.
+ */
+public class SqlStatementCounter implements BeforeEachCallback, AfterEachCallback {
+    private SqlStatementStats open;
+
+    @Override
+    public void beforeEach(ExtensionContext context) throws SQLException {
+        ApplicationContext applicationContext = SpringExtension.getApplicationContext(context);
+        DataSource dataSource = applicationContext.getBean(DataSource.class);
+        if (!dataSource.isWrapperFor(StatementCountingDataSource.class)) {
+            throw new IllegalStateException("Statements are not counted: activate the \"diagnostics\" profile");
+        }
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        if (open != null) {
+            open.stop();
+            open = null;
+        }
+    }
+
+    // Запросы, выполненные action в текущем потоке (MockMvc выполняет запрос в нём же)
+    public SqlStatementStats measure(Executable action) throws Throwable {
+        open = SqlStatementStats.start();
+        try {
+            action.execute();
+        } finally {
+            open.stop();
+        }
+        SqlStatementStats stats = open;
+        open = null;
+        return stats;
+    }
+
+    public int count(Executable action) throws Throwable {
+        return measure(action).statements();
+    }
+
+    public void assertAtMost(int budget, Executable action) throws Throwable {
+        int statements = count(action);
+        assertTrue(statements <= budget, "Expected at most " + budget + " SQL statements, but was " + statements);
+    }
+}
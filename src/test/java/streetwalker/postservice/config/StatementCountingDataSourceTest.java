@@ -0,0 +1,80 @@
+package streetwalker.postservice.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class StatementCountingDataSourceTest {
+    private StatementCountingDataSource dataSource;
+    private PreparedStatement prepared;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        prepared = mock(PreparedStatement.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(prepared);
+        when(connection.createStatement()).thenReturn(mock(Statement.class));
+        dataSource = new StatementCountingDataSource(target);
+    }
+
+    @Test
+    void executions_ShouldBeCountedOncePerRoundTrip() throws SQLException {
+        SqlStatementStats stats = SqlStatementStats.start();
+        try (Connection connection = dataSource.getConnection()) {
+            PreparedStatement statement = connection.prepareStatement("insert into tag (tag_name) values (?)");
+            statement.setString(1, "night");
+            statement.addBatch();
+            statement.setString(1, "rain");
+            statement.addBatch();
+            statement.executeBatch();
+            statement.executeQuery();
+            connection.createStatement().execute("analyze");
+        } finally {
+            stats.stop();
+        }
+
+        assertEquals(3, stats.statements());
+        verify(prepared).executeBatch();
+    }
+
+    @Test
+    void nestedScopes_ShouldBothSeeStatements() throws SQLException {
+        SqlStatementStats outer = SqlStatementStats.start();
+        SqlStatementStats inner = SqlStatementStats.start();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.prepareStatement("select 1").executeQuery();
+        } finally {
+            inner.stop();
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            connection.prepareStatement("select 1").executeQuery();
+        } finally {
+            outer.stop();
+        }
+
+        assertEquals(1, inner.statements());
+        assertEquals(2, outer.statements());
+    }
+
+    @Test
+    void outsideScope_ShouldNotCount() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.prepareStatement("select 1").executeQuery();
+        }
+        SqlStatementStats stats = SqlStatementStats.start();
+        stats.stop();
+
+        assertEquals(0, stats.statements());
+    }
+}
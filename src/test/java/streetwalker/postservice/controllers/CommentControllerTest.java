@@ -9,10 +9,14 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import streetwalker.postservice.controllers.CommentController;
+import streetwalker.postservice.dto.comment.CommentRepliesDTO;
+import streetwalker.postservice.dto.comment.CommentReplyDTO;
 import streetwalker.postservice.dto.comment.CommentUpdateDTO;
 import streetwalker.postservice.models.Comment;
 import streetwalker.postservice.services.CommentService;
 
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -66,6 +70,26 @@ class CommentControllerTest {
                 .andExpect(content().string("Comment not found"));
     }
 
+    @Test
+    void getReplies_Success() throws Exception {
+        when(commentService.getReplies(1L, 7L, 2)).thenReturn(new CommentRepliesDTO(1L,
+                List.of(new CommentReplyDTO(8L, 7L, 3L, "reply", 2)), null, false));
+
+        mockMvc.perform(get("/api/comments/1/replies").param("after", "7").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.replies[0].id").value(8))
+                .andExpect(jsonPath("$.replies[0].depth").value(2))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    void getReplies_InvalidSize() throws Exception {
+        when(commentService.getReplies(1L, null, 500)).thenThrow(new RuntimeException("limit must be between 1 and 100"));
+
+        mockMvc.perform(get("/api/comments/1/replies").param("size", "500"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void deleteComment_Success() throws Exception {
         mockMvc.perform(delete("/api/comments/1").with(csrf()))
@@ -5,23 +5,50 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import streetwalker.postservice.config.JacksonConfig;
 import streetwalker.postservice.dto.comment.CommentCreateDTO;
+import streetwalker.postservice.dto.comment.CommentNodeDTO;
+import streetwalker.postservice.dto.comment.CommentTreeDTO;
+import streetwalker.postservice.dto.post.PostBatchDTO;
 import streetwalker.postservice.dto.post.PostCreateDTO;
 import streetwalker.postservice.dto.post.PostDTO;
+import streetwalker.postservice.dto.post.PostSearchHitDTO;
+import streetwalker.postservice.dto.post.PostSliceDTO;
 import streetwalker.postservice.dto.post.PostUpdateDTO;
 import streetwalker.postservice.dto.postlike.PostLikeDTO;
 import streetwalker.postservice.models.Comment;
+import streetwalker.postservice.services.LikeBufferFullException;
+import streetwalker.postservice.services.PostExportService;
+import streetwalker.postservice.services.PostFields;
+import streetwalker.postservice.services.PostImportService;
 import streetwalker.postservice.services.PostService;
+import streetwalker.postservice.services.PostVersionMismatchException;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -29,6 +56,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @WebMvcTest(PostController.class)
 @AutoConfigureMockMvc(addFilters = false)
+@Import(JacksonConfig.class)
 class PostControllerTest {
 
     @Autowired
@@ -36,6 +64,10 @@ class PostControllerTest {
 
     @MockitoBean
     private PostService postService;
+    @MockitoBean
+    private PostImportService postImportService;
+    @MockitoBean
+    private PostExportService postExportService;
 
     @Test
     void createPost_Success() throws Exception {
@@ -96,6 +128,47 @@ class PostControllerTest {
                 .andExpect(jsonPath("$.content[0].title").value("PagedPost"));
     }
 
+    @Test
+    void getPosts_WithLimit_ShouldUseCursorMode() throws Exception {
+        PostDTO dto = new PostDTO();
+        dto.setTitle("SlicedPost");
+        when(postService.getPostsAfter("abc", 10, "")).thenReturn(new PostSliceDTO(List.of(dto), "next", true));
+
+        mockMvc.perform(get("/api/posts").param("after", "abc").param("limit", "10").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("SlicedPost"))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void getPosts_WithInvalidCursor_ShouldReturnBadRequest() throws Exception {
+        when(postService.getPostsAfter("bad", 20, "")).thenThrow(new RuntimeException("Invalid cursor"));
+
+        mockMvc.perform(get("/api/posts").param("after", "bad").with(csrf()))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid cursor"));
+    }
+
+    @Test
+    void searchPosts_Success() throws Exception {
+        when(postService.search("night", 20)).thenReturn(List.of(new PostSearchHitDTO(7L, "Night walk", 2.0)));
+
+        mockMvc.perform(get("/api/posts/search").param("q", "night").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(7))
+                .andExpect(jsonPath("$[0].title").value("Night walk"));
+    }
+
+    @Test
+    void searchPosts_BlankQuery() throws Exception {
+        when(postService.search(" ", 20)).thenThrow(new RuntimeException("q is required"));
+
+        mockMvc.perform(get("/api/posts/search").param("q", " ").with(csrf()))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("q is required"));
+    }
+
     @Test
     void updatePost_Success() throws Exception {
         PostDTO dto = new PostDTO();
@@ -122,12 +195,119 @@ class PostControllerTest {
                 .andExpect(content().string("Post not found"));
     }
 
+    @Test
+    void getPost_IfNoneMatchCurrentTag_ReturnsNotModified() throws Exception {
+        PostDTO dto = new PostDTO();
+        dto.setId(1L);
+        dto.setVersion(3L);
+        dto.setLikes(5);
+        dto.setTitle("MyPost");
+        when(postService.getPost(1L)).thenReturn(dto);
+
+        mockMvc.perform(get("/api/posts/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-3-5\""))
+                .andExpect(jsonPath("$.version").doesNotExist());
+
+        mockMvc.perform(get("/api/posts/1").header("If-None-Match", "\"1-3-5\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        dto.setLikes(6);
+        mockMvc.perform(get("/api/posts/1").header("If-None-Match", "\"1-3-5\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-3-6\""));
+    }
+
+    @Test
+    void getPosts_IfNoneMatchCurrentTag_ReturnsNotModifiedWithoutLoadingPage() throws Exception {
+        PostDTO dto = new PostDTO();
+        dto.setId(1L);
+        dto.setVersion(0L);
+        dto.setLikes(0);
+        when(postService.getPosts(any(Pageable.class), Mockito.eq(""))).thenReturn(new PageImpl<>(List.of(dto)));
+
+        String eTag = mockMvc.perform(get("/api/posts"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        verify(postService, never()).getPostsETag(any(), any(), any());
+
+        when(postService.getPostsETag(any(Pageable.class), eq(""), Mockito.isNull())).thenReturn(eTag);
+        mockMvc.perform(get("/api/posts").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag));
+        verify(postService, times(1)).getPosts(any(Pageable.class), Mockito.eq(""));
+
+        dto.setVersion(1L);
+        when(postService.getPostsETag(any(Pageable.class), eq(""), Mockito.isNull())).thenReturn("\"l-changed\"");
+        mockMvc.perform(get("/api/posts").header("If-None-Match", eTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getPosts_CursorModeIfNoneMatch_ChecksValidatorFirst() throws Exception {
+        when(postService.getPostsAfterETag("abc", 10, "", null)).thenReturn("\"l-abc\"");
+
+        mockMvc.perform(get("/api/posts").param("after", "abc").param("limit", "10").header("If-None-Match", "W/\"l-abc\""))
+                .andExpect(status().isNotModified());
+        verify(postService, never()).getPostsAfter(any(), Mockito.anyInt(), any());
+    }
+
+    @Test
+    void updatePost_IfMatch_PassesExpectedVersion() throws Exception {
+        PostDTO dto = new PostDTO();
+        dto.setId(1L);
+        dto.setVersion(4L);
+        dto.setLikes(0);
+        when(postService.update(any(PostUpdateDTO.class), eq(3L))).thenReturn(dto);
+
+        mockMvc.perform(put("/api/posts")
+                        .header("If-Match", "\"1-3-0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":1,\"title\":\"Updated\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-4-0\""));
+    }
+
+    @Test
+    void updatePost_StaleIfMatch_ReturnsPreconditionFailed() throws Exception {
+        when(postService.update(any(PostUpdateDTO.class), eq(2L))).thenThrow(new PostVersionMismatchException(1L));
+
+        mockMvc.perform(put("/api/posts")
+                        .header("If-Match", "\"1-2-0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":1,\"title\":\"Updated\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        // Тег другого поста или слабый тег не может совпасть
+        mockMvc.perform(put("/api/posts")
+                        .header("If-Match", "W/\"1-3-0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":1,\"title\":\"Updated\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/posts")
+                        .header("If-Match", "\"2-3-0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":1,\"title\":\"Updated\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     void deletePost_Success() throws Exception {
+        Mockito.when(postService.delete(1L)).thenReturn(true);
+
         mockMvc.perform(delete("/api/posts/1").with(csrf()))
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    void deletePost_LargePost_ShouldBeAccepted() throws Exception {
+        Mockito.when(postService.delete(1L)).thenReturn(false);
+
+        mockMvc.perform(delete("/api/posts/1").with(csrf()))
+                .andExpect(status().isAccepted());
+    }
+
     @Test
     void deletePost_NotFound() throws Exception {
         Mockito.doThrow(new RuntimeException("Not found")).when(postService).delete(1L);
@@ -160,6 +340,17 @@ class PostControllerTest {
                 .andExpect(content().string("Already liked"));
     }
 
+    @Test
+    void likePost_BufferFull_ShouldAskToRetryLater() throws Exception {
+        Mockito.doThrow(new LikeBufferFullException(50_000)).when(postService).likePost(any(PostLikeDTO.class));
+
+        mockMvc.perform(post("/api/posts/like")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"postId\":1,\"authorId\":2}"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
     @Test
     void unlikePost_Success() throws Exception {
         mockMvc.perform(post("/api/posts/unlike")
@@ -182,6 +373,34 @@ class PostControllerTest {
                 .andExpect(content().string("Already unliked"));
     }
 
+    @Test
+    void getLikeStatus_Success() throws Exception {
+        Map<Long, Boolean> status = new LinkedHashMap<>();
+        status.put(1L, true);
+        status.put(2L, false);
+        when(postService.getLikeStatus(any())).thenReturn(status);
+
+        mockMvc.perform(post("/api/posts/likes/status")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"authorId\":5,\"postIds\":[1,2]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['1']").value(true))
+                .andExpect(jsonPath("$['2']").value(false));
+    }
+
+    @Test
+    void getLikeStatus_WithoutAuthor_ReturnsBadRequest() throws Exception {
+        when(postService.getLikeStatus(any())).thenThrow(new RuntimeException("authorId is required"));
+
+        mockMvc.perform(post("/api/posts/likes/status")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"postIds\":[1,2]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("authorId is required"));
+    }
+
     @Test
     void addComment_Success() throws Exception {
         Comment comment = new Comment();
@@ -207,4 +426,145 @@ class PostControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(content().string("Post not found"));
     }
+
+    @Test
+    void getCommentTree_Success() throws Exception {
+        CommentNodeDTO root = new CommentNodeDTO(10L, 1L, "root");
+        root.getReplies().add(new CommentNodeDTO(11L, 2L, "reply"));
+        when(postService.getCommentTree(1L)).thenReturn(new CommentTreeDTO(1L, List.of(root), 2, false));
+
+        mockMvc.perform(get("/api/posts/1/comments/tree").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(2))
+                .andExpect(jsonPath("$.comments[0].replies[0].content").value("reply"));
+    }
+
+    @Test
+    void getCommentTree_PostNotFound() throws Exception {
+        when(postService.getCommentTree(999L)).thenThrow(new RuntimeException("Post not found"));
+
+        mockMvc.perform(get("/api/posts/999/comments/tree").with(csrf()))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("Post not found"));
+    }
+
+    @Test
+    void importPosts_StreamsResultsAsNdjson() throws Exception {
+        doAnswer(invocation -> {
+            InputStream in = invocation.getArgument(0);
+            OutputStream out = invocation.getArgument(1);
+            long lines = new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().count();
+            for (long line = 1; line <= lines; line++) {
+                out.write(("{\"line\":" + line + ",\"id\":" + line + "}\n").getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        }).when(postImportService).importPosts(any(InputStream.class), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(post("/api/posts/bulk")
+                        .with(csrf())
+                        .contentType("application/x-ndjson")
+                        .content("{\"title\":\"a\"}\n{\"title\":\"b\"}\n"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"line\":1,\"id\":1}\n{\"line\":2,\"id\":2}\n"));
+    }
+
+    @Test
+    void exportPosts_Csv_StreamsAttachment() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write("id,title\n1,a\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(postExportService).export(eq(PostExportService.Format.CSV), eq(OffsetDateTime.parse("2026-01-01T00:00:00Z")), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/posts/export")
+                        .param("format", "csv")
+                        .param("updatedSince", "2026-01-01T00:00:00Z"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=posts.csv"))
+                .andExpect(content().string("id,title\n1,a\n"));
+    }
+
+    @Test
+    void exportPosts_UnknownFormat_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/posts/export").param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("format must be ndjson or csv"));
+    }
+
+    @Test
+    void getPostsByIds_ReturnsPostsAndMissingIds() throws Exception {
+        PostDTO dto = new PostDTO();
+        dto.setId(2L);
+        when(postService.getPosts(List.of(2L, 5L))).thenReturn(new PostBatchDTO(List.of(dto), List.of(5L)));
+
+        mockMvc.perform(post("/api/posts/batch-get")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[2,5]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.posts[0].id").value(2))
+                .andExpect(jsonPath("$.missingIds[0]").value(5));
+    }
+
+    @Test
+    void getPostsByIds_TooMany_ReturnsBadRequest() throws Exception {
+        when(postService.getPosts(anyCollection())).thenThrow(new RuntimeException("Too many post ids, max 100"));
+
+        mockMvc.perform(post("/api/posts/batch-get")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getPosts_WithFields_SerializesOnlyRequestedProperties() throws Exception {
+        PostDTO dto = new PostDTO();
+        dto.setId(1L);
+        dto.setTitle("Post1");
+        dto.setLikes(3);
+        when(postService.getPosts(any(Pageable.class), eq(""), argThat((PostFields fields) -> fields.names().equals(Set.of("id", "title", "likes")))))
+                .thenReturn(new PageImpl<>(List.of(dto)));
+
+        mockMvc.perform(get("/api/posts").param("fields", "title,likes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.content[0].title").value("Post1"))
+                .andExpect(jsonPath("$.content[0].likes").value(3))
+                .andExpect(jsonPath("$.content[0].content").doesNotExist())
+                .andExpect(jsonPath("$.content[0].tags").doesNotExist());
+    }
+
+    @Test
+    void getPost_WithFields_FiltersCachedPost() throws Exception {
+        PostDTO dto = new PostDTO();
+        dto.setId(1L);
+        dto.setTitle("Post1");
+        dto.setContent("long content");
+        when(postService.getPost(1L)).thenReturn(dto);
+
+        mockMvc.perform(get("/api/posts/1").param("fields", "title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Post1"))
+                .andExpect(jsonPath("$.content").doesNotExist());
+
+        mockMvc.perform(get("/api/posts/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").value("long content"));
+    }
+
+    @Test
+    void getPosts_UnknownField_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/posts").param("fields", "title,password"))
+                .andExpect(status().isBadRequest());
+    }
 }
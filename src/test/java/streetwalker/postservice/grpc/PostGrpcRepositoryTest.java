@@ -0,0 +1,97 @@
+package streetwalker.postservice.grpc;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import streetwalker.postservice.grpc.proto.CreatePostRequest;
+import streetwalker.postservice.grpc.proto.GetPostRequest;
+import streetwalker.postservice.grpc.proto.Post;
+import streetwalker.postservice.grpc.proto.PostServiceGrpc;
+import streetwalker.postservice.models.Category;
+import streetwalker.postservice.models.Tag;
+import streetwalker.postservice.repositories.CategoryRepository;
+import streetwalker.postservice.repositories.PostRepository;
+import streetwalker.postservice.repositories.TagRepository;
+import streetwalker.postservice.services.PostCache;
+import streetwalker.postservice.services.PostService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// gRPC поверх настоящего PostService и БД: у вызова нет open-session-in-view, ленивые связи видны только здесь
+@SpringBootTest(properties = {"posts.grpc.enabled=false", "posts.search.rebuild-on-startup=false"})
+class PostGrpcRepositoryTest {
+    @Autowired
+    private PostService postService;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private TagRepository tagRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private PostCache postCache;
+
+    private Server server;
+    private ManagedChannel channel;
+    private PostServiceGrpc.PostServiceBlockingStub stub;
+    private String suffix;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        postCache.nativeCache().invalidateAll();
+        // Имена тегов уникальны, а контекст общий с другими тестами
+        suffix = String.valueOf(System.nanoTime());
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .addService(new PostGrpcService(postService, new PostProtoMapper()))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).build();
+        stub = PostServiceGrpc.newBlockingStub(channel);
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void getPost_NotCached_ShouldLoadLazyTagsOutsideWebRequest() {
+        Tag night = tagRepository.save(new Tag(null, "night-" + suffix, null));
+        streetwalker.postservice.models.Post post = new streetwalker.postservice.models.Post();
+        post.setTitle("Night walk");
+        post.setContent("Lanterns");
+        post.setAuthorId(42L);
+        post.setTags(new ArrayList<>(List.of(night)));
+        Long id = postRepository.save(post).getId();
+
+        Post loaded = stub.getPost(GetPostRequest.newBuilder().setId(id).build());
+
+        assertEquals("Night walk", loaded.getTitle());
+        assertEquals(List.of("night-" + suffix), loaded.getTagsList().stream().map(tag -> tag.getName()).toList());
+    }
+
+    @Test
+    void createPost_ShouldResolveCategoryAndTagsByNaturalIdOutsideWebRequest() {
+        categoryRepository.save(new Category(null, "Routes-" + suffix, "City routes"));
+        tagRepository.save(new Tag(null, "walk-" + suffix, null));
+
+        Post created = stub.createPost(CreatePostRequest.newBuilder()
+                .setAuthorId(42L).setTitle("Evening walk").setContent("Along the river")
+                .addTags("walk-" + suffix).setCategoryName("routes-" + suffix).build());
+
+        assertTrue(created.getId() > 0);
+        assertEquals("Routes-" + suffix, created.getCategory().getName());
+        assertEquals(List.of("walk-" + suffix), created.getTagsList().stream().map(tag -> tag.getName()).toList());
+    }
+}
@@ -0,0 +1,178 @@
+package streetwalker.postservice.grpc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import streetwalker.postservice.config.JacksonConfig;
+import streetwalker.postservice.dto.category.CategoryDTO;
+import streetwalker.postservice.dto.post.PostBatchDTO;
+import streetwalker.postservice.dto.post.PostCreateDTO;
+import streetwalker.postservice.dto.post.PostDTO;
+import streetwalker.postservice.dto.post.PostSliceDTO;
+import streetwalker.postservice.dto.postlike.PostLikeDTO;
+import streetwalker.postservice.dto.tag.TagDTO;
+import streetwalker.postservice.grpc.proto.BatchGetPostsRequest;
+import streetwalker.postservice.grpc.proto.BatchGetPostsResponse;
+import streetwalker.postservice.grpc.proto.CreatePostRequest;
+import streetwalker.postservice.grpc.proto.GetPostRequest;
+import streetwalker.postservice.grpc.proto.LikeRequest;
+import streetwalker.postservice.grpc.proto.ListPostsRequest;
+import streetwalker.postservice.grpc.proto.Post;
+import streetwalker.postservice.grpc.proto.PostServiceGrpc;
+import streetwalker.postservice.services.PostService;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PostGrpcServiceTest {
+    private PostService postService;
+    private Server server;
+    private ManagedChannel channel;
+    private PostServiceGrpc.PostServiceBlockingStub stub;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        postService = mock(PostService.class);
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(new PostGrpcService(postService, new PostProtoMapper()))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+        stub = PostServiceGrpc.newBlockingStub(channel);
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    static PostDTO post(long id) {
+        PostDTO dto = new PostDTO();
+        dto.setId(id);
+        dto.setTitle("Evening walk along the embankment " + id);
+        dto.setContent("We started at the bridge and walked along the river until the lights came on.");
+        dto.setAuthorId(42L);
+        dto.setLikes(17);
+        dto.setTags(List.of(new TagDTO("walk", "description"), new TagDTO("river", "description")));
+        CategoryDTO category = new CategoryDTO();
+        category.setCategoryName("Routes");
+        category.setCategoryDescription("City routes");
+        dto.setCategory(category);
+        dto.setCreatedAt(OffsetDateTime.of(2026, 5, 1, 18, 30, 0, 0, ZoneOffset.UTC));
+        dto.setIsUpdated(false);
+        return dto;
+    }
+
+    @Test
+    void getPost_ShouldMapAllFields() {
+        when(postService.getPost(1L)).thenReturn(post(1L));
+
+        Post post = stub.getPost(GetPostRequest.newBuilder().setId(1L).build());
+
+        assertEquals(1L, post.getId());
+        assertEquals(42L, post.getAuthorId());
+        assertEquals(17, post.getLikes());
+        assertEquals(List.of("walk", "river"), post.getTagsList().stream().map(tag -> tag.getName()).toList());
+        assertEquals("Routes", post.getCategory().getName());
+        assertEquals(OffsetDateTime.of(2026, 5, 1, 18, 30, 0, 0, ZoneOffset.UTC).toEpochSecond(), post.getCreatedAt().getSeconds());
+    }
+
+    @Test
+    void getPost_NotFound_ShouldReturnNotFoundStatus() {
+        when(postService.getPost(5L)).thenThrow(new RuntimeException("Post not found"));
+
+        StatusRuntimeException ex = assertThrows(StatusRuntimeException.class,
+                () -> stub.getPost(GetPostRequest.newBuilder().setId(5L).build()));
+
+        assertEquals(Status.Code.NOT_FOUND, ex.getStatus().getCode());
+        assertEquals("Post not found", ex.getStatus().getDescription());
+    }
+
+    @Test
+    void batchGetPosts_ShouldKeepOrderAndReportMissingIds() {
+        when(postService.getPosts(List.of(2L, 9L, 1L))).thenReturn(new PostBatchDTO(List.of(post(2L), post(1L)), List.of(9L)));
+
+        BatchGetPostsResponse response = stub.batchGetPosts(BatchGetPostsRequest.newBuilder().addIds(2L).addIds(9L).addIds(1L).build());
+
+        assertEquals(List.of(2L, 1L), response.getPostsList().stream().map(Post::getId).toList());
+        assertEquals(List.of(9L), response.getMissingIdsList());
+    }
+
+    @Test
+    void listPosts_ShouldStreamAllPagesUntilCursorEnds() {
+        when(postService.getPostsAfter(eq(""), anyInt(), eq("walk")))
+                .thenReturn(new PostSliceDTO(List.of(post(3L), post(2L)), "c1", true));
+        when(postService.getPostsAfter(eq("c1"), anyInt(), eq("walk")))
+                .thenReturn(new PostSliceDTO(List.of(post(1L)), null, false));
+
+        List<Long> ids = new ArrayList<>();
+        Iterator<Post> stream = stub.listPosts(ListPostsRequest.newBuilder().setTitle("walk").build());
+        stream.forEachRemaining(post -> ids.add(post.getId()));
+
+        assertEquals(List.of(3L, 2L, 1L), ids);
+    }
+
+    @Test
+    void listPosts_MaxResults_ShouldLimitPageSize() {
+        when(postService.getPostsAfter("", 2, "")).thenReturn(new PostSliceDTO(List.of(post(3L), post(2L)), "c1", true));
+
+        List<Long> ids = new ArrayList<>();
+        stub.listPosts(ListPostsRequest.newBuilder().setMaxResults(2).build()).forEachRemaining(post -> ids.add(post.getId()));
+
+        assertEquals(List.of(3L, 2L), ids);
+        verify(postService, times(1)).getPostsAfter(any(), anyInt(), any());
+    }
+
+    @Test
+    void createPost_ShouldPassCategoryAndTags() {
+        when(postService.create(any(PostCreateDTO.class))).thenReturn(post(7L));
+
+        Post created = stub.createPost(CreatePostRequest.newBuilder()
+                .setAuthorId(42L).setTitle("t").setContent("c").addTags("walk").setCategoryName("Routes").build());
+
+        assertEquals(7L, created.getId());
+        verify(postService).create(argThat(dto -> dto.getCategory().getCategoryName().equals("Routes")
+                && dto.getTags().equals(List.of("walk"))));
+    }
+
+    @Test
+    void likePost_AlreadyLiked_ShouldReturnInvalidArgument() {
+        doThrow(new RuntimeException("Already liked")).when(postService).likePost(any(PostLikeDTO.class));
+
+        StatusRuntimeException ex = assertThrows(StatusRuntimeException.class,
+                () -> stub.likePost(LikeRequest.newBuilder().setPostId(1L).setAuthorId(2L).build()));
+
+        assertEquals(Status.Code.INVALID_ARGUMENT, ex.getStatus().getCode());
+    }
+
+    @Test
+    void post_ProtobufPayload_ShouldBeSmallerThanRestJson() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().filters(JacksonConfig.defaultFilters()).build();
+        PostDTO dto = post(1L);
+
+        int json = objectMapper.writeValueAsBytes(dto).length;
+        int proto = new PostProtoMapper().toProto(dto).getSerializedSize();
+
+        assertTrue(proto < json, "protobuf " + proto + " bytes vs JSON " + json + " bytes");
+    }
+}
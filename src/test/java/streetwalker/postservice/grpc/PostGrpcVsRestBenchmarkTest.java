@@ -0,0 +1,106 @@
+package streetwalker.postservice.grpc;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import streetwalker.postservice.config.JacksonConfig;
+import streetwalker.postservice.controllers.PostController;
+import streetwalker.postservice.dto.post.PostSliceDTO;
+import streetwalker.postservice.grpc.proto.GetPostRequest;
+import streetwalker.postservice.grpc.proto.ListPostsRequest;
+import streetwalker.postservice.grpc.proto.Post;
+import streetwalker.postservice.grpc.proto.PostServiceGrpc;
+import streetwalker.postservice.services.PostService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Задержка и размер ответа одних и тех же чтений через REST (MockMvc, Jackson) и gRPC (in-process, protobuf).
+ * Сети нет с обеих сторон, так что разница — диспетчеризация и сериализация. Запуск: {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class PostGrpcVsRestBenchmarkTest {
+    private static final Logger log = LoggerFactory.getLogger(PostGrpcVsRestBenchmarkTest.class);
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 20_000;
+    private static final int PAGE_SIZE = 50;
+
+    @Test
+    void getPost_and_listPage_RestVsGrpc() throws Exception {
+        PostService postService = mock(PostService.class);
+        when(postService.getPost(anyLong())).thenAnswer(invocation -> PostGrpcServiceTest.post(invocation.getArgument(0)));
+        when(postService.getPostsAfter(any(), anyInt(), any())).thenReturn(new PostSliceDTO(
+                LongStream.rangeClosed(1, PAGE_SIZE).mapToObj(PostGrpcServiceTest::post).toList(), null, false));
+
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new PostController(postService, null, null))
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(
+                        Jackson2ObjectMapperBuilder.json().filters(JacksonConfig.defaultFilters()).build()))
+                .build();
+        String name = InProcessServerBuilder.generateName();
+        Server server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(new PostGrpcService(postService, new PostProtoMapper()))
+                .build()
+                .start();
+        ManagedChannel channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+        PostServiceGrpc.PostServiceBlockingStub stub = PostServiceGrpc.newBlockingStub(channel);
+        try {
+            int restSingle = mockMvc.perform(get("/api/posts/1")).andReturn().getResponse().getContentAsByteArray().length;
+            int grpcSingle = stub.getPost(GetPostRequest.newBuilder().setId(1L).build()).getSerializedSize();
+            int restPage = mockMvc.perform(get("/api/posts").param("limit", String.valueOf(PAGE_SIZE)))
+                    .andReturn().getResponse().getContentAsByteArray().length;
+            List<Post> page = listAll(stub);
+            int grpcPage = page.stream().mapToInt(Post::getSerializedSize).sum();
+            assertEquals(PAGE_SIZE, page.size());
+
+            for (int i = 0; i < WARMUP; i++) {
+                mockMvc.perform(get("/api/posts/" + i));
+                stub.getPost(GetPostRequest.newBuilder().setId(i).build());
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                mockMvc.perform(get("/api/posts/" + i));
+            }
+            double restMicros = (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+
+            start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                stub.getPost(GetPostRequest.newBuilder().setId(i).build());
+            }
+            double grpcMicros = (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+
+            log.info("GetPost payload: REST {} bytes, gRPC {} bytes", restSingle, grpcSingle);
+            log.info("List page of {}: REST {} bytes, gRPC {} bytes", PAGE_SIZE, restPage, grpcPage);
+            log.info("GetPost latency: REST {} us/op, gRPC {} us/op", String.format("%.1f", restMicros), String.format("%.1f", grpcMicros));
+            assertTrue(grpcSingle < restSingle);
+        } finally {
+            channel.shutdownNow();
+            server.shutdownNow();
+        }
+    }
+
+    private static List<Post> listAll(PostServiceGrpc.PostServiceBlockingStub stub) {
+        List<Post> posts = new ArrayList<>();
+        stub.listPosts(ListPostsRequest.newBuilder().setMaxResults(PAGE_SIZE).build()).forEachRemaining(posts::add);
+        return posts;
+    }
+}
@@ -44,10 +44,7 @@ class PostMapperTest {
         tags.add(tag2);
         post.setTags(tags);
 
-        List<PostLike> likes = new ArrayList<>();
-        likes.add(new PostLike());
-        likes.add(new PostLike());
-        post.setLikes(likes);
+        post.setLikeCount(2);
 
         // Act
         PostDTO result = postMapper.toDTO(post);
@@ -291,33 +288,20 @@ class PostMapperTest {
     }
 
     @Test
-    void countLikes_WithNullList_ShouldReturnZero() {
-        // Act
-        Integer result = postMapper.countLikes(null);
-
-        // Assert
-        assertEquals(0, result);
-    }
-
-    @Test
-    void countLikes_WithEmptyList_ShouldReturnZero() {
-        // Act
-        Integer result = postMapper.countLikes(new ArrayList<>());
-
-        // Assert
-        assertEquals(0, result);
-    }
-
-    @Test
-    void countLikes_WithItems_ShouldReturnCount() {
+    void toDTO_ShouldReadLikeCountInsteadOfLikesCollection() {
         // Arrange
-        List<Object> likes = List.of(new Object(), new Object(), new Object());
+        Post post = new Post();
+        post.setId(1L);
+        post.setLikeCount(5);
+        List<PostLike> likes = new ArrayList<>();
+        likes.add(new PostLike());
+        post.setLikes(likes);
 
         // Act
-        Integer result = postMapper.countLikes(likes);
+        PostDTO result = postMapper.toDTO(post);
 
         // Assert
-        assertEquals(3, result);
+        assertEquals(5, result.getLikes());
     }
 
     @Test
@@ -0,0 +1,132 @@
+package streetwalker.postservice.repositories;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import streetwalker.postservice.config.HibernateConfig;
+import streetwalker.postservice.config.JpaAuditingConfig;
+import streetwalker.postservice.dto.comment.CommentCreateDTO;
+import streetwalker.postservice.dto.comment.CommentRepliesDTO;
+import streetwalker.postservice.dto.comment.CommentReplyDTO;
+import streetwalker.postservice.models.Comment;
+import streetwalker.postservice.models.Post;
+import streetwalker.postservice.services.CommentPath;
+import streetwalker.postservice.services.CommentService;
+import streetwalker.postservice.services.PostCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({JpaAuditingConfig.class, HibernateConfig.class})
+class CommentRepliesTest {
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private CommentService commentService;
+    private Post post;
+
+    @BeforeEach
+    void setUp() {
+        commentService = new CommentService(commentRepository, mock(PostCache.class), 5000, 32, false);
+        post = new Post();
+        post.setTitle("Walk");
+        post.setAuthorId(1L);
+        entityManager.persist(post);
+    }
+
+    private Comment reply(Comment parent, String content) {
+        CommentCreateDTO dto = new CommentCreateDTO();
+        dto.setAuthorId(1L);
+        dto.setContent(content);
+        dto.setParentCommentId(parent != null ? parent.getId() : null);
+        return commentService.createComment(dto, post);
+    }
+
+    @Test
+    void createComment_ShouldWritePathInSingleInsert() {
+        Comment root = reply(null, "root");
+        entityManager.flush();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Comment child = reply(root, "child");
+        entityManager.flush();
+
+        // Один INSERT с готовым path, без UPDATE после него
+        assertEquals(1, statistics.getEntityInsertCount());
+        assertEquals(0, statistics.getEntityUpdateCount());
+        entityManager.clear();
+        Comment stored = commentRepository.findById(child.getId()).orElseThrow();
+        assertEquals(root.getPath() + CommentPath.segment(child.getId()), stored.getPath());
+        assertEquals(1, stored.getDepth());
+    }
+
+    @Test
+    void getReplies_ShouldPageThroughSubtreeInThreadOrder() {
+        Comment root = reply(null, "root");
+        Comment b = reply(root, "b");
+        Comment c = reply(root, "c");
+        Comment d = reply(b, "d");
+        reply(d, "e");
+        reply(c, "f");
+        // Соседняя ветка не должна попасть в диапазон
+        reply(reply(null, "other"), "other reply");
+        entityManager.flush();
+        entityManager.clear();
+
+        List<String> contents = new ArrayList<>();
+        List<Integer> depths = new ArrayList<>();
+        Long after = null;
+        int pages = 0;
+        do {
+            CommentRepliesDTO page = commentService.getReplies(root.getId(), after, 2);
+            page.getReplies().forEach(r -> {
+                contents.add(r.getContent());
+                depths.add(r.getDepth());
+            });
+            after = page.getNextCursor();
+            pages++;
+        } while (after != null);
+
+        assertEquals(List.of("b", "d", "e", "c", "f"), contents);
+        assertEquals(List.of(1, 2, 3, 1, 2), depths);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void getReplies_ShouldReturnParentIdsForNesting() {
+        Comment root = reply(null, "root");
+        Comment b = reply(root, "b");
+        reply(b, "d");
+        entityManager.flush();
+        entityManager.clear();
+
+        List<CommentReplyDTO> replies = commentService.getReplies(b.getId(), null, 10).getReplies();
+
+        assertEquals(1, replies.size());
+        assertEquals(b.getId(), replies.get(0).getParentCommentId());
+    }
+
+    @Test
+    void getReplies_OfLeafOrMissingComment_ShouldBeEmpty() {
+        Comment leaf = reply(null, "leaf");
+        entityManager.flush();
+
+        assertTrue(commentService.getReplies(leaf.getId(), null, 10).getReplies().isEmpty());
+        assertTrue(commentService.getReplies(-1L, null, 10).getReplies().isEmpty());
+    }
+}
@@ -0,0 +1,109 @@
+package streetwalker.postservice.repositories;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import streetwalker.postservice.config.JpaAuditingConfig;
+import streetwalker.postservice.dto.category.CategoryDTO;
+import streetwalker.postservice.dto.post.PostCreateDTO;
+import streetwalker.postservice.dto.post.PostDTO;
+import streetwalker.postservice.mappers.PostMapper;
+import streetwalker.postservice.models.Category;
+import streetwalker.postservice.services.CategoryService;
+import streetwalker.postservice.services.LikeBuffer;
+import streetwalker.postservice.services.PostImportService;
+import streetwalker.postservice.services.PostSearchIndex;
+import streetwalker.postservice.services.PostService;
+import streetwalker.postservice.services.TagService;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Новый пост с @Version должен идти через persist: иначе merge вернёт копию, а у исходного объекта не будет id
+@DataJpaTest
+@Import(JpaAuditingConfig.class)
+class PostCreateIdTest {
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManager jpaEntityManager;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private PostRepository postRepository;
+
+    private final PostMapper postMapper = Mappers.getMapper(PostMapper.class);
+    private CategoryService categoryService;
+    private TagService tagService;
+    private PostSearchIndex postSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        Category category = entityManager.persist(new Category(null, "News", "d"));
+        categoryService = mock(CategoryService.class);
+        when(categoryService.getCategory(any())).thenReturn(category);
+        tagService = mock(TagService.class);
+        postSearchIndex = new PostSearchIndex(postRepository, 3, false, 100);
+    }
+
+    @Test
+    void create_ShouldReturnAndIndexPostWithId() {
+        when(tagService.proceedTagsWhenCreatingPost(any())).thenReturn(List.of());
+        PostService postService = new PostService(postRepository, null, postMapper, categoryService, tagService,
+                null, mock(LikeBuffer.class), null, null, postSearchIndex, null);
+        PostCreateDTO dto = new PostCreateDTO();
+        dto.setTitle("Night walk");
+        dto.setContent("c");
+        dto.setAuthorId(1L);
+        CategoryDTO category = new CategoryDTO();
+        category.setCategoryName("News");
+        dto.setCategory(category);
+
+        PostDTO created = postService.create(dto);
+
+        assertNotNull(created.getId());
+        assertEquals(0L, created.getVersion());
+        assertEquals(created.getId(), postSearchIndex.search("night", 10).get(0).getId());
+        assertTrue(postRepository.existsById(created.getId()));
+    }
+
+    @Test
+    void importPosts_ShouldReportIdsOfPersistedPosts() throws Exception {
+        when(tagService.resolveTags(anyCollection())).thenReturn(Map.of());
+        PostImportService importService = new PostImportService(postRepository, postMapper, categoryService, tagService,
+                postSearchIndex, jpaEntityManager, transactionManager, new ObjectMapper(), 2);
+        String ndjson = """
+                {"title":"First","content":"c","authorId":1,"category":{"categoryName":"News"}}
+                {"title":"Second","content":"c","authorId":1,"category":{"categoryName":"News"}}
+                {"title":"Third","content":"c","authorId":1,"category":{"categoryName":"News"}}
+                """;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        importService.importPosts(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(3, lines.size());
+        for (String line : lines) {
+            // null-поля в результате не пишутся
+            assertTrue(line.contains("\"id\":"), line);
+            assertFalse(line.contains("\"error\""), line);
+        }
+        assertEquals(3, postRepository.count());
+    }
+}
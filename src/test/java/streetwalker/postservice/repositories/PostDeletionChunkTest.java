@@ -0,0 +1,70 @@
+package streetwalker.postservice.repositories;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import streetwalker.postservice.config.JpaAuditingConfig;
+import streetwalker.postservice.models.Post;
+import streetwalker.postservice.services.CommentPath;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(JpaAuditingConfig.class)
+class PostDeletionChunkTest {
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PostRepository postRepository;
+
+    private Long postId;
+
+    @BeforeEach
+    void setUp() {
+        Post post = new Post();
+        post.setTitle("Walk");
+        post.setAuthorId(1L);
+        postId = entityManager.persistAndFlush(post).getId();
+    }
+
+    private void insertComment(long id, Long parentId, String parentPath, int depth) {
+        jdbcTemplate.update("""
+                insert into comment (id, content, author_id, post_id, parent_comment_id, path, depth)
+                values (?, 'c', 1, ?, ?, ?, ?)""",
+                id, postId, parentId, CommentPath.of(parentPath, id), depth);
+    }
+
+    @Test
+    void deleteCommentsChunk_ReplyWithLowerIdThanParent_ShouldGoFirst() {
+        // Узлы с разными блоками пулового sequence: у ответа id меньше, чем у родителя
+        insertComment(100, null, null, 0);
+        insertComment(50, 100L, CommentPath.of(null, 100L), 1);
+        insertComment(10, 50L, CommentPath.of(CommentPath.of(null, 100L), 50L), 2);
+        insertComment(70, 100L, CommentPath.of(null, 100L), 1);
+
+        int chunks = 0;
+        while (postRepository.deleteCommentsChunk(postId, 1) > 0) {
+            chunks++;
+        }
+
+        assertEquals(4, chunks);
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from comment where post_id = ?", Integer.class, postId));
+    }
+
+    @Test
+    void deleteCommentsChunk_ShouldRemoveAtMostChunkSizeRows() {
+        insertComment(100, null, null, 0);
+        insertComment(50, 100L, CommentPath.of(null, 100L), 1);
+        insertComment(60, 100L, CommentPath.of(null, 100L), 1);
+
+        assertEquals(2, postRepository.deleteCommentsChunk(postId, 2));
+        assertEquals(1, postRepository.deleteCommentsChunk(postId, 2));
+        assertEquals(0, postRepository.deleteCommentsChunk(postId, 2));
+    }
+}
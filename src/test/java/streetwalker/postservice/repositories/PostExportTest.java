@@ -0,0 +1,105 @@
+package streetwalker.postservice.repositories;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import streetwalker.postservice.dto.post.PostExportRow;
+import streetwalker.postservice.models.Category;
+import streetwalker.postservice.models.Post;
+import streetwalker.postservice.models.Tag;
+import streetwalker.postservice.services.PostExportService;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class PostExportTest {
+    private static final OffsetDateTime DAY_1 = OffsetDateTime.of(2026, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final OffsetDateTime DAY_2 = DAY_1.plusDays(1);
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private PostRepository postRepository;
+
+    private Long firstId;
+
+    @BeforeEach
+    void setUp() {
+        Category category = entityManager.persist(new Category(null, "News", "d"));
+        Tag java = entityManager.persist(new Tag(null, "java", "d"));
+        Tag spring = entityManager.persist(new Tag(null, "spring", "d"));
+
+        Post first = post("First", "plain", DAY_1);
+        first.setCategory(category);
+        first.setTags(new ArrayList<>(List.of(spring, java)));
+        firstId = entityManager.persist(first).getId();
+        entityManager.persist(post("Second, quoted", "line \"one\"\nline two", DAY_2));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static Post post(String title, String content, OffsetDateTime updatedAt) {
+        Post post = new Post();
+        post.setTitle(title);
+        post.setContent(content);
+        post.setAuthorId(1L);
+        post.setCreatedAt(DAY_1);
+        post.setUpdatedAt(updatedAt);
+        return post;
+    }
+
+    @Test
+    void streamExportRows_ShouldReadAllPostsInIdOrderWithTags() {
+        List<PostExportRow> rows = new ArrayList<>();
+        postRepository.streamExportRows(null, rows::add);
+
+        assertEquals(2, rows.size());
+        assertEquals(firstId, rows.get(0).getId());
+        assertEquals("News", rows.get(0).getCategoryName());
+        assertEquals(List.of("java", "spring"), rows.get(0).getTags());
+        assertEquals(List.of(), rows.get(1).getTags());
+        assertNull(rows.get(1).getCategoryName());
+    }
+
+    @Test
+    void streamExportRows_UpdatedSince_ShouldSkipOlderPosts() {
+        List<PostExportRow> rows = new ArrayList<>();
+        postRepository.streamExportRows(DAY_2, rows::add);
+
+        assertEquals(List.of("Second, quoted"), rows.stream().map(PostExportRow::getTitle).toList());
+    }
+
+    @Test
+    void export_Csv_ShouldQuoteFieldsAndJoinTags() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new PostExportService(postRepository, new ObjectMapper()).export(PostExportService.Format.CSV, null, out);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.startsWith("id,title,content,author_id,like_count,category,tags,created_at,updated_at\n"));
+        assertTrue(csv.contains(",First,plain,1,0,News,java|spring,"));
+        assertTrue(csv.contains(",\"Second, quoted\",\"line \"\"one\"\"\nline two\",1,0,,,"));
+    }
+
+    @Test
+    void export_Ndjson_ShouldWriteOneObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ObjectMapper objectMapper = new ObjectMapper();
+        new PostExportService(postRepository, objectMapper).export(PostExportService.Format.NDJSON, null, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("First", objectMapper.readTree(lines[0]).get("title").asText());
+        assertEquals("spring", objectMapper.readTree(lines[0]).get("tags").get(1).asText());
+        assertEquals("line \"one\"\nline two", objectMapper.readTree(lines[1]).get("content").asText());
+    }
+}
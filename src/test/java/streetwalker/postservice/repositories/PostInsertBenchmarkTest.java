@@ -0,0 +1,143 @@
+package streetwalker.postservice.repositories;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import streetwalker.postservice.config.JpaAuditingConfig;
+import streetwalker.postservice.models.Comment;
+import streetwalker.postservice.models.Post;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Вставки постов с комментариями в секунду: INSERT ... RETURNING id на строку (как при IDENTITY)
+ * против pooled sequence с JDBC-батчами. Запуск: {@code ./gradlew benchmark}, результат в логе.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@Import(JpaAuditingConfig.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@AutoConfigureEmbeddedDatabase(type = DatabaseType.POSTGRES, provider = DatabaseProvider.ZONKY)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PostInsertBenchmarkTest {
+    private static final Logger log = LoggerFactory.getLogger(PostInsertBenchmarkTest.class);
+    private static final int WARMUP_POSTS = 1_000;
+    private static final int POSTS = 5_000;
+    private static final int COMMENTS_PER_POST = 2;
+    private static final int FLUSH_EVERY = 50;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void identityInserts_vs_batchedSequenceInserts() throws SQLException {
+        jdbcTemplate.execute("create table bench_identity_post (id bigserial primary key, title varchar(255), content varchar(255), author_id bigint)");
+        jdbcTemplate.execute("create table bench_identity_comment (id bigserial primary key, post_id bigint, content varchar(255), author_id bigint)");
+
+        identityInserts(WARMUP_POSTS);
+        batchedInserts(WARMUP_POSTS);
+
+        long start = System.nanoTime();
+        identityInserts(POSTS);
+        double before = rowsPerSecond(System.nanoTime() - start);
+
+        start = System.nanoTime();
+        batchedInserts(POSTS);
+        double after = rowsPerSecond(System.nanoTime() - start);
+
+        log.info("IDENTITY, row by row: {} inserts/sec", Math.round(before));
+        log.info("SEQUENCE + JDBC batching: {} inserts/sec ({}x)", Math.round(after), String.format("%.1f", after / before));
+
+        long expectedRows = (long) (WARMUP_POSTS + POSTS) * (1 + COMMENTS_PER_POST);
+        assertEquals(expectedRows, jdbcTemplate.queryForObject(
+                "select (select count(*) from post) + (select count(*) from comment)", Long.class));
+    }
+
+    // Так работает IDENTITY: каждая строка — отдельный round trip с возвратом ключа
+    private void identityInserts(int posts) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insertPost = connection.prepareStatement(
+                     "insert into bench_identity_post (title, content, author_id) values (?, ?, ?)", Statement.RETURN_GENERATED_KEYS);
+             PreparedStatement insertComment = connection.prepareStatement(
+                     "insert into bench_identity_comment (post_id, content, author_id) values (?, ?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < posts; i++) {
+                insertPost.setString(1, "Post " + i);
+                insertPost.setString(2, "content");
+                insertPost.setLong(3, i);
+                insertPost.executeUpdate();
+                long postId;
+                try (ResultSet keys = insertPost.getGeneratedKeys()) {
+                    keys.next();
+                    postId = keys.getLong(1);
+                }
+                for (int c = 0; c < COMMENTS_PER_POST; c++) {
+                    insertComment.setLong(1, postId);
+                    insertComment.setString(2, "comment");
+                    insertComment.setLong(3, c);
+                    insertComment.executeUpdate();
+                    try (ResultSet keys = insertComment.getGeneratedKeys()) {
+                        keys.next();
+                    }
+                }
+            }
+            connection.commit();
+        }
+    }
+
+    private void batchedInserts(int posts) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            for (int i = 0; i < posts; i++) {
+                Post post = new Post();
+                post.setTitle("Post " + i);
+                post.setContent("content");
+                post.setAuthorId((long) i);
+                entityManager.persist(post);
+                for (int c = 0; c < COMMENTS_PER_POST; c++) {
+                    Comment comment = new Comment();
+                    comment.setPost(post);
+                    comment.setContent("comment");
+                    comment.setAuthorId((long) c);
+                    entityManager.persist(comment);
+                }
+                if ((i + 1) % FLUSH_EVERY == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private static double rowsPerSecond(long nanos) {
+        return POSTS * (1 + COMMENTS_PER_POST) / (nanos / 1_000_000_000.0);
+    }
+}
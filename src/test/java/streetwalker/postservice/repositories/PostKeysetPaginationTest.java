@@ -0,0 +1,114 @@
+package streetwalker.postservice.repositories;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import streetwalker.postservice.config.JpaAuditingConfig;
+import streetwalker.postservice.dto.post.PostDTO;
+import streetwalker.postservice.dto.post.PostSliceDTO;
+import streetwalker.postservice.mappers.PostMapper;
+import streetwalker.postservice.models.Post;
+import streetwalker.postservice.services.LikeBuffer;
+import streetwalker.postservice.services.PostFields;
+import streetwalker.postservice.services.PostService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+@Import(JpaAuditingConfig.class)
+class PostKeysetPaginationTest {
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private PostRepository postRepository;
+
+    private PostService postService;
+
+    @BeforeEach
+    void setUp() {
+        postService = new PostService(postRepository, null, Mappers.getMapper(PostMapper.class),
+                null, null, null, mock(LikeBuffer.class), null, null, null, null);
+        // Часть постов получает одинаковый created_at — порядок среди них держится на id
+        for (int i = 0; i < 25; i++) {
+            Post post = new Post();
+            post.setTitle(i % 5 == 0 ? "Other " + i : "Walk " + i);
+            post.setAuthorId(1L);
+            entityManager.persist(post);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void getPostsAfter_ShouldWalkAllMatchingPostsOnceNewestFirst() {
+        List<String> titles = new ArrayList<>();
+        String after = null;
+        int pages = 0;
+        do {
+            PostSliceDTO slice = postService.getPostsAfter(after, 7, "walk");
+            slice.getContent().stream().map(PostDTO::getTitle).forEach(titles::add);
+            after = slice.getNextCursor();
+            pages++;
+        } while (after != null);
+
+        assertEquals(3, pages);
+        assertEquals(20, titles.size());
+        assertEquals(20, titles.stream().distinct().count());
+        assertEquals("Walk 24", titles.get(0));
+        assertEquals("Walk 1", titles.get(titles.size() - 1));
+    }
+
+    @Test
+    void getPostsAfter_TitleWithWildcards_ShouldMatchThemLiterally() {
+        for (String title : List.of("10% walk", "20% walk", "200 walk")) {
+            Post post = new Post();
+            post.setTitle(title);
+            post.setAuthorId(1L);
+            entityManager.persist(post);
+        }
+        entityManager.flush();
+
+        // Без экранирования "0%" совпал бы и с "200 walk", и с "Walk 10", "Walk 20"
+        List<String> titles = new ArrayList<>();
+        String after = null;
+        do {
+            PostSliceDTO slice = postService.getPostsAfter(after, 1, "0%");
+            slice.getContent().stream().map(PostDTO::getTitle).forEach(titles::add);
+            after = slice.getNextCursor();
+        } while (after != null);
+
+        assertEquals(List.of("20% walk", "10% walk"), titles);
+        assertTrue(postService.getPostsAfter(null, 10, "w_lk").getContent().isEmpty());
+    }
+
+    @Test
+    void getPostsAfter_WithFields_ShouldWalkSamePostsWithSparseRows() {
+        List<String> titles = new ArrayList<>();
+        String after = null;
+        do {
+            PostSliceDTO slice = postService.getPostsAfter(after, 7, "walk", PostFields.parse("title"));
+            slice.getContent().forEach(post -> assertNull(post.getCreatedAt()));
+            slice.getContent().stream().map(PostDTO::getTitle).forEach(titles::add);
+            after = slice.getNextCursor();
+        } while (after != null);
+
+        assertEquals(20, titles.size());
+        assertEquals(20, titles.stream().distinct().count());
+        assertEquals("Walk 24", titles.get(0));
+    }
+
+    @Test
+    void save_ShouldFillCreatedAt() {
+        Post post = postRepository.findAll().get(0);
+
+        assertNotNull(post.getCreatedAt());
+    }
+}
@@ -0,0 +1,213 @@
+package streetwalker.postservice.repositories;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import streetwalker.postservice.config.JpaAuditingConfig;
+import streetwalker.postservice.dto.post.PostBatchDTO;
+import streetwalker.postservice.dto.post.PostDTO;
+import streetwalker.postservice.dto.post.PostSliceDTO;
+import streetwalker.postservice.mappers.PostMapper;
+import streetwalker.postservice.models.Category;
+import streetwalker.postservice.models.Post;
+import streetwalker.postservice.models.Tag;
+import streetwalker.postservice.services.LikeBuffer;
+import streetwalker.postservice.services.PostCache;
+import streetwalker.postservice.services.PostETag;
+import streetwalker.postservice.services.PostFields;
+import streetwalker.postservice.services.PostService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(JpaAuditingConfig.class)
+class PostListingQueryCountTest {
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PostRepository postRepository;
+
+    private PostService postService;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        postService = new PostService(postRepository, null, Mappers.getMapper(PostMapper.class),
+                null, null, null, mock(LikeBuffer.class), null,
+                new PostCache(Mappers.getMapper(PostMapper.class), 100, Duration.ofMinutes(1)), null, null);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Category category = entityManager.persist(new Category(null, "city", "city walks"));
+        Tag night = entityManager.persist(new Tag(null, "night", "after dark"));
+        Tag rain = entityManager.persist(new Tag(null, "rain", null));
+        for (int i = 0; i < 60; i++) {
+            Post post = new Post();
+            post.setTitle("Walk " + i);
+            post.setContent("content " + i);
+            post.setAuthorId(100L + i);
+            post.setLikeCount(i);
+            post.setCategory(i % 2 == 0 ? category : null);
+            post.setTags(new ArrayList<>(i % 3 == 0 ? List.of(rain, night) : List.of(night)));
+            entityManager.persist(post);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void getPosts_ShouldUseConstantNumberOfStatementsPerPage() {
+        Page<PostDTO> page = postService.getPosts(PageRequest.of(0, 50, Sort.by("id")), "walk");
+
+        assertEquals(50, page.getContent().size());
+        assertEquals(60, page.getTotalElements());
+        // Страница, count и один запрос тегов — независимо от размера страницы
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getPosts_ShouldMapCategoryTagsAndLikeCount() {
+        List<PostDTO> posts = postService.getPosts(PageRequest.of(0, 2, Sort.by("id")), "").getContent();
+
+        PostDTO first = posts.get(0);
+        assertEquals("Walk 0", first.getTitle());
+        assertEquals(0, first.getLikes());
+        assertEquals("city", first.getCategory().getCategoryName());
+        // Записаны в порядке rain, night — отдаются по имени, чтобы ETag не зависел от плана запроса
+        assertEquals(List.of("night", "rain"), first.getTags().stream().map(tag -> tag.getName()).toList());
+
+        PostDTO second = posts.get(1);
+        assertEquals(1, second.getLikes());
+        assertNull(second.getCategory());
+        assertEquals(List.of("night"), second.getTags().stream().map(tag -> tag.getName()).toList());
+        assertNull(second.getComments());
+    }
+
+    @Test
+    void getPosts_TitleWithWildcards_ShouldMatchThemLiterally() {
+        for (String title : List.of("50% off", "500 off", "a_b route", "axb route")) {
+            Post post = new Post();
+            post.setTitle(title);
+            post.setAuthorId(1L);
+            entityManager.persist(post);
+        }
+        entityManager.flush();
+
+        Page<PostDTO> percent = postService.getPosts(PageRequest.of(0, 10), "50%");
+        Page<PostDTO> underscore = postService.getPosts(PageRequest.of(0, 10), "a_b");
+
+        assertEquals(List.of("50% off"), percent.getContent().stream().map(PostDTO::getTitle).toList());
+        assertEquals(1, percent.getTotalElements());
+        assertEquals(List.of("a_b route"), underscore.getContent().stream().map(PostDTO::getTitle).toList());
+        assertEquals(1, underscore.getTotalElements());
+    }
+
+    @Test
+    void getPosts_WithFieldsAndWildcardTitle_ShouldAgreeWithTotal() {
+        for (String title : List.of("50% off", "500 off")) {
+            Post post = new Post();
+            post.setTitle(title);
+            post.setAuthorId(1L);
+            entityManager.persist(post);
+        }
+        entityManager.flush();
+
+        // Строки из criteria-запроса и count из производного запроса должны экранировать одинаково
+        // Страница размером 1 заполнена, поэтому total берётся из count, а не из размера страницы
+        Page<PostDTO> page = postService.getPosts(PageRequest.of(0, 1), "50%", PostFields.parse("title"));
+
+        assertEquals(List.of("50% off"), page.getContent().stream().map(PostDTO::getTitle).toList());
+        assertEquals(1, page.getTotalElements());
+    }
+
+    @Test
+    void getPostsETag_ShouldMatchLoadedPageWithoutTagsQuery() {
+        PageRequest pageable = PageRequest.of(1, 20, Sort.by("id"));
+
+        String validator = postService.getPostsETag(pageable, "walk", null);
+        // Только id/version/like_count страницы и count — ни тегов, ни категорий
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(PostETag.ofPage(postService.getPosts(pageable, "walk"), null), validator);
+
+        PostFields fields = PostFields.parse("title");
+        assertEquals(PostETag.ofPage(postService.getPosts(pageable, "walk", fields), fields),
+                postService.getPostsETag(pageable, "walk", fields));
+    }
+
+    @Test
+    void getPostsAfterETag_ShouldMatchLoadedSlice() {
+        PostSliceDTO first = postService.getPostsAfter(null, 25, "walk");
+        statistics.clear();
+
+        String validator = postService.getPostsAfterETag(first.getNextCursor(), 25, "walk", null);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        PostSliceDTO second = postService.getPostsAfter(first.getNextCursor(), 25, "walk");
+        assertEquals(PostETag.ofSlice(second.getContent(), first.getNextCursor(), 25, second.getNextCursor(), null), validator);
+    }
+
+    @Test
+    void getPostsByIds_ShouldUseTwoStatementsAndKeepRequestOrder() {
+        List<Long> ids = postRepository.findAll(Sort.by("id")).stream().map(Post::getId).limit(40).toList();
+        statistics.clear();
+        List<Long> requested = new ArrayList<>(ids);
+        Collections.reverse(requested);
+        requested.add(-1L);
+
+        PostBatchDTO batch = postService.getPosts(requested);
+
+        assertEquals(requested.subList(0, 40), batch.getPosts().stream().map(PostDTO::getId).toList());
+        assertEquals(List.of(-1L), batch.getMissingIds());
+        // Проекция постов и теги — два IN-запроса на весь батч
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        postService.getPosts(requested.subList(0, 40));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getPosts_WithFields_ShouldSkipTagsQueryAndUnrequestedColumns() {
+        Page<PostDTO> page = postService.getPosts(PageRequest.of(0, 50, Sort.by("id")), "walk", PostFields.parse("title,likes"));
+
+        assertEquals(50, page.getContent().size());
+        assertEquals(60, page.getTotalElements());
+        PostDTO first = page.getContent().get(0);
+        assertEquals("Walk 0", first.getTitle());
+        assertEquals(0, first.getLikes());
+        assertNull(first.getContent());
+        assertNull(first.getTags());
+        assertNull(first.getCategory());
+        // Страница и count, без запроса к post_tags
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getPosts_WithTagsAndCategoryFields_ShouldLoadThemInTwoMoreQueriesAtMost() {
+        Page<PostDTO> page = postService.getPosts(PageRequest.of(0, 2, Sort.by("id")), "", PostFields.parse("tags,category"));
+
+        PostDTO first = page.getContent().get(0);
+        assertEquals("city", first.getCategory().getCategoryName());
+        // Записаны в порядке rain, night — отдаются по имени, чтобы ETag не зависел от плана запроса
+        assertEquals(List.of("night", "rain"), first.getTags().stream().map(tag -> tag.getName()).toList());
+        assertNull(page.getContent().get(1).getCategory());
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,85 @@
+package streetwalker.postservice.repositories;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import streetwalker.postservice.dto.category.CategoryDTO;
+import streetwalker.postservice.mappers.CategoryMapper;
+import streetwalker.postservice.models.Category;
+import streetwalker.postservice.models.Tag;
+import streetwalker.postservice.services.CategoryService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Без общей транзакции теста: каждый вызов идёт в своей сессии, как в приложении
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReferenceDataCacheTest {
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private TagRepository tagRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private CategoryService categoryService;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        categoryService = new CategoryService(categoryRepository, Mappers.getMapper(CategoryMapper.class));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        categoryRepository.deleteAll();
+        tagRepository.deleteAll();
+    }
+
+    @Test
+    void getCategory_RepeatedLookup_ShouldNotReachDatabase() {
+        CategoryDTO dto = new CategoryDTO();
+        dto.setCategoryName("City");
+        categoryService.createCategory(dto);
+        categoryService.getCategory("city");
+        statistics.clear();
+
+        Category category = categoryService.getCategory(" CITY ");
+
+        assertEquals("City", category.getCategoryName());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+    }
+
+    @Test
+    void findAllByTagNames_RepeatedLookup_ShouldNotReachDatabase() {
+        tagRepository.saveAll(List.of(new Tag(null, "night", "d"), new Tag(null, "rain", "d")));
+        tagRepository.findAllByTagNames(List.of("night", "rain"));
+        statistics.clear();
+
+        List<Tag> tags = tagRepository.findAllByTagNames(List.of("night", "rain"));
+
+        assertEquals(List.of("night", "rain"), tags.stream().map(Tag::getTagName).toList());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAllByTagNames_ShouldSkipMissingNames() {
+        tagRepository.save(new Tag(null, "night", "d"));
+
+        List<Tag> tags = tagRepository.findAllByTagNames(List.of("missing", "night"));
+
+        assertEquals(List.of("night"), tags.stream().map(Tag::getTagName).toList());
+    }
+}
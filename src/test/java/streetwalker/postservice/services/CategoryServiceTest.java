@@ -40,6 +40,17 @@ class CategoryServiceTest {
         verify(categoryRepository, times(1)).findByCategoryNameIgnoreCase("Tech");
     }
 
+    @Test
+    void getCategory_UsesNaturalIdLookup_WithNormalizedName() {
+        Category category = new Category(1L, "Tech", "Tech category");
+        when(categoryRepository.findByNameKey("tech")).thenReturn(Optional.of(category));
+
+        Category result = categoryService.getCategory("  TECH ");
+
+        assertSame(category, result);
+        verify(categoryRepository, never()).findByCategoryNameIgnoreCase(any());
+    }
+
     @Test
     void getCategory_ThrowsException_WhenNotFound() {
         when(categoryRepository.findByCategoryNameIgnoreCase("Unknown")).thenReturn(Optional.empty());
@@ -1,21 +1,31 @@
 package streetwalker.postservice.services;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import streetwalker.postservice.dto.comment.CommentCreateDTO;
+import streetwalker.postservice.dto.comment.CommentNodeDTO;
+import streetwalker.postservice.dto.comment.CommentRepliesDTO;
+import streetwalker.postservice.dto.comment.CommentReplyDTO;
+import streetwalker.postservice.dto.comment.CommentRow;
+import streetwalker.postservice.dto.comment.CommentSubtreeDeletion;
+import streetwalker.postservice.dto.comment.CommentTreeDTO;
 import streetwalker.postservice.dto.comment.CommentUpdateDTO;
 import streetwalker.postservice.models.Comment;
 import streetwalker.postservice.models.Post;
 import streetwalker.postservice.repositories.CommentRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,9 +34,16 @@ public class CommentServiceTest {
     @Mock
     private CommentRepository commentRepository;
 
-    @InjectMocks
+    @Mock
+    private PostCache postCache;
+
     private CommentService service;
 
+    @BeforeEach
+    void setUp() {
+        service = new CommentService(commentRepository, postCache, 5, 3, false);
+    }
+
     // ==================== createComment ====================
 
     @Test
@@ -40,7 +57,7 @@ public class CommentServiceTest {
         post.setId(1L);
 
         ArgumentCaptor<Comment> captor = ArgumentCaptor.forClass(Comment.class);
-        when(commentRepository.save(any(Comment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(commentRepository.save(any(Comment.class))).thenAnswer(invocation -> withId(invocation.getArgument(0), 5L));
 
         Comment saved = service.createComment(commentDTO, post);
 
@@ -62,6 +79,8 @@ public class CommentServiceTest {
         parentComment.setId(1L);
         parentComment.setAuthorId(2L);
         parentComment.setContent("Parent comment");
+        parentComment.setPath(CommentPath.segment(1L));
+        parentComment.setDepth(0);
 
         CommentCreateDTO commentDTO = new CommentCreateDTO();
         commentDTO.setParentCommentId(1L);
@@ -73,7 +92,7 @@ public class CommentServiceTest {
         post.setId(2L);
 
         when(commentRepository.findById(1L)).thenReturn(Optional.of(parentComment));
-        when(commentRepository.save(any(Comment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(commentRepository.save(any(Comment.class))).thenAnswer(invocation -> withId(invocation.getArgument(0), 12L));
 
         Comment saved = service.createComment(commentDTO, post);
 
@@ -83,6 +102,25 @@ public class CommentServiceTest {
         assertEquals(parentComment, saved.getParentComment());
     }
 
+    @Test
+    void createComment_tooDeep_shouldThrow() {
+        Comment parentComment = new Comment();
+        parentComment.setId(1L);
+        parentComment.setPath(CommentPath.segment(1L));
+        parentComment.setDepth(CommentPath.MAX_DEPTH);
+
+        CommentCreateDTO commentDTO = new CommentCreateDTO();
+        commentDTO.setParentCommentId(1L);
+
+        when(commentRepository.findById(1L)).thenReturn(Optional.of(parentComment));
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () ->
+                service.createComment(commentDTO, new Post())
+        );
+        assertEquals("Reply nesting is too deep", ex.getMessage());
+        verify(commentRepository, never()).save(any());
+    }
+
     @Test
     void createComment_withInvalidParent_shouldThrow() {
         CommentCreateDTO commentDTO = new CommentCreateDTO();
@@ -136,24 +174,157 @@ public class CommentServiceTest {
     // ==================== deleteComment ====================
 
     @Test
-    void deleteComment_shouldDeleteIfExists() {
-        Comment comment = new Comment();
-        comment.setId(1L);
+    void deleteComment_shouldDeleteSubtreeWithoutLoadingIt() {
+        when(commentRepository.deleteSubtree(1L)).thenReturn(new CommentSubtreeDeletion(3, 7L));
 
-        when(commentRepository.findById(1L)).thenReturn(Optional.of(comment));
+        service.deleteComment(1L);
+
+        verify(commentRepository).deleteSubtree(1L);
+        verify(commentRepository, never()).findById(any());
+        verify(commentRepository, never()).deleteById(any());
+    }
+
+    @Test
+    void deleteComment_shouldInvalidateCachedPost() {
+        when(commentRepository.deleteSubtree(1L)).thenReturn(new CommentSubtreeDeletion(1, 7L));
 
         service.deleteComment(1L);
 
-        verify(commentRepository).deleteById(1L);
+        verify(postCache).invalidate(7L);
     }
 
     @Test
     void deleteComment_shouldThrowIfNotFound() {
-        when(commentRepository.findById(123L)).thenReturn(Optional.empty());
+        when(commentRepository.deleteSubtree(123L)).thenReturn(new CommentSubtreeDeletion(0, null));
 
         RuntimeException ex = assertThrows(RuntimeException.class, () ->
                 service.deleteComment(123L)
         );
         assertEquals("Comment not found", ex.getMessage());
+        verifyNoInteractions(postCache);
+    }
+
+    // ==================== getReplies ====================
+
+    @Test
+    void getReplies_shouldFetchOneExtraRowToDetectNextPage() {
+        when(commentRepository.findFirstReplies(1L, CommentPath.MAX_SEGMENT, Limit.of(3))).thenReturn(List.of(
+                new CommentReplyDTO(2L, 1L, 5L, "a", 1),
+                new CommentReplyDTO(4L, 2L, 5L, "b", 2),
+                new CommentReplyDTO(3L, 1L, 5L, "c", 1)));
+
+        CommentRepliesDTO page = service.getReplies(1L, null, 2);
+
+        assertEquals(List.of(2L, 4L), page.getReplies().stream().map(CommentReplyDTO::getId).toList());
+        assertTrue(page.isHasNext());
+        assertEquals(4L, page.getNextCursor());
+    }
+
+    @Test
+    void getReplies_withCursor_shouldContinueAfterIt() {
+        when(commentRepository.findRepliesAfter(1L, 4L, CommentPath.MAX_SEGMENT, Limit.of(3))).thenReturn(List.of(
+                new CommentReplyDTO(3L, 1L, 5L, "c", 1)));
+
+        CommentRepliesDTO page = service.getReplies(1L, 4L, 2);
+
+        assertEquals(1, page.getReplies().size());
+        assertFalse(page.isHasNext());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getReplies_shouldRejectOutOfRangeLimit() {
+        assertThrows(RuntimeException.class, () -> service.getReplies(1L, null, 0));
+        assertThrows(RuntimeException.class, () -> service.getReplies(1L, null, 101));
+        verifyNoInteractions(commentRepository);
+    }
+
+    // ==================== getCommentTree ====================
+
+    @Test
+    void getCommentTree_shouldNestRepliesUnderParents() {
+        when(commentRepository.findRowsByPostId(eq(1L), any(Limit.class))).thenReturn(List.of(
+                new CommentRow(10L, null, 1L, "root"),
+                new CommentRow(11L, 10L, 2L, "reply"),
+                new CommentRow(12L, null, 3L, "second root"),
+                new CommentRow(13L, 11L, 4L, "reply to reply")));
+
+        CommentTreeDTO tree = service.getCommentTree(1L);
+
+        assertEquals(4, tree.getSize());
+        assertFalse(tree.isTruncated());
+        assertEquals(List.of(10L, 12L), tree.getComments().stream().map(CommentNodeDTO::getId).toList());
+        CommentNodeDTO reply = tree.getComments().get(0).getReplies().get(0);
+        assertEquals(11L, reply.getId());
+        assertEquals(13L, reply.getReplies().get(0).getId());
+        verify(commentRepository).findRowsByPostId(eq(1L), argThat(limit -> limit.max() == 6));
+    }
+
+    @Test
+    void getCommentTree_shouldKeepRepliesWithLowerIdThanParent() {
+        // Пуловые sequence на разных узлах: ответ 5 получил id меньше родителя 60
+        when(commentRepository.findRowsByPostId(eq(1L), any(Limit.class))).thenReturn(List.of(
+                new CommentRow(5L, 60L, 2L, "reply from another node"),
+                new CommentRow(60L, null, 1L, "root"),
+                new CommentRow(3L, 5L, 3L, "reply to reply")));
+
+        CommentTreeDTO tree = service.getCommentTree(1L);
+
+        assertEquals(3, tree.getSize());
+        assertFalse(tree.isTruncated());
+        CommentNodeDTO root = tree.getComments().get(0);
+        assertEquals(60L, root.getId());
+        assertEquals(5L, root.getReplies().get(0).getId());
+        assertEquals(3L, root.getReplies().get(0).getReplies().get(0).getId());
+    }
+
+    @Test
+    void getCommentTree_shouldMarkReplyWithMissingParentAsTruncated() {
+        when(commentRepository.findRowsByPostId(eq(1L), any(Limit.class))).thenReturn(List.of(
+                new CommentRow(1L, null, 1L, "root"),
+                new CommentRow(2L, 99L, 1L, "parent cut by the limit")));
+
+        CommentTreeDTO tree = service.getCommentTree(1L);
+
+        assertEquals(1, tree.getSize());
+        assertTrue(tree.isTruncated());
+    }
+
+    @Test
+    void getCommentTree_shouldCutBranchesDeeperThanMaxDepth() {
+        when(commentRepository.findRowsByPostId(eq(1L), any(Limit.class))).thenReturn(List.of(
+                new CommentRow(1L, null, 1L, "depth 0"),
+                new CommentRow(2L, 1L, 1L, "depth 1"),
+                new CommentRow(3L, 2L, 1L, "depth 2"),
+                new CommentRow(4L, 3L, 1L, "depth 3"),
+                new CommentRow(5L, 4L, 1L, "depth 4")));
+
+        CommentTreeDTO tree = service.getCommentTree(1L);
+
+        assertEquals(3, tree.getSize());
+        assertTrue(tree.isTruncated());
+        assertTrue(tree.getComments().get(0).getReplies().get(0).getReplies().get(0).getReplies().isEmpty());
+    }
+
+    @Test
+    void getCommentTree_shouldStopAtMaxSize() {
+        when(commentRepository.findRowsByPostId(eq(1L), any(Limit.class))).thenReturn(List.of(
+                new CommentRow(1L, null, 1L, "a"),
+                new CommentRow(2L, null, 1L, "b"),
+                new CommentRow(3L, null, 1L, "c"),
+                new CommentRow(4L, null, 1L, "d"),
+                new CommentRow(5L, null, 1L, "e"),
+                new CommentRow(6L, null, 1L, "f")));
+
+        CommentTreeDTO tree = service.getCommentTree(1L);
+
+        assertEquals(5, tree.getSize());
+        assertEquals(5, tree.getComments().size());
+        assertTrue(tree.isTruncated());
+    }
+
+    private static Comment withId(Comment comment, Long id) {
+        comment.setId(id);
+        return comment;
     }
 }
@@ -0,0 +1,184 @@
+package streetwalker.postservice.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import streetwalker.postservice.models.LikeId;
+import streetwalker.postservice.repositories.PostLikeRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class LikeBufferTest {
+    @Mock
+    private PostLikeRepository postLikeRepository;
+    @Mock
+    private PostLikerIndex postLikerIndex;
+    @Mock
+    private PostCache postCache;
+
+    private LikeBuffer likeBuffer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        likeBuffer = new LikeBuffer(postLikeRepository, postLikerIndex, postCache, true, 100, 1_000, 2);
+    }
+
+    @Test
+    void like_SamePairTwice_ShouldCollapseIntoOneEvent() {
+        likeBuffer.like(1L, 10L);
+        likeBuffer.like(1L, 10L);
+
+        assertEquals(1, likeBuffer.size());
+        assertEquals(1, likeBuffer.pendingDelta(1L));
+        assertTrue(likeBuffer.pendingState(1L, 10L));
+    }
+
+    @Test
+    void unlikeAfterLike_ShouldKeepLastStateAndCancelDelta() {
+        likeBuffer.like(1L, 10L);
+        likeBuffer.unlike(1L, 10L);
+
+        assertEquals(1, likeBuffer.size());
+        assertEquals(-1, likeBuffer.pendingDelta(1L));
+        assertFalse(likeBuffer.pendingState(1L, 10L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldWriteBatchAndClearPendingDeltas() {
+        when(postLikeRepository.applyLikeChanges(anyCollection(), anyCollection())).thenReturn(Map.of(1L, 1));
+        likeBuffer.like(1L, 10L);
+        likeBuffer.like(1L, 11L);
+        likeBuffer.unlike(2L, 10L);
+
+        assertTrue(likeBuffer.flush(true));
+
+        ArgumentCaptor<Collection<LikeId>> likes = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<Collection<LikeId>> unlikes = ArgumentCaptor.forClass(Collection.class);
+        verify(postLikeRepository).applyLikeChanges(likes.capture(), unlikes.capture());
+        assertEquals(2, likes.getValue().size());
+        assertEquals(List.of(new LikeId(2L, 10L)), List.copyOf(unlikes.getValue()));
+        assertEquals(0, likeBuffer.size());
+        assertEquals(0, likeBuffer.pendingDelta(1L));
+        assertEquals(0, likeBuffer.pendingDelta(2L));
+        verify(postLikerIndex).onLike(1L, 10L);
+        verify(postLikerIndex).onUnlike(2L, 10L);
+        verify(postCache).adjustLikes(1L, 1);
+    }
+
+    @Test
+    void flush_WhenWriteFails_ShouldRequeueEvents() {
+        when(postLikeRepository.applyLikeChanges(anyCollection(), anyCollection())).thenThrow(new RuntimeException("db down"));
+        likeBuffer.like(1L, 10L);
+
+        assertFalse(likeBuffer.flush(true));
+
+        assertEquals(1, likeBuffer.size());
+        assertEquals(1, likeBuffer.pendingDelta(1L));
+    }
+
+    @Test
+    void like_WhenMaxSizeReached_ShouldFlushInBackground() {
+        likeBuffer = new LikeBuffer(postLikeRepository, postLikerIndex, postCache, true, 2, 1_000, 2);
+        Thread requestThread = Thread.currentThread();
+        List<Thread> writers = new CopyOnWriteArrayList<>();
+        when(postLikeRepository.applyLikeChanges(anyCollection(), anyCollection())).thenAnswer(invocation -> {
+            writers.add(Thread.currentThread());
+            return Map.of();
+        });
+
+        likeBuffer.like(1L, 10L);
+        likeBuffer.like(1L, 11L);
+
+        verify(postLikeRepository, timeout(1_000)).applyLikeChanges(anyCollection(), anyCollection());
+        assertNotEquals(requestThread, writers.get(0));
+    }
+
+    @Test
+    void like_WhenMaxPendingReached_ShouldRejectNewPairs() {
+        likeBuffer = new LikeBuffer(postLikeRepository, postLikerIndex, postCache, true, 100, 2, 2);
+        likeBuffer.like(1L, 10L);
+        likeBuffer.like(1L, 11L);
+
+        assertThrows(LikeBufferFullException.class, () -> likeBuffer.like(1L, 12L));
+        assertNull(likeBuffer.pendingState(1L, 12L));
+    }
+
+    @Test
+    void flush_WhenBatchKeepsFailing_ShouldDropEventsAfterMaxRetries() {
+        when(postLikeRepository.applyLikeChanges(anyCollection(), anyCollection()))
+                .thenThrow(new RuntimeException("violates foreign key constraint"));
+        likeBuffer.like(1L, 10L);
+        likeBuffer.unlike(1L, 11L);
+
+        // Первая запись и две повторные (max-retries = 2), после чего события выброшены
+        assertFalse(likeBuffer.flush(true));
+        assertFalse(likeBuffer.flush(true));
+        assertEquals(2, likeBuffer.size());
+        assertFalse(likeBuffer.flush(true));
+
+        assertEquals(0, likeBuffer.size());
+        assertEquals(0, likeBuffer.pendingDelta(1L));
+        assertTrue(likeBuffer.flush(true));
+        verify(postLikeRepository, times(3)).applyLikeChanges(anyCollection(), anyCollection());
+        verify(postLikerIndex, never()).onLike(any(), any());
+        verify(postCache, never()).adjustLikes(any(), anyInt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_WhenOnePostKeepsFailing_ShouldStillWriteOtherPosts() {
+        when(postLikeRepository.applyLikeChanges(anyCollection(), anyCollection())).thenAnswer(invocation -> {
+            Collection<LikeId> likes = invocation.getArgument(0);
+            if (likes.stream().anyMatch(key -> key.getObjectId() == 1L)) {
+                throw new RuntimeException("post 1 was deleted");
+            }
+            return Map.of(2L, 1);
+        });
+        likeBuffer.like(1L, 10L);
+        likeBuffer.like(2L, 20L);
+
+        for (int i = 0; i < 5 && likeBuffer.size() > 0; i++) {
+            likeBuffer.flush(true);
+        }
+
+        assertEquals(0, likeBuffer.size());
+        assertEquals(0, likeBuffer.pendingDelta(1L));
+        assertEquals(0, likeBuffer.pendingDelta(2L));
+        verify(postLikerIndex).onLike(2L, 20L);
+        verify(postLikerIndex, never()).onLike(eq(1L), any());
+        verify(postCache).adjustLikes(2L, 1);
+    }
+
+    @Test
+    void drain_ShouldFlushEverythingOnShutdown() {
+        likeBuffer.like(1L, 10L);
+
+        likeBuffer.drain();
+
+        verify(postLikeRepository).applyLikeChanges(anyCollection(), anyCollection());
+        assertEquals(0, likeBuffer.size());
+    }
+
+    @Test
+    void scheduledFlush_WhenDisabled_ShouldDoNothing() {
+        likeBuffer = new LikeBuffer(postLikeRepository, postLikerIndex, postCache, false, 100, 1_000, 2);
+
+        likeBuffer.scheduledFlush();
+
+        verify(postLikeRepository, never()).applyLikeChanges(any(), any());
+    }
+}
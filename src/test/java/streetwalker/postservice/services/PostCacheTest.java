@@ -0,0 +1,80 @@
+package streetwalker.postservice.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import streetwalker.postservice.dto.post.PostDTO;
+import streetwalker.postservice.mappers.PostMapper;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostCacheTest {
+    private PostCache postCache;
+
+    @BeforeEach
+    void setUp() {
+        postCache = new PostCache(Mappers.getMapper(PostMapper.class), 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void get_ShouldLoadOnceAndServeFromCache() {
+        AtomicInteger loads = new AtomicInteger();
+
+        postCache.get(1L, id -> post(id, 3, loads));
+        PostDTO result = postCache.get(1L, id -> post(id, 3, loads));
+
+        assertEquals(1, loads.get());
+        assertEquals(3, result.getLikes());
+        assertEquals(1, postCache.stats().hitCount());
+        assertEquals(1, postCache.stats().missCount());
+    }
+
+    @Test
+    void get_WhenLoaderThrows_ShouldPropagateAndNotCache() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> postCache.get(1L, id -> { throw new RuntimeException("Post not found"); }));
+
+        assertEquals("Post not found", exception.getMessage());
+        assertNull(postCache.getIfPresent(1L));
+    }
+
+    @Test
+    void adjustLikes_ShouldPatchCopyAndLeaveOriginalUntouched() {
+        PostDTO original = post(1L, 5, new AtomicInteger());
+        postCache.put(original);
+
+        postCache.adjustLikes(1L, 1);
+
+        assertEquals(6, postCache.getIfPresent(1L).getLikes());
+        assertEquals("title", postCache.getIfPresent(1L).getTitle());
+        assertEquals(5, original.getLikes());
+    }
+
+    @Test
+    void adjustLikes_WhenNotCached_ShouldDoNothing() {
+        postCache.adjustLikes(1L, 1);
+
+        assertNull(postCache.getIfPresent(1L));
+    }
+
+    @Test
+    void invalidate_ShouldDropEntry() {
+        postCache.put(post(1L, 0, new AtomicInteger()));
+
+        postCache.invalidate(1L);
+
+        assertNull(postCache.getIfPresent(1L));
+    }
+
+    private static PostDTO post(Long id, int likes, AtomicInteger loads) {
+        loads.incrementAndGet();
+        PostDTO dto = new PostDTO();
+        dto.setId(id);
+        dto.setTitle("title");
+        dto.setLikes(likes);
+        return dto;
+    }
+}
@@ -0,0 +1,25 @@
+package streetwalker.postservice.services;
+
+import org.junit.jupiter.api.Test;
+import streetwalker.postservice.repositories.PostRepository;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PostCreatedAtBackfillTest {
+    private final PostRepository postRepository = mock(PostRepository.class);
+
+    @Test
+    void onApplicationReady_ShouldFillMissingCreatedAtWithFallback() {
+        new PostCreatedAtBackfill(postRepository, true).onApplicationReady();
+
+        verify(postRepository).backfillCreatedAt(PostCreatedAtBackfill.FALLBACK);
+    }
+
+    @Test
+    void onApplicationReady_Disabled_ShouldNotTouchPosts() {
+        new PostCreatedAtBackfill(postRepository, false).onApplicationReady();
+
+        verify(postRepository, never()).backfillCreatedAt(any());
+    }
+}
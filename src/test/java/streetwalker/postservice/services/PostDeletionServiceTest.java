@@ -0,0 +1,91 @@
+package streetwalker.postservice.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import streetwalker.postservice.repositories.CommentRepository;
+import streetwalker.postservice.repositories.PostRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostDeletionServiceTest {
+
+    @Mock
+    private PostRepository postRepository;
+    @Mock
+    private CommentRepository commentRepository;
+    @Mock
+    private PostCache postCache;
+    @Mock
+    private PostLikerIndex postLikerIndex;
+
+    private PostDeletionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PostDeletionService(postRepository, commentRepository, postCache, postLikerIndex, 100, 40);
+    }
+
+    @Test
+    void shouldDeleteInBackground_OnlyFromThreshold() {
+        when(postRepository.countDependentRows(1L)).thenReturn(99L);
+        when(postRepository.countDependentRows(2L)).thenReturn(100L);
+
+        assertFalse(service.shouldDeleteInBackground(1L));
+        assertTrue(service.shouldDeleteInBackground(2L));
+    }
+
+    @Test
+    void shouldDeleteInBackground_ZeroThresholdDisablesIt() {
+        service = new PostDeletionService(postRepository, commentRepository, postCache, postLikerIndex, 0, 40);
+
+        assertFalse(service.shouldDeleteInBackground(1L));
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    void deleteInChunks_ShouldDrainCommentsThenLikesThenDeletePost() {
+        when(postRepository.deleteCommentsChunk(1L, 40)).thenReturn(40, 40, 15, 0);
+        when(postRepository.deleteLikesChunk(1L, 40)).thenReturn(7, 0);
+
+        service.deleteInChunks(1L);
+
+        InOrder order = inOrder(postRepository);
+        order.verify(postRepository, times(4)).deleteCommentsChunk(1L, 40);
+        order.verify(postRepository, times(2)).deleteLikesChunk(1L, 40);
+        order.verify(postRepository).deletePostCascade(1L);
+        verify(postCache).invalidate(1L);
+        verify(postLikerIndex).evict(1L);
+    }
+
+    @Test
+    void deleteInChunks_LegacyCommentsWithoutDepth_ShouldBeBackfilledFirst() {
+        when(commentRepository.existsByPostIdAndPathIsNull(1L)).thenReturn(true);
+
+        service.deleteInChunks(1L);
+
+        InOrder order = inOrder(commentRepository, postRepository);
+        order.verify(commentRepository).backfillPaths(1L);
+        order.verify(postRepository).deleteCommentsChunk(1L, 40);
+    }
+
+    @Test
+    void deleteInChunks_FailedChunk_ShouldStopAndStillEvict() {
+        when(postRepository.deleteCommentsChunk(1L, 40)).thenReturn(40)
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+
+        assertDoesNotThrow(() -> service.deleteInChunks(1L));
+
+        verify(postRepository, never()).deleteLikesChunk(anyLong(), anyInt());
+        verify(postRepository, never()).deletePostCascade(anyLong());
+        verify(postCache).invalidate(1L);
+    }
+}
@@ -0,0 +1,39 @@
+package streetwalker.postservice.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostFieldsTest {
+
+    @Test
+    void parse_Blank_ShouldMeanAllFields() {
+        assertNull(PostFields.parse(null));
+        assertNull(PostFields.parse(" "));
+    }
+
+    @Test
+    void parse_ShouldAlwaysIncludeIdAndIgnoreCaseAndSpaces() {
+        PostFields fields = PostFields.parse(" Title , likes,,authorid");
+
+        assertEquals(List.of("id", "title", "likes", "authorId"), List.copyOf(fields.names()));
+        assertTrue(fields.includes(PostFields.LIKES));
+        assertFalse(fields.includes(PostFields.CONTENT));
+    }
+
+    @Test
+    void parse_UnknownField_ShouldThrow() {
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> PostFields.parse("title,comments"));
+
+        assertTrue(ex.getMessage().startsWith("Unknown field comments"));
+    }
+
+    @Test
+    void attributes_ShouldListOnlyColumnsNeededForRequestedFields() {
+        assertEquals(Set.of("version", "title", "likeCount"), PostFields.parse("title,likes,tags").attributes());
+        assertEquals(Set.of("version", "createdAt", "updatedAt", "category"), PostFields.parse("isUpdated,category").attributes());
+    }
+}
@@ -0,0 +1,136 @@
+package streetwalker.postservice.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import streetwalker.postservice.mappers.PostMapper;
+import streetwalker.postservice.models.Category;
+import streetwalker.postservice.models.Post;
+import streetwalker.postservice.models.Tag;
+import streetwalker.postservice.repositories.PostRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostImportServiceTest {
+    @Mock
+    private PostRepository postRepository;
+    @Mock
+    private CategoryService categoryService;
+    @Mock
+    private TagService tagService;
+    @Mock
+    private PostSearchIndex postSearchIndex;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PostImportService importService;
+    private final AtomicLong ids = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        importService = new PostImportService(postRepository, Mappers.getMapper(PostMapper.class), categoryService,
+                tagService, postSearchIndex, entityManager, transactionManager, new ObjectMapper(), 2);
+    }
+
+    private void assignIdsOnSave() {
+        when(postRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Post> posts = invocation.getArgument(0);
+            posts.forEach(post -> post.setId(ids.incrementAndGet()));
+            return posts;
+        });
+    }
+
+    private String run(String ndjson) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        importService.importPosts(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static String record(String title, String category, String... tags) {
+        String tagList = String.join(",", Arrays.stream(tags).map(tag -> "\"" + tag + "\"").toList());
+        return "{\"title\":\"" + title + "\",\"content\":\"c\",\"authorId\":1,\"category\":{\"categoryName\":\"" + category + "\"},\"tags\":[" + tagList + "]}";
+    }
+
+    @Test
+    void importPosts_PersistsInChunksAndResolvesReferenceDataOncePerChunk() throws Exception {
+        assignIdsOnSave();
+        when(categoryService.getCategory("News")).thenReturn(new Category(1L, "News", "d"));
+        when(tagService.resolveTags(anyCollection())).thenReturn(Map.of("java", new Tag(7L, "java", "d")));
+
+        String output = run(String.join("\n",
+                record("a", "News", "java"),
+                record("b", "News", "java"),
+                record("c", "News")) + "\n");
+
+        assertEquals("{\"line\":1,\"id\":1}\n{\"line\":2,\"id\":2}\n{\"line\":3,\"id\":3}\n", output);
+        verify(postRepository, times(2)).saveAll(anyList());
+        verify(categoryService, times(2)).getCategory("News");
+        verify(tagService).resolveTags(Set.of("java"));
+        verify(entityManager, times(2)).clear();
+        verify(postSearchIndex).index(1L, "a", "c");
+    }
+
+    @Test
+    void importPosts_BadRecordsFailIndividually() throws Exception {
+        assignIdsOnSave();
+        when(categoryService.getCategory("News")).thenReturn(new Category(1L, "News", "d"));
+        when(categoryService.getCategory("Missing")).thenThrow(new RuntimeException("Category not found"));
+        when(tagService.resolveTags(anyCollection())).thenReturn(Map.of());
+
+        String output = run(String.join("\n",
+                "{not json",
+                "",
+                "{\"content\":\"no title\"}",
+                record("ok", "News"),
+                record("orphan", "Missing")));
+
+        String[] lines = output.split("\n");
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].startsWith("{\"line\":1,\"error\":\"Malformed JSON"));
+        assertEquals("{\"line\":3,\"error\":\"title is required\"}", lines[1]);
+        assertEquals("{\"line\":4,\"id\":1}", lines[2]);
+        assertEquals("{\"line\":5,\"error\":\"Category not found\"}", lines[3]);
+    }
+
+    @Test
+    void importPosts_FailedChunkReportsEveryRecordAndContinues() throws Exception {
+        when(categoryService.getCategory("News")).thenReturn(new Category(1L, "News", "d"));
+        when(tagService.resolveTags(anyCollection())).thenReturn(Map.of());
+        when(postRepository.saveAll(anyList()))
+                .thenThrow(new RuntimeException("constraint violation"))
+                .thenAnswer(invocation -> {
+                    List<Post> posts = invocation.getArgument(0);
+                    posts.forEach(post -> post.setId(ids.incrementAndGet()));
+                    return posts;
+                });
+
+        String output = run(String.join("\n", record("a", "News"), record("b", "News"), record("c", "News")));
+
+        assertEquals("{\"line\":1,\"error\":\"Chunk failed: constraint violation\"}\n"
+                + "{\"line\":2,\"error\":\"Chunk failed: constraint violation\"}\n"
+                + "{\"line\":3,\"id\":1}\n", output);
+        verify(postSearchIndex, times(1)).index(any(), any(), any());
+    }
+}
@@ -0,0 +1,24 @@
+package streetwalker.postservice.services;
+
+import org.junit.jupiter.api.Test;
+import streetwalker.postservice.repositories.PostRepository;
+
+import static org.mockito.Mockito.*;
+
+class PostLikeCountBackfillTest {
+    private final PostRepository postRepository = mock(PostRepository.class);
+
+    @Test
+    void onApplicationReady_ShouldRecountLikes() {
+        new PostLikeCountBackfill(postRepository, true).onApplicationReady();
+
+        verify(postRepository).backfillLikeCounts();
+    }
+
+    @Test
+    void onApplicationReady_Disabled_ShouldNotTouchPosts() {
+        new PostLikeCountBackfill(postRepository, false).onApplicationReady();
+
+        verify(postRepository, never()).backfillLikeCounts();
+    }
+}
@@ -0,0 +1,128 @@
+package streetwalker.postservice.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import streetwalker.postservice.repositories.PostLikeRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PostLikerIndexTest {
+    @Mock
+    private PostLikeRepository postLikeRepository;
+
+    private PostLikerIndex postLikerIndex;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        postLikerIndex = new PostLikerIndex(postLikeRepository, 1024 * 1024, 4, false);
+    }
+
+    @Test
+    void likedBy_ColdPosts_ShouldUseOneQueryAndBuildBitmaps() {
+        when(postLikeRepository.findLikedPostIds(7L, List.of(1L, 2L))).thenReturn(List.of(2L));
+        likers(1L, 3L);
+        likers(2L, 7L, 8L);
+
+        Map<Long, Boolean> result = postLikerIndex.likedBy(7L, List.of(1L, 2L));
+
+        assertEquals(List.of(1L, 2L), List.copyOf(result.keySet()));
+        assertFalse(result.get(1L));
+        assertTrue(result.get(2L));
+        assertTrue(postLikerIndex.isLoaded(1L));
+        assertTrue(postLikerIndex.isLoaded(2L));
+    }
+
+    @Test
+    void likedBy_HotPosts_ShouldNotTouchDatabase() {
+        when(postLikeRepository.findLikedPostIds(any(), any())).thenReturn(List.of());
+        likers(1L, 3L);
+        postLikerIndex.likedBy(3L, List.of(1L));
+        clearInvocations(postLikeRepository);
+
+        Map<Long, Boolean> result = postLikerIndex.likedBy(3L, List.of(1L));
+
+        assertTrue(result.get(1L));
+        verifyNoInteractions(postLikeRepository);
+    }
+
+    @Test
+    void onLikeAndOnUnlike_ShouldKeepLoadedBitmapInSync() {
+        when(postLikeRepository.findLikedPostIds(any(), any())).thenReturn(List.of());
+        likers(1L);
+        postLikerIndex.likedBy(5L, List.of(1L));
+
+        postLikerIndex.onLike(1L, 5L);
+        assertTrue(postLikerIndex.likedBy(5L, List.of(1L)).get(1L));
+
+        postLikerIndex.onUnlike(1L, 5L);
+        assertFalse(postLikerIndex.likedBy(5L, List.of(1L)).get(1L));
+    }
+
+    @Test
+    void load_WhenOverBudget_ShouldEvictLeastRecentlyUsed() {
+        postLikerIndex = new PostLikerIndex(postLikeRepository, 1, 4, false);
+        when(postLikeRepository.findLikedPostIds(any(), any())).thenReturn(List.of());
+        likers(1L, 1L, 2L, 3L);
+
+        postLikerIndex.likedBy(1L, List.of(1L));
+
+        assertFalse(postLikerIndex.isLoaded(1L));
+        assertTrue(postLikerIndex.usedBytes() <= 1);
+    }
+
+    @Test
+    void likedBy_AsyncLoad_ShouldBuildBitmapOffRequestThread() throws InterruptedException {
+        postLikerIndex = new PostLikerIndex(postLikeRepository, 1024 * 1024, 4, true);
+        when(postLikeRepository.findLikedPostIds(any(), any())).thenReturn(List.of(1L));
+        Thread requestThread = Thread.currentThread();
+        doAnswer(invocation -> {
+            assertNotSame(requestThread, Thread.currentThread());
+            invocation.<LongConsumer>getArgument(1).accept(7L);
+            return null;
+        }).when(postLikeRepository).forEachAuthorId(eq(1L), any());
+
+        assertTrue(postLikerIndex.likedBy(7L, List.of(1L)).get(1L));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!postLikerIndex.isLoaded(1L) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(postLikerIndex.isLoaded(1L));
+        clearInvocations(postLikeRepository);
+        assertTrue(postLikerIndex.likedBy(7L, List.of(1L)).get(1L));
+        verifyNoInteractions(postLikeRepository);
+        postLikerIndex.shutdown();
+    }
+
+    @Test
+    void evict_ShouldDropBitmap() {
+        when(postLikeRepository.findLikedPostIds(any(), any())).thenReturn(List.of());
+        likers(1L, 1L);
+        postLikerIndex.likedBy(1L, List.of(1L));
+
+        postLikerIndex.evict(1L);
+
+        assertFalse(postLikerIndex.isLoaded(1L));
+        assertEquals(0, postLikerIndex.usedBytes());
+    }
+
+    private void likers(long postId, long... authorIds) {
+        doAnswer(invocation -> {
+            LongConsumer consumer = invocation.getArgument(1);
+            for (long authorId : authorIds) {
+                consumer.accept(authorId);
+            }
+            return null;
+        }).when(postLikeRepository).forEachAuthorId(eq(postId), any());
+    }
+}
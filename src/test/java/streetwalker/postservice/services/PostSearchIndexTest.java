@@ -0,0 +1,160 @@
+package streetwalker.postservice.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import streetwalker.postservice.dto.post.PostSearchHitDTO;
+import streetwalker.postservice.dto.post.PostSearchRow;
+import streetwalker.postservice.repositories.PostRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PostSearchIndexTest {
+    @Mock
+    private PostRepository postRepository;
+
+    private PostSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        index = new PostSearchIndex(postRepository, 3, false, 2);
+    }
+
+    @Test
+    void search_ShouldRankTitleMatchesAboveContentMatches() {
+        index.index(1L, "Harbour at dawn", "We walked along the river at night");
+        index.index(2L, "Night walk", "Lanterns and empty streets");
+        index.index(3L, "Market", "Fresh bread");
+
+        List<PostSearchHitDTO> hits = index.search("night", 10);
+
+        assertEquals(List.of(2L, 1L), hits.stream().map(PostSearchHitDTO::getId).toList());
+        assertEquals("Night walk", hits.get(0).getTitle());
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+    }
+
+    @Test
+    void search_ShouldMatchStemmedTermsAndPreferDocumentsWithMoreQueryTerms() {
+        index.index(1L, "Walking tours", "Old town");
+        index.index(2L, "Walks", "Across the old bridges");
+
+        List<PostSearchHitDTO> hits = index.search("old walk", 10);
+
+        assertEquals(2, hits.size());
+        assertTrue(index.search("bridge", 10).stream().anyMatch(hit -> hit.getId() == 2L));
+    }
+
+    @Test
+    void search_ShouldRespectLimit() {
+        for (long id = 1; id <= 5; id++) {
+            index.index(id, "Walk " + id, null);
+        }
+
+        assertEquals(3, index.search("walk", 3).size());
+    }
+
+    @Test
+    void index_SamePostAgain_ShouldReplaceOldTerms() {
+        index.index(1L, "Night walk", "");
+        index.index(1L, "Morning run", "");
+
+        assertTrue(index.search("night", 10).isEmpty());
+        assertEquals(1L, index.search("morning", 10).get(0).getId());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void remove_ShouldHidePostFromResults() {
+        index.index(1L, "Night walk", "");
+        index.index(2L, "Night market", "");
+
+        index.remove(1L);
+
+        assertEquals(List.of(2L), index.search("night", 10).stream().map(PostSearchHitDTO::getId).toList());
+    }
+
+    @Test
+    void search_WithPrunedTopK_ShouldMatchExhaustiveRanking() {
+        String[] words = {"river", "bridge", "market", "lantern", "harbour", "tram", "garden"};
+        for (long id = 1; id <= 3_000; id++) {
+            StringBuilder content = new StringBuilder("street");
+            for (int w = 0; w < words.length; w++) {
+                if ((id * (w + 3)) % (w + 2) == 0) {
+                    content.append(' ').append(words[w]);
+                }
+            }
+            index.index(id, id % 97 == 0 ? "Garden street" : "Walk " + id, content.toString());
+        }
+
+        // Лимит больше числа документов — куча не заполняется и отсечение не срабатывает
+        List<PostSearchHitDTO> exhaustive = index.search("street garden river tram", 5_000);
+        List<PostSearchHitDTO> pruned = index.search("street garden river tram", 10);
+
+        assertEquals(exhaustive.subList(0, 10).stream().map(PostSearchHitDTO::getId).toList(),
+                pruned.stream().map(PostSearchHitDTO::getId).toList());
+    }
+
+    @Test
+    void search_EqualScores_ShouldKeepOlderPostsFirst() {
+        for (long id = 1; id <= 5; id++) {
+            index.index(id, "Walk", null);
+        }
+
+        assertEquals(List.of(1L, 2L, 3L), index.search("walk", 3).stream().map(PostSearchHitDTO::getId).toList());
+    }
+
+    @Test
+    void index_AfterRemove_ShouldMakePostSearchableAgain() {
+        index.index(1L, "Night walk", "");
+        index.remove(1L);
+        index.index(1L, "Night walk", "");
+
+        assertEquals(List.of(1L), index.search("night", 10).stream().map(PostSearchHitDTO::getId).toList());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void remove_ManyPosts_ShouldCompactAndKeepRemainingSearchable() {
+        for (long id = 1; id <= 20_000; id++) {
+            index.index(id, "Walk " + id, "street");
+        }
+        for (long id = 1; id <= 19_990; id++) {
+            index.remove(id);
+        }
+
+        List<PostSearchHitDTO> hits = index.search("street", 100);
+
+        assertEquals(10, hits.size());
+        assertTrue(hits.stream().allMatch(hit -> hit.getId() > 19_990));
+        assertEquals("Walk 20000", index.search("20000", 1).get(0).getTitle());
+    }
+
+    @Test
+    void rebuild_ShouldLoadAllPostsInBatches() {
+        when(postRepository.findSearchRows(eq(0L), any(Limit.class))).thenReturn(List.of(
+                new PostSearchRow(1L, "Night walk", null), new PostSearchRow(2L, "Bridges", null)));
+        when(postRepository.findSearchRows(eq(2L), any(Limit.class))).thenReturn(List.of(
+                new PostSearchRow(5L, "Night market", null)));
+
+        index.rebuild();
+
+        assertTrue(index.isReady());
+        assertEquals(3, index.size());
+        assertEquals(2, index.search("night", 10).size());
+    }
+
+    @Test
+    void search_WithOnlyStopWords_ShouldReturnNothing() {
+        index.index(1L, "The walk", "");
+
+        assertTrue(index.search("the and", 10).isEmpty());
+    }
+}
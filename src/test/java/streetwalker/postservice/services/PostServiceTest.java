@@ -4,26 +4,48 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataAccessException;
+import org.mapstruct.factory.Mappers;
 import org.springframework.data.domain.*;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import streetwalker.postservice.dto.category.CategoryDTO;
 import streetwalker.postservice.dto.comment.CommentCreateDTO;
+import streetwalker.postservice.dto.comment.CommentNodeDTO;
+import streetwalker.postservice.dto.comment.CommentTreeDTO;
+import streetwalker.postservice.dto.post.PostBatchDTO;
 import streetwalker.postservice.dto.post.PostCreateDTO;
 import streetwalker.postservice.dto.post.PostDTO;
+import streetwalker.postservice.dto.post.PostSearchHitDTO;
+import streetwalker.postservice.dto.post.PostSliceDTO;
+import streetwalker.postservice.dto.post.PostSummary;
+import streetwalker.postservice.dto.post.PostTagRow;
 import streetwalker.postservice.dto.post.PostUpdateDTO;
 import streetwalker.postservice.dto.postlike.PostLikeDTO;
+import streetwalker.postservice.dto.postlike.PostLikeStatusRequestDTO;
 import streetwalker.postservice.dto.tag.TagDTO;
 import streetwalker.postservice.mappers.PostMapper;
 import streetwalker.postservice.models.*;
+import streetwalker.postservice.repositories.PostLikeRepository;
 import streetwalker.postservice.repositories.PostRepository;
 
+import java.time.Duration;
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +54,9 @@ class PostServiceTest {
     @Mock
     private PostRepository postRepository;
 
+    @Mock
+    private PostLikeRepository postLikeRepository;
+
     @Mock
     private PostMapper postMapper;
 
@@ -44,6 +69,21 @@ class PostServiceTest {
 
     @Mock CommentService commentService;
 
+    @Mock
+    private LikeBuffer likeBuffer;
+
+    @Mock
+    private PostLikerIndex postLikerIndex;
+
+    @Mock
+    private PostSearchIndex postSearchIndex;
+
+    @Mock
+    private PostDeletionService postDeletionService;
+
+    @Spy
+    private PostCache postCache = new PostCache(Mappers.getMapper(PostMapper.class), 100, Duration.ofMinutes(1));
+
     @InjectMocks
     private PostService postService;
 
@@ -93,27 +133,72 @@ class PostServiceTest {
     }
 
     @Test
-    void likePost_WithExistingPost_ShouldAddLike() {
+    void likePost_WithExistingPost_ShouldLikeInSingleStatement() {
         // Arrange
         Long postId = 1L;
+        Long authorId = 100L;
         PostLikeDTO postLikeDTO = new PostLikeDTO();
         postLikeDTO.setPostId(postId);
+        postLikeDTO.setAuthorId(authorId);
 
-        Post post = new Post();
-        post.setId(postId);
-        post.setLikes(new ArrayList<>());
-
-        when(postRepository.findById(postId)).thenReturn(Optional.of(post));
-        when(postRepository.save(post)).thenReturn(post);
+        when(postLikeRepository.likeIfAbsent(postId, authorId)).thenReturn(1);
 
         // Act
         postService.likePost(postLikeDTO);
 
         // Assert
-        assertEquals(1, post.getLikes().size());
-        assertTrue(post.getLikes().stream().anyMatch(like -> like.getPost().equals(post)));
-        verify(postRepository).findById(postId);
-        verify(postRepository).save(post);
+        verify(postLikeRepository).likeIfAbsent(postId, authorId);
+        verify(postLikerIndex).onLike(postId, authorId);
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    void likePost_InTransaction_ShouldUpdateCacheAndBitmapOnlyAfterCommit() {
+        // Arrange
+        Long postId = 1L;
+        PostLikeDTO postLikeDTO = new PostLikeDTO();
+        postLikeDTO.setPostId(postId);
+        postLikeDTO.setAuthorId(100L);
+        when(postLikeRepository.likeIfAbsent(postId, 100L)).thenReturn(1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            postService.likePost(postLikeDTO);
+
+            // Assert
+            verify(postCache, never()).adjustLikes(postId, 1);
+            verify(postLikerIndex, never()).onLike(any(), any());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(postCache).adjustLikes(postId, 1);
+            verify(postLikerIndex).onLike(postId, 100L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void likePost_RolledBack_ShouldNotTouchCacheOrBitmap() {
+        // Arrange
+        Long postId = 1L;
+        PostLikeDTO postLikeDTO = new PostLikeDTO();
+        postLikeDTO.setPostId(postId);
+        postLikeDTO.setAuthorId(100L);
+        when(postLikeRepository.likeIfAbsent(postId, 100L)).thenReturn(1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            postService.likePost(postLikeDTO);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            // Assert
+            verify(postCache, never()).adjustLikes(any(), anyInt());
+            verifyNoInteractions(postLikerIndex);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
 
     @Test
@@ -123,7 +208,8 @@ class PostServiceTest {
         PostLikeDTO postLikeDTO = new PostLikeDTO();
         postLikeDTO.setPostId(postId);
 
-        when(postRepository.findById(postId)).thenReturn(Optional.empty());
+        when(postLikeRepository.likeIfAbsent(postId, null)).thenReturn(0);
+        when(postRepository.existsById(postId)).thenReturn(false);
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -131,8 +217,6 @@ class PostServiceTest {
         });
 
         assertEquals("Post not found", exception.getMessage());
-        verify(postRepository).findById(postId);
-        verify(postRepository, never()).save(any());
     }
 
     @Test
@@ -144,18 +228,8 @@ class PostServiceTest {
         postLikeDTO.setPostId(postId);
         postLikeDTO.setAuthorId(authorId);
 
-        Post post = new Post();
-        post.setId(postId);
-        List<PostLike> likes = new ArrayList<>();
-
-        // Создаем лайк с правильным LikeId
-        PostLike existingLike = new PostLike();
-        existingLike.setId(new LikeId(postId, authorId)); // Устанавливаем id напрямую
-        existingLike.setPost(post);
-        likes.add(existingLike);
-        post.setLikes(likes);
-
-        when(postRepository.findById(any(Long.class))).thenReturn(Optional.of(post));
+        when(postLikeRepository.likeIfAbsent(postId, authorId)).thenReturn(0);
+        when(postRepository.existsById(postId)).thenReturn(true);
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -163,12 +237,10 @@ class PostServiceTest {
         });
 
         assertEquals("Already liked", exception.getMessage());
-        verify(postRepository).findById(postId);
-        verify(postRepository, never()).save(any());
     }
 
     @Test
-    void unlikePost_WithExistingPostAndLike_ShouldRemoveLike() {
+    void unlikePost_WithExistingPostAndLike_ShouldUnlikeInSingleStatement() {
         // Arrange
         Long postId = 1L;
         Long authorId = 100L;
@@ -176,48 +248,28 @@ class PostServiceTest {
         postLikeDTO.setPostId(postId);
         postLikeDTO.setAuthorId(authorId);
 
-        Post post = new Post();
-        post.setId(postId);
-        List<PostLike> likes = new ArrayList<>();
-
-        // Создаем лайк с правильным LikeId
-        PostLike likeToRemove = new PostLike();
-        likeToRemove.setId(new LikeId(postId, authorId)); // Устанавливаем id напрямую
-        likeToRemove.setPost(post);
-        likes.add(likeToRemove);
-        post.setLikes(likes);
-
-        when(postRepository.findById(postId)).thenReturn(Optional.of(post));
-        when(postRepository.save(post)).thenReturn(post);
+        when(postLikeRepository.unlikeIfPresent(postId, authorId)).thenReturn(1);
 
         // Act
         postService.unlikePost(postLikeDTO);
 
         // Assert
-        assertTrue(post.getLikes().isEmpty());
-        verify(postRepository).findById(postId);
-        verify(postRepository).save(post);
+        verify(postLikeRepository).unlikeIfPresent(postId, authorId);
+        verify(postLikerIndex).onUnlike(postId, authorId);
+        verifyNoInteractions(postRepository);
     }
+
     @Test
     void unlikePost_WhenPostNotLikedByUser_ShouldThrowException() {
         // Arrange
         Long postId = 1L;
         Long authorId = 100L;
-        Long differentAuthorId = 200L; // Другой автор
         PostLikeDTO postLikeDTO = new PostLikeDTO();
         postLikeDTO.setPostId(postId);
         postLikeDTO.setAuthorId(authorId);
 
-        Post post = new Post();
-        post.setId(postId);
-        List<PostLike> likes = new ArrayList<>();
-
-        // Лайк от другого автора
-        PostLike existingLike = new PostLike(post, differentAuthorId);
-        likes.add(existingLike);
-        post.setLikes(likes);
-
-        when(postRepository.findById(postId)).thenReturn(Optional.of(post));
+        when(postLikeRepository.unlikeIfPresent(postId, authorId)).thenReturn(0);
+        when(postRepository.existsById(postId)).thenReturn(true);
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -225,9 +277,8 @@ class PostServiceTest {
         });
 
         assertEquals("Already unliked or never liked", exception.getMessage());
-        verify(postRepository).findById(postId);
-        verify(postRepository, never()).save(any());
     }
+
     @Test
     void unlikePost_WithNonExistingPost_ShouldThrowException() {
         // Arrange
@@ -235,7 +286,8 @@ class PostServiceTest {
         PostLikeDTO postLikeDTO = new PostLikeDTO();
         postLikeDTO.setPostId(postId);
 
-        when(postRepository.findById(postId)).thenReturn(Optional.empty());
+        when(postLikeRepository.unlikeIfPresent(postId, null)).thenReturn(0);
+        when(postRepository.existsById(postId)).thenReturn(false);
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -243,31 +295,176 @@ class PostServiceTest {
         });
 
         assertEquals("Post not found", exception.getMessage());
-        verify(postRepository).findById(postId);
-        verify(postRepository, never()).save(any());
     }
 
     @Test
-    void unlikePost_WhenPostNotLiked_ShouldThrowException() {
+    void likePost_WithBufferEnabled_ShouldOnlyRecordInBuffer() {
         // Arrange
-        Long postId = 1L;
         PostLikeDTO postLikeDTO = new PostLikeDTO();
-        postLikeDTO.setPostId(postId);
+        postLikeDTO.setPostId(1L);
+        postLikeDTO.setAuthorId(100L);
+        PostDTO cached = new PostDTO();
+        cached.setId(1L);
+        postCache.put(cached);
 
-        Post post = new Post();
-        post.setId(postId);
-        post.setLikes(new ArrayList<>()); // Empty likes list
+        when(likeBuffer.isEnabled()).thenReturn(true);
 
-        when(postRepository.findById(postId)).thenReturn(Optional.of(post));
+        // Act
+        postService.likePost(postLikeDTO);
+
+        // Assert
+        verify(likeBuffer).like(1L, 100L);
+        verifyNoInteractions(postRepository, postLikeRepository);
+    }
+
+    @Test
+    void likePost_WithBufferEnabledAndPostNotCached_ShouldCheckExistence() {
+        // Arrange
+        PostLikeDTO postLikeDTO = new PostLikeDTO();
+        postLikeDTO.setPostId(1L);
+        postLikeDTO.setAuthorId(100L);
+
+        when(likeBuffer.isEnabled()).thenReturn(true);
+        when(postRepository.existsById(1L)).thenReturn(true);
+
+        // Act
+        postService.likePost(postLikeDTO);
+
+        // Assert
+        verify(likeBuffer).like(1L, 100L);
+        verifyNoInteractions(postLikeRepository);
+    }
+
+    @Test
+    void likePost_WithBufferEnabledAndMissingPost_ShouldThrowException() {
+        // Arrange
+        PostLikeDTO postLikeDTO = new PostLikeDTO();
+        postLikeDTO.setPostId(1L);
+        postLikeDTO.setAuthorId(100L);
+
+        when(likeBuffer.isEnabled()).thenReturn(true);
+        when(postRepository.existsById(1L)).thenReturn(false);
 
         // Act & Assert
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            postService.unlikePost(postLikeDTO);
-        });
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> postService.likePost(postLikeDTO));
+        assertEquals("Post not found", ex.getMessage());
+        verify(likeBuffer, never()).like(any(), any());
+    }
 
-        assertEquals("Already unliked or never liked", exception.getMessage());
-        verify(postRepository).findById(postId);
-        verify(postRepository, never()).save(any());
+    @Test
+    void unlikePost_WithBufferEnabledAndMissingPost_ShouldThrowException() {
+        // Arrange
+        PostLikeDTO postLikeDTO = new PostLikeDTO();
+        postLikeDTO.setPostId(1L);
+        postLikeDTO.setAuthorId(100L);
+
+        when(likeBuffer.isEnabled()).thenReturn(true);
+        when(postRepository.existsById(1L)).thenReturn(false);
+
+        // Act & Assert
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> postService.unlikePost(postLikeDTO));
+        assertEquals("Post not found", ex.getMessage());
+        verify(likeBuffer, never()).unlike(any(), any());
+    }
+
+    @Test
+    void getPost_WithBufferEnabled_ShouldMergePendingLikes() {
+        // Arrange
+        Post post = new Post();
+        post.setId(1L);
+        PostDTO dto = new PostDTO();
+        dto.setId(1L);
+        dto.setLikes(10);
+
+        when(postRepository.findById(1L)).thenReturn(Optional.of(post));
+        when(postMapper.toDTO(post)).thenReturn(dto);
+        when(likeBuffer.isEnabled()).thenReturn(true);
+        when(likeBuffer.pendingDelta(1L)).thenReturn(2L);
+        when(postMapper.copy(dto)).thenReturn(new PostDTO());
+
+        // Act
+        PostDTO result = postService.getPost(1L);
+
+        // Assert
+        assertEquals(12, result.getLikes());
+        // Закэшированный DTO не должен получить незафиксированные лайки
+        assertEquals(10, postCache.getIfPresent(1L).getLikes());
+    }
+
+    @Test
+    void getPost_CalledTwice_ShouldHitRepositoryOnce() {
+        // Arrange
+        Post post = new Post();
+        post.setId(1L);
+        PostDTO dto = new PostDTO();
+        dto.setId(1L);
+
+        when(postRepository.findById(1L)).thenReturn(Optional.of(post));
+        when(postMapper.toDTO(post)).thenReturn(dto);
+
+        // Act
+        postService.getPost(1L);
+        PostDTO result = postService.getPost(1L);
+
+        // Assert
+        assertSame(dto, result);
+        verify(postRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void likePost_WithCachedPost_ShouldPatchCachedLikes() {
+        // Arrange
+        PostDTO cached = new PostDTO();
+        cached.setId(1L);
+        cached.setLikes(5);
+        postCache.put(cached);
+        PostLikeDTO postLikeDTO = new PostLikeDTO();
+        postLikeDTO.setPostId(1L);
+        postLikeDTO.setAuthorId(100L);
+
+        when(postLikeRepository.likeIfAbsent(1L, 100L)).thenReturn(1);
+
+        // Act
+        postService.likePost(postLikeDTO);
+
+        // Assert
+        assertEquals(6, postCache.getIfPresent(1L).getLikes());
+        assertEquals(5, cached.getLikes());
+    }
+
+    @Test
+    void getLikeStatus_ShouldAnswerFromIndexAndOverlayBufferedLikes() {
+        // Arrange
+        PostLikeStatusRequestDTO request = new PostLikeStatusRequestDTO();
+        request.setAuthorId(100L);
+        request.setPostIds(List.of(1L, 2L));
+
+        Map<Long, Boolean> indexed = new LinkedHashMap<>();
+        indexed.put(1L, true);
+        indexed.put(2L, false);
+        when(postLikerIndex.likedBy(100L, List.of(1L, 2L))).thenReturn(indexed);
+        when(likeBuffer.isEnabled()).thenReturn(true);
+        when(likeBuffer.pendingState(1L, 100L)).thenReturn(null);
+        when(likeBuffer.pendingState(2L, 100L)).thenReturn(true);
+
+        // Act
+        Map<Long, Boolean> result = postService.getLikeStatus(request);
+
+        // Assert
+        assertEquals(List.of(1L, 2L), List.copyOf(result.keySet()));
+        assertTrue(result.get(1L));
+        assertTrue(result.get(2L));
+    }
+
+    @Test
+    void getLikeStatus_WithoutAuthor_ShouldThrowException() {
+        PostLikeStatusRequestDTO request = new PostLikeStatusRequestDTO();
+        request.setPostIds(List.of(1L));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> postService.getLikeStatus(request));
+
+        assertEquals("authorId is required", exception.getMessage());
+        verifyNoInteractions(postLikerIndex);
     }
 
     @Test
@@ -314,23 +511,20 @@ class PostServiceTest {
         Pageable pageable = PageRequest.of(0, 10, Sort.by("id"));
         String title = "test";
 
-        Post post1 = new Post();
-        post1.setId(1L);
-        Post post2 = new Post();
-        post2.setId(2L);
-
-        List<Post> posts = List.of(post1, post2);
-        Page<Post> postPage = new PageImpl<>(posts, pageable, posts.size());
+        PostSummary summary1 = summary(1L);
+        PostSummary summary2 = summary(2L);
+        Page<PostSummary> summaryPage = new PageImpl<>(List.of(summary1, summary2), pageable, 2);
+        List<PostTagRow> tagRows = List.of(new PostTagRow(1L, "java", "d1"), new PostTagRow(1L, "spring", "d2"));
 
         PostDTO dto1 = new PostDTO();
         dto1.setId(1L);
         PostDTO dto2 = new PostDTO();
         dto2.setId(2L);
 
-        when(postRepository.findPostByTitleContainingIgnoreCase(pageable, title))
-                .thenReturn(postPage);
-        when(postMapper.toDTO(post1)).thenReturn(dto1);
-        when(postMapper.toDTO(post2)).thenReturn(dto2);
+        when(postRepository.findSummaries(title, pageable)).thenReturn(summaryPage);
+        when(postRepository.findTagRows(List.of(1L, 2L))).thenReturn(tagRows);
+        when(postMapper.fromSummary(summary1, List.of(new TagDTO("java", "d1"), new TagDTO("spring", "d2")))).thenReturn(dto1);
+        when(postMapper.fromSummary(summary2, List.of())).thenReturn(dto2);
 
         // Act
         Page<PostDTO> result = postService.getPosts(pageable, title);
@@ -340,8 +534,10 @@ class PostServiceTest {
         assertEquals(2, result.getContent().size());
         assertEquals(1L, result.getContent().get(0).getId());
         assertEquals(2L, result.getContent().get(1).getId());
-        verify(postRepository).findPostByTitleContainingIgnoreCase(pageable, title);
-        verify(postMapper, times(2)).toDTO(any(Post.class));
+        verify(postRepository).findSummaries(title, pageable);
+        verify(postRepository).findTagRows(List.of(1L, 2L));
+        verify(postRepository, never()).findById(any());
+        verify(postMapper, never()).toDTO(any());
     }
 
     @Test
@@ -350,15 +546,13 @@ class PostServiceTest {
         Pageable pageable = PageRequest.of(0, 10);
         String title = "";
 
-        Post post = new Post();
-        post.setId(1L);
-        Page<Post> postPage = new PageImpl<>(List.of(post), pageable, 1);
+        PostSummary summary = summary(1L);
+        Page<PostSummary> summaryPage = new PageImpl<>(List.of(summary), pageable, 1);
         PostDTO dto = new PostDTO();
         dto.setId(1L);
 
-        when(postRepository.findPostByTitleContainingIgnoreCase(pageable, title))
-                .thenReturn(postPage);
-        when(postMapper.toDTO(post)).thenReturn(dto);
+        when(postRepository.findSummaries(title, pageable)).thenReturn(summaryPage);
+        when(postMapper.fromSummary(summary, List.of())).thenReturn(dto);
 
         // Act
         Page<PostDTO> result = postService.getPosts(pageable, title);
@@ -366,32 +560,29 @@ class PostServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
-        verify(postRepository).findPostByTitleContainingIgnoreCase(pageable, title);
+        verify(postRepository).findSummaries(title, pageable);
     }
 
     @Test
     void getPosts_WithNullTitle_ShouldReturnAllPosts() {
         // Arrange
         Pageable pageable = PageRequest.of(0, 10);
-        String title = null;
 
-        Post post = new Post();
-        post.setId(1L);
-        Page<Post> postPage = new PageImpl<>(List.of(post), pageable, 1);
+        PostSummary summary = summary(1L);
+        Page<PostSummary> summaryPage = new PageImpl<>(List.of(summary), pageable, 1);
         PostDTO dto = new PostDTO();
         dto.setId(1L);
 
-        when(postRepository.findPostByTitleContainingIgnoreCase(pageable, title))
-                .thenReturn(postPage);
-        when(postMapper.toDTO(post)).thenReturn(dto);
+        when(postRepository.findSummaries("", pageable)).thenReturn(summaryPage);
+        when(postMapper.fromSummary(summary, List.of())).thenReturn(dto);
 
         // Act
-        Page<PostDTO> result = postService.getPosts(pageable, title);
+        Page<PostDTO> result = postService.getPosts(pageable, null);
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
-        verify(postRepository).findPostByTitleContainingIgnoreCase(pageable, title);
+        verify(postRepository).findSummaries("", pageable);
     }
 
     @Test
@@ -400,10 +591,9 @@ class PostServiceTest {
         Pageable pageable = PageRequest.of(0, 10);
         String title = "nonexistent";
 
-        Page<Post> emptyPage = new PageImpl<>(List.of(), pageable, 0);
+        Page<PostSummary> emptyPage = new PageImpl<>(List.of(), pageable, 0);
 
-        when(postRepository.findPostByTitleContainingIgnoreCase(pageable, title))
-                .thenReturn(emptyPage);
+        when(postRepository.findSummaries(title, pageable)).thenReturn(emptyPage);
 
         // Act
         Page<PostDTO> result = postService.getPosts(pageable, title);
@@ -411,8 +601,155 @@ class PostServiceTest {
         // Assert
         assertNotNull(result);
         assertTrue(result.getContent().isEmpty());
-        verify(postRepository).findPostByTitleContainingIgnoreCase(pageable, title);
-        verify(postMapper, never()).toDTO(any());
+        verify(postRepository).findSummaries(title, pageable);
+        verify(postRepository, never()).findTagRows(any());
+        verify(postMapper, never()).fromSummary(any(), any());
+    }
+
+    @Test
+    void getPostsByIds_ShouldServeCachedPostsAndLoadRestWithInQueries() {
+        PostDTO cached = new PostDTO();
+        cached.setId(2L);
+        postCache.put(cached);
+        PostSummary summary3 = summary(3L);
+        PostDTO dto3 = new PostDTO();
+        dto3.setId(3L);
+        when(postRepository.findSummariesByIds(List.of(3L, 9L))).thenReturn(List.of(summary3));
+        when(postRepository.findTagRows(List.of(3L))).thenReturn(List.of(new PostTagRow(3L, "java", "d")));
+        when(postMapper.fromSummary(summary3, List.of(new TagDTO("java", "d")))).thenReturn(dto3);
+
+        PostBatchDTO batch = postService.getPosts(List.of(3L, 2L, 9L, 3L));
+
+        assertEquals(List.of(3L, 2L), batch.getPosts().stream().map(PostDTO::getId).toList());
+        assertEquals(List.of(9L), batch.getMissingIds());
+        assertSame(dto3, postCache.getIfPresent(3L));
+        verify(postRepository, never()).findById(any());
+    }
+
+    @Test
+    void getPostsByIds_AllCached_ShouldNotQuery() {
+        PostDTO cached = new PostDTO();
+        cached.setId(1L);
+        postCache.put(cached);
+
+        PostBatchDTO batch = postService.getPosts(List.of(1L));
+
+        assertEquals(1, batch.getPosts().size());
+        assertTrue(batch.getMissingIds().isEmpty());
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    void getPostsByIds_TooMany_ShouldThrow() {
+        List<Long> ids = LongStream.rangeClosed(1, 101).boxed().toList();
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> postService.getPosts(ids));
+
+        assertEquals("Too many post ids, max 100", ex.getMessage());
+    }
+
+    @Test
+    void getPostsAfter_WithoutCursor_ShouldFetchLimitPlusOneAndReturnNextCursor() {
+        // Arrange
+        OffsetDateTime createdAt = OffsetDateTime.parse("2025-01-01T10:00:00Z");
+        PostSummary summary1 = summary(3L, createdAt);
+        PostSummary summary2 = summary(2L, createdAt);
+        PostSummary summary3 = summary(1L, createdAt.minusMinutes(1));
+
+        when(postRepository.findFirstSummaries(eq("walk"), argThat(limit -> limit.max() == 3))).thenReturn(List.of(summary1, summary2, summary3));
+        when(postMapper.fromSummary(any(), any())).thenReturn(new PostDTO());
+
+        // Act
+        PostSliceDTO result = postService.getPostsAfter(null, 2, "walk");
+
+        // Assert
+        assertEquals(2, result.getContent().size());
+        assertTrue(result.isHasNext());
+        PostCursor cursor = PostCursor.decode(result.getNextCursor());
+        assertEquals(2L, cursor.getId());
+        assertTrue(createdAt.isEqual(cursor.getCreatedAt()));
+        verify(postRepository).findTagRows(List.of(3L, 2L));
+    }
+
+    @Test
+    void getPostsAfter_WithCursor_ShouldSeekAfterCursor() {
+        // Arrange
+        OffsetDateTime createdAt = OffsetDateTime.parse("2025-01-01T10:00:00Z");
+        String after = new PostCursor(createdAt, 5L).encode();
+
+        when(postRepository.findSummariesAfter(any(), any(), any(), any())).thenReturn(List.of(summary(4L, createdAt)));
+        when(postMapper.fromSummary(any(), any())).thenReturn(new PostDTO());
+
+        // Act
+        PostSliceDTO result = postService.getPostsAfter(after, 2, null);
+
+        // Assert
+        assertEquals(1, result.getContent().size());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+        verify(postRepository).findSummariesAfter(eq(""), argThat(createdAt::isEqual), eq(5L), argThat(limit -> limit.max() == 3));
+    }
+
+    @Test
+    void getPostsAfter_WithInvalidCursor_ShouldThrowException() {
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> postService.getPostsAfter("not a cursor", 10, ""));
+
+        assertEquals("Invalid cursor", exception.getMessage());
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    void getPostsAfter_WithLimitOutOfRange_ShouldThrowException() {
+        assertThrows(RuntimeException.class, () -> postService.getPostsAfter(null, 0, ""));
+        assertThrows(RuntimeException.class, () -> postService.getPostsAfter(null, 101, ""));
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    void search_ShouldDelegateToIndex() {
+        // Arrange
+        List<PostSearchHitDTO> hits = List.of(new PostSearchHitDTO(1L, "Night walk", 1.5));
+        when(postSearchIndex.search("night walks", 10)).thenReturn(hits);
+
+        // Act
+        List<PostSearchHitDTO> result = postService.search("night walks", 10);
+
+        // Assert
+        assertEquals(hits, result);
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    void search_WithBlankQuery_ShouldThrowException() {
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> postService.search("  ", 10));
+
+        assertEquals("q is required", exception.getMessage());
+        verifyNoInteractions(postSearchIndex);
+    }
+
+    @Test
+    void getCommentTree_WithUnknownPost_ShouldThrowException() {
+        // Arrange
+        when(commentService.getCommentTree(999L)).thenReturn(new CommentTreeDTO(999L, List.of(), 0, false));
+        when(postRepository.existsById(999L)).thenReturn(false);
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> postService.getCommentTree(999L));
+        assertEquals("Post not found", exception.getMessage());
+    }
+
+    @Test
+    void getCommentTree_WithComments_ShouldNotCheckPostExistence() {
+        // Arrange
+        CommentTreeDTO tree = new CommentTreeDTO(1L, List.of(new CommentNodeDTO(10L, 2L, "hi")), 1, false);
+        when(commentService.getCommentTree(1L)).thenReturn(tree);
+
+        // Act
+        CommentTreeDTO result = postService.getCommentTree(1L);
+
+        // Assert
+        assertSame(tree, result);
+        verifyNoInteractions(postRepository);
     }
 
     @Test
@@ -454,6 +791,37 @@ class PostServiceTest {
         verify(postMapper).updateFromDTO(updateDTO, existingPost);
         verify(postRepository).save(existingPost);
         verify(postMapper).toDTO(savedPost);
+        verify(postSearchIndex).index(postId, "Updated Title", "Updated Content");
+    }
+
+    @Test
+    void update_WithStaleExpectedVersion_ShouldThrowMismatch() {
+        PostUpdateDTO updateDTO = new PostUpdateDTO();
+        updateDTO.setId(1L);
+        Post existingPost = new Post();
+        existingPost.setId(1L);
+        existingPost.setVersion(5L);
+        when(postRepository.findById(1L)).thenReturn(Optional.of(existingPost));
+
+        assertThrows(PostVersionMismatchException.class, () -> postService.update(updateDTO, 4L));
+
+        verify(postMapper, never()).updateFromDTO(any(), any());
+        verify(postRepository, never()).save(any());
+    }
+
+    @Test
+    void update_WhenConcurrentlyModified_ShouldThrowMismatch() {
+        PostUpdateDTO updateDTO = new PostUpdateDTO();
+        updateDTO.setId(1L);
+        Post existingPost = new Post();
+        existingPost.setId(1L);
+        existingPost.setVersion(5L);
+        when(postRepository.findById(1L)).thenReturn(Optional.of(existingPost));
+        when(postRepository.save(existingPost)).thenThrow(new ObjectOptimisticLockingFailureException(Post.class, 1L));
+
+        assertThrows(PostVersionMismatchException.class, () -> postService.update(updateDTO, 5L));
+
+        verify(postCache, never()).put(any());
     }
 
     @Test
@@ -506,44 +874,61 @@ class PostServiceTest {
     void delete_WithExistingId_ShouldDeletePost() {
         // Arrange
         Long postId = 1L;
-        doNothing().when(postRepository).deleteById(postId);
+        when(postRepository.deletePostCascade(postId)).thenReturn(1);
 
         // Act
-        assertDoesNotThrow(() -> {
-            postService.delete(postId);
-        });
+        boolean deleted = postService.delete(postId);
 
         // Assert
-        verify(postRepository).deleteById(postId);
+        assertTrue(deleted);
+        verify(postRepository).deletePostCascade(postId);
+        verify(postRepository, never()).deleteById(any());
+        verify(postCache).invalidate(postId);
+        verify(postLikerIndex).evict(postId);
+        verify(postSearchIndex).remove(postId);
     }
 
     @Test
-    void delete_WithNonExistingId_ShouldThrowDataAccessException() {
+    void delete_WithNonExistingId_ShouldThrowException() {
         // Arrange
         Long postId = 999L;
-        doThrow(new DataAccessException("Post not found") {}).when(postRepository).deleteById(postId);
+        when(postRepository.deletePostCascade(postId)).thenReturn(0);
 
         // Act & Assert
-        DataAccessException exception = assertThrows(DataAccessException.class, () -> {
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
             postService.delete(postId);
         });
 
         assertEquals("Post not found", exception.getMessage());
-        verify(postRepository).deleteById(postId);
+        verify(postSearchIndex, never()).remove(any());
     }
 
     @Test
-    void delete_WithNullId_ShouldThrowException() {
+    void delete_WithDatabaseError_ShouldPropagateDataAccessException() {
         // Arrange
-        Long postId = null;
-        doThrow(new IllegalArgumentException("ID must not be null")).when(postRepository).deleteById(null);
+        Long postId = 5L;
+        when(postRepository.deletePostCascade(postId)).thenThrow(new DataAccessException("connection lost") {});
 
         // Act & Assert
-        assertThrows(IllegalArgumentException.class, () -> {
+        assertThrows(DataAccessException.class, () -> {
             postService.delete(postId);
         });
+    }
 
-        verify(postRepository).deleteById(null);
+    @Test
+    void delete_WithManyDependentRows_ShouldRunInBackground() {
+        // Arrange
+        Long postId = 2L;
+        when(postDeletionService.shouldDeleteInBackground(postId)).thenReturn(true);
+
+        // Act
+        boolean deleted = postService.delete(postId);
+
+        // Assert
+        assertFalse(deleted);
+        verify(postDeletionService).deleteInChunks(postId);
+        verify(postRepository, never()).deletePostCascade(any());
+        verify(postSearchIndex).remove(postId);
     }
 
     // Дополнительные тесты для edge cases
@@ -554,17 +939,16 @@ class PostServiceTest {
         Pageable pageable = PageRequest.of(2, 5, Sort.by("title").descending());
         String title = "test";
 
-        Page<Post> postPage = new PageImpl<>(List.of(), pageable, 0);
+        Page<PostSummary> summaryPage = new PageImpl<>(List.of(), pageable, 0);
 
-        when(postRepository.findPostByTitleContainingIgnoreCase(pageable, title))
-                .thenReturn(postPage);
+        when(postRepository.findSummaries(title, pageable)).thenReturn(summaryPage);
 
         // Act
         Page<PostDTO> result = postService.getPosts(pageable, title);
 
         // Assert
         assertNotNull(result);
-        verify(postRepository).findPostByTitleContainingIgnoreCase(pageable, title);
+        verify(postRepository).findSummaries(title, pageable);
     }
 
     @Test
@@ -623,4 +1007,12 @@ class PostServiceTest {
 
         assertEquals("Post not found", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    private static PostSummary summary(Long id) {
+        return summary(id, null);
+    }
+
+    private static PostSummary summary(Long id, OffsetDateTime createdAt) {
+        return new PostSummary(id, "title " + id, "content", 100L, 0, null, null, createdAt, createdAt, 0L);
+    }
+}
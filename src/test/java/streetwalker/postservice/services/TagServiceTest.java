@@ -10,9 +10,10 @@ import streetwalker.postservice.models.Tag;
 import streetwalker.postservice.repositories.TagRepository;
 
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.*;
 
 class TagServiceTest {
@@ -28,15 +29,42 @@ class TagServiceTest {
 
     @Test
     void proceedTagsWhenCreatingPost_ReturnsExistingAndNewTags() {
-        when(tagRepository.findTagByTagName("java")).thenReturn(Optional.of(new Tag(1L, "java", "desc")));
-        when(tagRepository.findTagByTagName("spring")).thenReturn(Optional.empty());
-        when(tagRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(tagRepository.findAllByTagNames(Set.of("java", "spring"))).thenReturn(List.of(new Tag(1L, "java", "desc")));
+        when(tagRepository.findAllByTagNames(List.of("spring"))).thenReturn(List.of(new Tag(2L, "spring", "description")));
 
         List<Tag> tags = tagService.proceedTagsWhenCreatingPost(List.of("java", "spring"));
 
-        assertEquals(2, tags.size());
-        verify(tagRepository, times(2)).findTagByTagName(anyString());
-        verify(tagRepository, times(1)).save(any(Tag.class));
+        assertEquals(List.of("java", "spring"), tags.stream().map(Tag::getTagName).toList());
+        verify(tagRepository).insertMissing(List.of("spring"), "description");
+        verify(tagRepository, times(2)).findAllByTagNames(anyCollection());
+        verify(tagRepository, never()).save(any(Tag.class));
+    }
+
+    @Test
+    void proceedTagsWhenCreatingPost_AllTagsExist_ShouldUseSingleQuery() {
+        when(tagRepository.findAllByTagNames(anyCollection())).thenReturn(List.of(
+                new Tag(2L, "spring", "d"), new Tag(1L, "java", "d")));
+
+        List<Tag> tags = tagService.proceedTagsWhenCreatingPost(List.of("java", "spring"));
+
+        assertEquals(List.of(1L, 2L), tags.stream().map(Tag::getId).toList());
+        verify(tagRepository, times(1)).findAllByTagNames(anyCollection());
+        verify(tagRepository, never()).insertMissing(anyCollection(), anyString());
+    }
+
+    @Test
+    void proceedTagsWhenCreatingPost_ShouldDedupeNamesInRequest() {
+        when(tagRepository.findAllByTagNames(anyCollection())).thenReturn(List.of(new Tag(1L, "java", "d")));
+
+        List<Tag> tags = tagService.proceedTagsWhenCreatingPost(List.of("java", "java", "java"));
+
+        assertEquals(1, tags.size());
+    }
+
+    @Test
+    void proceedTagsWhenCreatingPost_WithEmptyList_ShouldNotQuery() {
+        assertTrue(tagService.proceedTagsWhenCreatingPost(List.of()).isEmpty());
+        verifyNoInteractions(tagRepository);
     }
 
     @Test
@@ -0,0 +1,32 @@
+package streetwalker.postservice.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextAnalyzerTest {
+
+    @Test
+    void analyze_ShouldSplitLowercaseAndDropStopWords() {
+        assertEquals(List.of("night", "walk", "old", "town"), TextAnalyzer.analyze("The NIGHT walk, in the old-town!"));
+    }
+
+    @Test
+    void analyze_ShouldStemCommonSuffixes() {
+        assertEquals(List.of("walk", "walk", "walk", "city"), TextAnalyzer.analyze("walks walking walked cities"));
+        assertEquals(List.of("прогулк", "прогулк", "город"), TextAnalyzer.analyze("прогулка прогулками городов"));
+    }
+
+    @Test
+    void analyze_ShouldKeepShortStems() {
+        assertEquals(List.of("is1", "bus"), TextAnalyzer.analyze("is1 bus"));
+    }
+
+    @Test
+    void analyze_WithNullOrEmpty_ShouldReturnNoTerms() {
+        assertTrue(TextAnalyzer.analyze(null).isEmpty());
+        assertTrue(TextAnalyzer.analyze(" ,. ").isEmpty());
+    }
+}
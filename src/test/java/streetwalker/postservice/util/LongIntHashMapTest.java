@@ -0,0 +1,57 @@
+package streetwalker.postservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongIntHashMapTest {
+
+    @Test
+    void put_ShouldOverwriteExistingKey() {
+        LongIntHashMap map = new LongIntHashMap();
+        map.put(42L, 1);
+        map.put(42L, 2);
+
+        assertEquals(2, map.get(42L, -1));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void get_MissingKey_ShouldReturnDefault() {
+        LongIntHashMap map = new LongIntHashMap();
+
+        assertEquals(-1, map.get(7L, -1));
+        assertFalse(map.containsKey(7L));
+    }
+
+    @Test
+    void put_ZeroAndNegativeKeys_ShouldBeStored() {
+        LongIntHashMap map = new LongIntHashMap();
+        map.put(0L, 10);
+        map.put(-5L, 20);
+
+        assertEquals(10, map.get(0L, -1));
+        assertEquals(20, map.get(-5L, -1));
+        assertTrue(map.containsKey(0L));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void put_ManyKeys_ShouldGrowAndMatchHashMap() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(1);
+        for (int i = 0; i < 50_000; i++) {
+            long key = random.nextLong();
+            map.put(key, i);
+            expected.put(key, i);
+        }
+
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key, -1)));
+    }
+}